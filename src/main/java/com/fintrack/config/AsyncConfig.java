@@ -1,6 +1,7 @@
 package com.fintrack.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -20,4 +21,66 @@ public class AsyncConfig {
     executor.initialize();
     return executor;
   }
+
+  // SyncDispatcher never hands out more jobs than there are workers, so the queue only absorbs hand-over races.
+  @Bean
+  public Executor syncExecutor(SyncProperties properties) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(properties.workerCount());
+    executor.setMaxPoolSize(properties.workerCount());
+    executor.setQueueCapacity(properties.workerCount());
+    executor.setThreadNamePrefix("sync-worker-");
+    executor.initialize();
+    return executor;
+  }
+
+  // Enable Banking account fetches; a full queue makes the syncing thread fetch the account itself.
+  @Bean
+  public Executor enableBankingFetchExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(8);
+    executor.setMaxPoolSize(8);
+    executor.setQueueCapacity(64);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.setThreadNamePrefix("eb-fetch-");
+    executor.initialize();
+    return executor;
+  }
+
+  // Manual-account mirroring after each insert page; a full queue makes the committing thread mirror the page itself.
+  @Bean
+  public Executor manualMirrorExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(100);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.setThreadNamePrefix("manual-mirror-");
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean
+  public Executor recategorizeJobExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(10);
+    executor.setThreadNamePrefix("recategorize-");
+    executor.initialize();
+    return executor;
+  }
+
+  // Workers for parallel rule categorization; a full queue makes the submitting job run the slice itself.
+  @Bean
+  public Executor categorizationExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(4);
+    executor.setMaxPoolSize(4);
+    executor.setQueueCapacity(32);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.setThreadNamePrefix("categorize-");
+    executor.initialize();
+    return executor;
+  }
 }
@@ -15,5 +15,7 @@ public record EnableBankingProperties(
     String defaultPsuType,
     String defaultLanguage,
     Integer consentDays,
-    Boolean debugLogResponses
+    Integer syncOverlapDays,
+    Boolean debugLogResponses,
+    Integer aspspConcurrency
 ) {}
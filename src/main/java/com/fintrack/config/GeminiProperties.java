@@ -1,5 +1,7 @@
 package com.fintrack.config;
 
+import java.time.Duration;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "fintrack.ai.gemini")
@@ -7,5 +9,21 @@ public record GeminiProperties(
     String apiKey,
     String baseUrl,
     String model,
-    Boolean enabled
-) {}
+    Boolean enabled,
+    ModelLimits defaultLimits,
+    Map<String, ModelLimits> limits,
+    Long connectTimeoutMs,
+    Long readTimeoutMs
+) {
+  // Bounds each Gemini call, so a hung request cannot hold a scheduler or worker thread indefinitely.
+  public Duration connectTimeout() {
+    return Duration.ofMillis(connectTimeoutMs == null || connectTimeoutMs <= 0 ? 10_000L : connectTimeoutMs);
+  }
+
+  public Duration readTimeout() {
+    return Duration.ofMillis(readTimeoutMs == null || readTimeoutMs <= 0 ? 60_000L : readTimeoutMs);
+  }
+
+  // Requests per minute, tokens per minute and requests per day; null or <= 0 means unlimited.
+  public record ModelLimits(Integer rpm, Integer tpm, Integer rpd) {}
+}
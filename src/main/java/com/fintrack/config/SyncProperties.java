@@ -1,6 +1,45 @@
 package com.fintrack.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "fintrack.sync")
-public record SyncProperties(boolean enabled, long intervalMs, long cryptoIntervalMs) {}
+public record SyncProperties(
+    boolean enabled,
+    long intervalMs,
+    long cryptoIntervalMs,
+    Integer workers,
+    Integer defaultProviderConcurrency,
+    Map<String, Integer> providerConcurrency,
+    Long leaseMs
+) {
+  public int workerCount() {
+    return workers == null || workers <= 0 ? 4 : workers;
+  }
+
+  // How long a node holds a started job without renewing it before other nodes may take it over.
+  public Duration leaseDuration() {
+    return Duration.ofMillis(leaseMs == null || leaseMs <= 0 ? 300_000L : leaseMs);
+  }
+
+  // Syncs of one provider that may run at the same time, e.g. to stay inside ASPSP or API weight limits.
+  public int concurrencyFor(String providerId) {
+    Integer limit = providerConcurrency == null ? null : providerConcurrency.get(providerId);
+    return limit == null || limit <= 0 ? defaultConcurrency() : limit;
+  }
+
+  public int defaultConcurrency() {
+    return defaultProviderConcurrency == null || defaultProviderConcurrency <= 0 ? 2 : defaultProviderConcurrency;
+  }
+
+  // Configured per-provider caps, with unset or invalid entries resolved to the default.
+  public Map<String, Integer> concurrencyLimits() {
+    Map<String, Integer> limits = new HashMap<>();
+    if (providerConcurrency != null) {
+      providerConcurrency.keySet().forEach(providerId -> limits.put(providerId, concurrencyFor(providerId)));
+    }
+    return limits;
+  }
+}
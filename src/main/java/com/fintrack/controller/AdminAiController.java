@@ -1,7 +1,12 @@
 package com.fintrack.controller;
 
+import com.fintrack.dto.AiCacheStatsResponse;
 import com.fintrack.dto.AiKeyTestResponse;
+import com.fintrack.dto.AiRateLimitStatus;
+import com.fintrack.service.AiClassificationCache;
+import com.fintrack.service.AiRateLimiter;
 import com.fintrack.service.OpenAiClient;
+import java.util.List;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,13 +15,29 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/admin/ai")
 public class AdminAiController {
   private final OpenAiClient openAiClient;
+  private final AiClassificationCache aiClassificationCache;
+  private final AiRateLimiter aiRateLimiter;
 
-  public AdminAiController(OpenAiClient openAiClient) {
+  public AdminAiController(OpenAiClient openAiClient,
+                           AiClassificationCache aiClassificationCache,
+                           AiRateLimiter aiRateLimiter) {
     this.openAiClient = openAiClient;
+    this.aiClassificationCache = aiClassificationCache;
+    this.aiRateLimiter = aiRateLimiter;
   }
 
   @GetMapping("/test")
   public AiKeyTestResponse testKey() {
     return openAiClient.testApiKey();
   }
+
+  @GetMapping("/cache")
+  public AiCacheStatsResponse cacheStats() {
+    return aiClassificationCache.stats();
+  }
+
+  @GetMapping("/rate-limits")
+  public List<AiRateLimitStatus> rateLimits() {
+    return aiRateLimiter.snapshot();
+  }
 }
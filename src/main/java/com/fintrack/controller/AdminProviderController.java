@@ -0,0 +1,22 @@
+package com.fintrack.controller;
+
+import com.fintrack.dto.EnableBankingTokenStats;
+import com.fintrack.provider.enablebanking.EnableBankingClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/providers")
+public class AdminProviderController {
+  private final EnableBankingClient enableBankingClient;
+
+  public AdminProviderController(EnableBankingClient enableBankingClient) {
+    this.enableBankingClient = enableBankingClient;
+  }
+
+  @GetMapping("/enablebanking/tokens")
+  public EnableBankingTokenStats enableBankingTokens() {
+    return enableBankingClient.tokenStats();
+  }
+}
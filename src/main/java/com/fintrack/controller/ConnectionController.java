@@ -7,6 +7,7 @@ import com.fintrack.dto.CreateConnectionRequest;
 import com.fintrack.dto.EnableBankingAspspResponse;
 import com.fintrack.dto.ProviderResponse;
 import com.fintrack.dto.UpdateConnectionRequest;
+import com.fintrack.provider.SyncMode;
 import com.fintrack.service.ConnectionService;
 import com.fintrack.service.CurrentUserService;
 import com.fintrack.service.EnableBankingService;
@@ -157,9 +158,10 @@ public class ConnectionController {
 
   @PostMapping("/connections/{connectionId}/sync")
   @ResponseStatus(HttpStatus.ACCEPTED)
-  public ConnectionResponse sync(@PathVariable UUID connectionId) {
+  public ConnectionResponse sync(@PathVariable UUID connectionId,
+                                 @RequestParam(value = "full", defaultValue = "false") boolean full) {
     UUID userId = currentUserService.requireUserId();
-    return connectionService.syncConnection(userId, connectionId);
+    return connectionService.syncConnection(userId, connectionId, full ? SyncMode.FULL : SyncMode.INCREMENTAL);
   }
 
   @DeleteMapping("/connections/{connectionId}")
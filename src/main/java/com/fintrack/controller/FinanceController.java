@@ -4,21 +4,27 @@ import com.fintrack.dto.AccountResponse;
 import com.fintrack.dto.AccountShareRequest;
 import com.fintrack.dto.CreateAccountRequest;
 import com.fintrack.dto.CreateTransactionRequest;
+import com.fintrack.dto.RecategorizeJobResponse;
 import com.fintrack.dto.RecategorizeResponse;
 import com.fintrack.dto.RecurringPaymentResponse;
 import com.fintrack.dto.SpendingCategorySummary;
 import com.fintrack.dto.SummaryResponse;
+import com.fintrack.dto.TransactionPageResponse;
 import com.fintrack.dto.TransactionResponse;
 import com.fintrack.dto.UpdateAccountRequest;
 import com.fintrack.dto.UpdateTransactionCategoryRequest;
 import com.fintrack.service.CurrentUserService;
 import com.fintrack.service.FinanceService;
+import com.fintrack.service.RecategorizeService;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -29,15 +35,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/finance")
 public class FinanceController {
   private final FinanceService financeService;
+  private final RecategorizeService recategorizeService;
   private final CurrentUserService currentUserService;
 
-  public FinanceController(FinanceService financeService, CurrentUserService currentUserService) {
+  public FinanceController(FinanceService financeService,
+                           RecategorizeService recategorizeService,
+                           CurrentUserService currentUserService) {
     this.financeService = financeService;
+    this.recategorizeService = recategorizeService;
     this.currentUserService = currentUserService;
   }
 
@@ -88,6 +99,28 @@ public class FinanceController {
     return financeService.listTransactions(userId, from, to);
   }
 
+  @GetMapping("/transactions/page")
+  public TransactionPageResponse pageTransactions(
+      @RequestParam("from") LocalDate from,
+      @RequestParam("to") LocalDate to,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "100") int limit) {
+    UUID userId = currentUserService.requireUserId();
+    return financeService.pageTransactions(userId, from, to, cursor, limit);
+  }
+
+  @GetMapping("/transactions/export")
+  public ResponseEntity<StreamingResponseBody> exportTransactions(
+      @RequestParam("from") LocalDate from,
+      @RequestParam("to") LocalDate to) {
+    UUID userId = currentUserService.requireUserId();
+    StreamingResponseBody body = out -> financeService.exportTransactions(userId, from, to, out);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + from + "-" + to + ".ndjson\"")
+        .body(body);
+  }
+
   @PostMapping("/transactions")
   @ResponseStatus(HttpStatus.CREATED)
   public TransactionResponse createTransaction(@Valid @RequestBody CreateTransactionRequest request) {
@@ -124,7 +157,20 @@ public class FinanceController {
   @PostMapping("/transactions/recategorize")
   public RecategorizeResponse recategorizeAll() {
     UUID userId = currentUserService.requireUserId();
-    return financeService.recategorizeAll(userId);
+    return recategorizeService.recategorizeAll(userId);
+  }
+
+  @PostMapping("/transactions/recategorize/jobs")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public RecategorizeJobResponse startRecategorizeJob() {
+    UUID userId = currentUserService.requireUserId();
+    return recategorizeService.startJob(userId);
+  }
+
+  @GetMapping("/transactions/recategorize/jobs/{jobId}")
+  public RecategorizeJobResponse getRecategorizeJob(@PathVariable UUID jobId) {
+    UUID userId = currentUserService.requireUserId();
+    return recategorizeService.getJob(userId, jobId);
   }
 
   @GetMapping("/transactions/ai")
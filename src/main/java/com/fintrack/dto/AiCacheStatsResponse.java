@@ -0,0 +1,13 @@
+package com.fintrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AiCacheStatsResponse {
+  private long memoryHits;
+  private long databaseHits;
+  private long misses;
+  private int memoryEntries;
+}
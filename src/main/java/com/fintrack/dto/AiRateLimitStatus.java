@@ -0,0 +1,18 @@
+package com.fintrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Limits of 0 mean unlimited.
+@Getter
+@AllArgsConstructor
+public class AiRateLimitStatus {
+  private String model;
+  private int requestsPerMinute;
+  private int requestsAvailable;
+  private int tokensPerMinute;
+  private long tokensAvailable;
+  private int requestsPerDay;
+  private int requestsToday;
+  private long rejected;
+}
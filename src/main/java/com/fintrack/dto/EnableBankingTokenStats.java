@@ -0,0 +1,11 @@
+package com.fintrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EnableBankingTokenStats {
+  private long tokensSigned;
+  private long signaturesSaved;
+}
@@ -0,0 +1,15 @@
+package com.fintrack.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record RecategorizeJobResponse(
+    UUID id,
+    String status,
+    int totalCount,
+    int processedCount,
+    int updatedCount,
+    int aiCount,
+    Instant startedAt,
+    Instant finishedAt,
+    String error) {}
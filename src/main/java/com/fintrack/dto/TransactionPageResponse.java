@@ -0,0 +1,12 @@
+package com.fintrack.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TransactionPageResponse {
+  private List<TransactionResponse> items;
+  private String nextCursor;
+}
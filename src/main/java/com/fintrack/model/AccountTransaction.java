@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -14,6 +15,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -27,7 +29,7 @@ public class AccountTransaction {
   @Id
   private UUID id;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(name = "account_id")
   private FinancialAccount account;
 
@@ -83,8 +85,25 @@ public class AccountTransaction {
   @Column(nullable = false)
   private Instant createdAt;
 
+  // Generated columns; PostgreSQL computes the stored value, the fields mirror it for in-memory rows.
+  @Setter(AccessLevel.NONE)
+  @Column(columnDefinition = "text", insertable = false, updatable = false)
+  private String merchantKey;
+
+  @Setter(AccessLevel.NONE)
+  @Column(columnDefinition = "text", insertable = false, updatable = false)
+  private String descriptionKey;
+
+  @Setter(AccessLevel.NONE)
+  @Column(columnDefinition = "text", insertable = false, updatable = false)
+  private String counterpartyIbanKey;
+
   @PrePersist
   void prePersist() {
+    prepareForInsert();
+  }
+
+  public void prepareForInsert() {
     if (id == null) {
       id = UUID.randomUUID();
     }
@@ -92,11 +111,19 @@ public class AccountTransaction {
       createdAt = Instant.now();
     }
     normalizeLengths();
+    refreshMatchKeys();
   }
 
   @PreUpdate
   void preUpdate() {
     normalizeLengths();
+    refreshMatchKeys();
+  }
+
+  public void refreshMatchKeys() {
+    merchantKey = MatchKeys.normalize(merchantName);
+    descriptionKey = MatchKeys.normalize(description);
+    counterpartyIbanKey = MatchKeys.normalize(counterpartyIban);
   }
 
   private void normalizeLengths() {
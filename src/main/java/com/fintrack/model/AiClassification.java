@@ -0,0 +1,53 @@
+package com.fintrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+// AI category remembered per user for a merchant/description/IBAN/direction fingerprint.
+@Entity
+@Table(name = "ai_classifications", uniqueConstraints = @UniqueConstraint(
+    name = "uk_ai_classifications_key",
+    columnNames = {"user_id", "fingerprint"}))
+@Getter
+@Setter
+public class AiClassification {
+  @Id
+  private UUID id;
+
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  @Column(nullable = false)
+  private String category;
+
+  @Column(precision = 5, scale = 2)
+  private BigDecimal confidence;
+
+  @Column
+  private String model;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @PrePersist
+  void prePersist() {
+    if (id == null) {
+      id = UUID.randomUUID();
+    }
+    if (createdAt == null) {
+      createdAt = Instant.now();
+    }
+  }
+}
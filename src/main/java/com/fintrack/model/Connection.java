@@ -81,6 +81,10 @@ public class Connection {
   @Column(columnDefinition = "TEXT")
   private String errorMessage;
 
+  // Provider-owned sync cursor (JSON), e.g. last imported trade and cached endpoint.
+  @Column(columnDefinition = "TEXT")
+  private String providerState;
+
   @PrePersist
   void prePersist() {
     if (id == null) {
@@ -11,6 +11,7 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
@@ -75,6 +76,14 @@ public class FinancialAccount {
   @Column
   private Instant lastSyncedAt;
 
+  // Latest booked transaction date seen by the provider; incremental syncs fetch from here minus an overlap.
+  @Column
+  private LocalDate lastBookedDate;
+
+  // Manual accounts only mirror imported transfers booked on or after this date (no history backfill).
+  @Column
+  private LocalDate mirrorSince;
+
   @PrePersist
   void prePersist() {
     if (id == null) {
@@ -0,0 +1,45 @@
+package com.fintrack.model;
+
+// Normalized match keys for category rules: lower-case with everything outside a-z and 0-9 removed,
+// null when nothing is left. Must stay in step with the generated *_key columns (migration V5).
+public final class MatchKeys {
+  private MatchKeys() {
+  }
+
+  // Single pass without regex; an input that is already a key is returned as is.
+  public static String normalize(String value) {
+    if (value == null) {
+      return null;
+    }
+    int length = value.length();
+    int start = 0;
+    while (start < length && isKeyChar(value.charAt(start))) {
+      start++;
+    }
+    if (start == length) {
+      return length == 0 ? null : value;
+    }
+    char[] buffer = new char[length];
+    value.getChars(0, start, buffer, 0);
+    int size = start;
+    for (int i = start; i < length; i++) {
+      char c = value.charAt(i);
+      if (isKeyChar(c)) {
+        buffer[size++] = c;
+      } else if (c >= 'A' && c <= 'Z') {
+        buffer[size++] = (char) (c + ('a' - 'A'));
+      } else if (c >= 0x80) {
+        // A few non-ASCII letters lower-case into ASCII (the Kelvin sign, dotted capital I).
+        char lower = Character.toLowerCase(c);
+        if (isKeyChar(lower)) {
+          buffer[size++] = lower;
+        }
+      }
+    }
+    return size == 0 ? null : new String(buffer, 0, size);
+  }
+
+  private static boolean isKeyChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+  }
+}
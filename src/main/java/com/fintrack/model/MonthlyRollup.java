@@ -0,0 +1,52 @@
+package com.fintrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+// Per-account monthly totals maintained by MonthlyRollupWriter; visibility is resolved through the account.
+@Entity
+@Table(name = "monthly_rollups", uniqueConstraints = @UniqueConstraint(
+    name = "uk_monthly_rollups_key",
+    columnNames = {"account_id", "period_start", "currency", "category", "direction"}))
+@Getter
+@Setter
+public class MonthlyRollup {
+  @Id
+  private UUID id;
+
+  @Column(name = "account_id", nullable = false)
+  private UUID accountId;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDate periodStart;
+
+  @Column(nullable = false)
+  private String currency;
+
+  @Column(nullable = false)
+  private String category;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private TransactionDirection direction;
+
+  @Column(nullable = false, precision = 19, scale = 4)
+  private BigDecimal total;
+
+  @Column(nullable = false)
+  private long txCount;
+
+  @Column
+  private Instant updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.fintrack.model;
+
+// Higher weight is dispatched first; user-initiated syncs overtake scheduled ones.
+public enum SyncPriority {
+  BACKGROUND(0),
+  USER(10);
+
+  private final int weight;
+
+  SyncPriority(int weight) {
+    this.weight = weight;
+  }
+
+  public int weight() {
+    return weight;
+  }
+}
@@ -2,6 +2,7 @@ package com.fintrack.model;
 
 public enum SyncStatus {
   IDLE,
+  QUEUED,
   RUNNING,
   SUCCESS,
   FAILED,
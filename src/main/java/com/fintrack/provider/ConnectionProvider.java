@@ -9,4 +9,8 @@ public interface ConnectionProvider {
   ProviderResponse getMetadata();
   ConnectResult initiate(Connection connection, Map<String, String> config);
   SyncResult sync(Connection connection, Map<String, String> config);
+
+  default SyncResult sync(Connection connection, Map<String, String> config, SyncMode mode) {
+    return sync(connection, config);
+  }
 }
@@ -0,0 +1,97 @@
+package com.fintrack.provider;
+
+import com.fintrack.model.AccountTransaction;
+import com.fintrack.repository.AccountTransactionRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public final class ExistingTransactions {
+  private static final int LOOKUP_CHUNK_SIZE = 500;
+
+  private final Set<String> externalIds;
+  private final Map<String, AccountTransaction> byExternalId;
+
+  private ExistingTransactions(Set<String> externalIds, Map<String, AccountTransaction> byExternalId) {
+    this.externalIds = externalIds;
+    this.byExternalId = byExternalId;
+  }
+
+  public static ExistingTransactions empty() {
+    return new ExistingTransactions(new HashSet<>(), new HashMap<>());
+  }
+
+  public static ExistingTransactions load(AccountTransactionRepository repository,
+                                          UUID accountId,
+                                          Collection<String> externalIds) {
+    ExistingTransactions existing = empty();
+    if (accountId == null) {
+      return existing;
+    }
+    for (List<String> chunk : chunks(externalIds)) {
+      for (AccountTransaction tx : repository.findByAccountIdAndExternalIdIn(accountId, chunk)) {
+        existing.externalIds.add(tx.getExternalId());
+        existing.byExternalId.merge(tx.getExternalId(), tx, ExistingTransactions::earliest);
+      }
+    }
+    return existing;
+  }
+
+  public static ExistingTransactions loadIds(AccountTransactionRepository repository,
+                                             UUID accountId,
+                                             Collection<String> externalIds) {
+    ExistingTransactions existing = empty();
+    if (accountId == null) {
+      return existing;
+    }
+    for (List<String> chunk : chunks(externalIds)) {
+      existing.externalIds.addAll(repository.findExistingExternalIds(accountId, chunk));
+    }
+    return existing;
+  }
+
+  public boolean contains(String externalId) {
+    return externalId != null && externalIds.contains(externalId);
+  }
+
+  public AccountTransaction find(String externalId) {
+    return externalId == null ? null : byExternalId.get(externalId);
+  }
+
+  public void register(AccountTransaction tx) {
+    if (tx == null || tx.getExternalId() == null) {
+      return;
+    }
+    externalIds.add(tx.getExternalId());
+    byExternalId.putIfAbsent(tx.getExternalId(), tx);
+  }
+
+  private static List<List<String>> chunks(Collection<String> externalIds) {
+    if (externalIds == null || externalIds.isEmpty()) {
+      return List.of();
+    }
+    List<String> distinct = new ArrayList<>(new LinkedHashSet<>(externalIds));
+    distinct.removeIf(id -> id == null);
+    List<List<String>> chunks = new ArrayList<>();
+    for (int start = 0; start < distinct.size(); start += LOOKUP_CHUNK_SIZE) {
+      chunks.add(distinct.subList(start, Math.min(distinct.size(), start + LOOKUP_CHUNK_SIZE)));
+    }
+    return chunks;
+  }
+
+  private static AccountTransaction earliest(AccountTransaction a, AccountTransaction b) {
+    if (a.getCreatedAt() == null) {
+      return b;
+    }
+    if (b.getCreatedAt() == null) {
+      return a;
+    }
+    return b.getCreatedAt().isBefore(a.getCreatedAt()) ? b : a;
+  }
+}
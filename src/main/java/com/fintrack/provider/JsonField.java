@@ -0,0 +1,50 @@
+package com.fintrack.provider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// One logical field of a provider payload and its alternative dotted paths, in order of preference.
+// The paths are split once when the field is declared; lookups only walk the segments.
+public final class JsonField {
+  private final String[][] paths;
+
+  private JsonField(String... paths) {
+    this.paths = new String[paths.length][];
+    for (int i = 0; i < paths.length; i++) {
+      this.paths[i] = paths[i].split("\\.");
+    }
+  }
+
+  public static JsonField of(String... paths) {
+    return new JsonField(paths);
+  }
+
+  public int alternatives() {
+    return paths.length;
+  }
+
+  // The value at one alternative, or null when it is missing or JSON null.
+  public JsonNode at(JsonNode root, int alternative) {
+    JsonNode current = root;
+    for (String part : paths[alternative]) {
+      if (current == null) {
+        return null;
+      }
+      current = current.get(part);
+      if (current == null || current.isNull()) {
+        return null;
+      }
+    }
+    return current;
+  }
+
+  // The first alternative with non-blank text, read with JsonRowFields.text.
+  public String text(JsonNode root) {
+    for (int i = 0; i < paths.length; i++) {
+      String value = JsonRowFields.text(at(root, i));
+      if (value != null && !value.isBlank()) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
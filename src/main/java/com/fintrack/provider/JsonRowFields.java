@@ -0,0 +1,116 @@
+package com.fintrack.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Reads a fixed set of dotted field paths from one JSON object while streaming, so the rows of a
+// transaction page are decoded without building a tree for the page. Everything else is skipped. A
+// wanted value that is an object or array is kept as a small subtree, and wanted paths below it are
+// resolved from that subtree.
+public final class JsonRowFields {
+  private final String[] paths;
+  private final Map<String, Integer> slots = new HashMap<>();
+  private final Set<String> prefixes = new HashSet<>();
+  private final int[] anchors;
+  private final String[][] remainders;
+
+  private JsonRowFields(String... paths) {
+    this.paths = paths.clone();
+    for (int slot = 0; slot < paths.length; slot++) {
+      if (slots.putIfAbsent(paths[slot], slot) != null) {
+        throw new IllegalArgumentException("Duplicate field path: " + paths[slot]);
+      }
+    }
+    this.anchors = new int[paths.length];
+    this.remainders = new String[paths.length][];
+    for (int slot = 0; slot < paths.length; slot++) {
+      String[] parts = paths[slot].split("\\.");
+      anchors[slot] = -1;
+      StringBuilder prefix = new StringBuilder();
+      for (int depth = 0; depth < parts.length - 1; depth++) {
+        if (depth > 0) {
+          prefix.append('.');
+        }
+        prefix.append(parts[depth]);
+        Integer ancestor = slots.get(prefix.toString());
+        if (ancestor != null && anchors[slot] < 0) {
+          // The outermost wanted ancestor is captured whole, so this path is read from its subtree.
+          anchors[slot] = ancestor;
+          remainders[slot] = Arrays.copyOfRange(parts, depth + 1, parts.length);
+        }
+        prefixes.add(prefix.toString());
+      }
+    }
+  }
+
+  public static JsonRowFields of(String... paths) {
+    return new JsonRowFields(paths);
+  }
+
+  public int slot(String path) {
+    Integer slot = slots.get(path);
+    if (slot == null) {
+      throw new IllegalArgumentException("Unknown field path: " + path);
+    }
+    return slot;
+  }
+
+  // Expects the parser on the row's START_OBJECT and leaves it on the matching END_OBJECT. Missing and
+  // null fields come back as null.
+  public JsonNode[] read(JsonParser parser) throws IOException {
+    JsonNode[] values = new JsonNode[paths.length];
+    readObject(parser, null, values);
+    for (int slot = 0; slot < values.length; slot++) {
+      if (values[slot] == null && anchors[slot] >= 0) {
+        values[slot] = navigate(values[anchors[slot]], remainders[slot]);
+      } else if (values[slot] != null && values[slot].isNull()) {
+        values[slot] = null;
+      }
+    }
+    return values;
+  }
+
+  // Same rules as the providers' tree lookups: text as is, anything else as its JSON form.
+  public static String text(JsonNode node) {
+    if (node == null || node.isMissingNode() || node.isNull()) {
+      return null;
+    }
+    return node.isTextual() ? node.asText() : node.toString();
+  }
+
+  private void readObject(JsonParser parser, String prefix, JsonNode[] values) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String path = prefix == null ? parser.currentName() : prefix + "." + parser.currentName();
+      JsonToken token = parser.nextToken();
+      Integer slot = slots.get(path);
+      if (slot != null) {
+        values[slot] = parser.readValueAsTree();
+      } else if (token == JsonToken.START_OBJECT && prefixes.contains(path)) {
+        readObject(parser, path, values);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private static JsonNode navigate(JsonNode node, String[] parts) {
+    JsonNode current = node;
+    for (String part : parts) {
+      if (current == null) {
+        return null;
+      }
+      current = current.path(part);
+      if (current.isMissingNode() || current.isNull()) {
+        return null;
+      }
+    }
+    return current;
+  }
+}
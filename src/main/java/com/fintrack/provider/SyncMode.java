@@ -0,0 +1,6 @@
+package com.fintrack.provider;
+
+public enum SyncMode {
+  INCREMENTAL,
+  FULL
+}
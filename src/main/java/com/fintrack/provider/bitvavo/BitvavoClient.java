@@ -28,6 +28,7 @@ public class BitvavoClient {
   private static final String USER_AGENT = "Fintrack/1.0";
   private static final Logger log = LoggerFactory.getLogger(BitvavoClient.class);
   private static final String[] TX_ARRAY_KEYS = {"history", "transactions", "items", "rows", "data", "result"};
+  private static final int MAX_HISTORY_PAGES = 200;
 
   private final RestClient restClient;
   private final ObjectMapper objectMapper;
@@ -52,34 +53,44 @@ public class BitvavoClient {
         .body(new ParameterizedTypeReference<>() {});
   }
 
-  public List<Transaction> getTransactions(String apiKey, String apiSecret, List<String> markets) {
-    List<Transaction> collected = new ArrayList<>();
+  public TransactionHistory getTransactions(String apiKey,
+                                            String apiSecret,
+                                            List<String> markets,
+                                            Long sinceMs,
+                                            HistoryEndpoint preferred) {
     long nowMs = Instant.now().toEpochMilli();
-    try {
-      List<Transaction> result = requestTransactions(apiKey, apiSecret, "/account/history?type=trade&start=0&end=" + nowMs);
-      log.info("Bitvavo API /account/history?type=trade&start=0 returned {}", result == null ? 0 : result.size());
-      if (result != null) {
-        collected.addAll(result);
+    long startMs = sinceMs == null ? 0L : sinceMs;
+    if (preferred != null) {
+      try {
+        List<Transaction> result = fetch(preferred, apiKey, apiSecret, markets, sinceMs, startMs, nowMs);
+        log.info("Bitvavo API {} (cached) returned {}", preferred, result.size());
+        return new TransactionHistory(dedupe(result), preferred);
+      } catch (Exception ex) {
+        log.info("Bitvavo API cached endpoint {} failed, probing fallbacks: {}", preferred, ex.getMessage());
       }
+    }
+
+    List<Transaction> collected = new ArrayList<>();
+    HistoryEndpoint working = null;
+    try {
+      collected.addAll(fetch(HistoryEndpoint.TRADE_HISTORY, apiKey, apiSecret, markets, sinceMs, startMs, nowMs));
+      log.info("Bitvavo API /account/history?type=trade&start={} returned {}", startMs, collected.size());
+      working = HistoryEndpoint.TRADE_HISTORY;
     } catch (HttpClientErrorException.BadRequest ex) {
-      log.info("Bitvavo API /account/history?type=trade&start=0 not supported, retrying without date range");
+      log.info("Bitvavo API /account/history?type=trade&start={} not supported, retrying without date range", startMs);
       try {
-        List<Transaction> result = requestTransactions(apiKey, apiSecret, "/account/history?type=trade");
-        log.info("Bitvavo API /account/history?type=trade returned {}", result == null ? 0 : result.size());
-        if (result != null) {
-          collected.addAll(result);
-        }
+        collected.addAll(fetch(HistoryEndpoint.TRADE_HISTORY_UNBOUNDED, apiKey, apiSecret, markets, sinceMs, startMs, nowMs));
+        log.info("Bitvavo API /account/history?type=trade returned {}", collected.size());
+        working = HistoryEndpoint.TRADE_HISTORY_UNBOUNDED;
       } catch (Exception innerEx) {
         log.warn("Bitvavo API /account/history?type=trade failed: {}", innerEx.getMessage());
       }
     } catch (HttpClientErrorException.NotFound ex) {
       log.info("Bitvavo API /account/history not found, trying legacy endpoint");
       try {
-        List<Transaction> result = requestTransactions(apiKey, apiSecret, "/transactions");
-        log.info("Bitvavo API /transactions returned {}", result == null ? 0 : result.size());
-        if (result != null) {
-          collected.addAll(result);
-        }
+        collected.addAll(fetch(HistoryEndpoint.LEGACY_TRANSACTIONS, apiKey, apiSecret, markets, sinceMs, startMs, nowMs));
+        log.info("Bitvavo API /transactions returned {}", collected.size());
+        working = HistoryEndpoint.LEGACY_TRANSACTIONS;
       } catch (Exception innerEx) {
         log.warn("Bitvavo API /transactions failed: {}", innerEx.getMessage());
       }
@@ -89,50 +100,75 @@ public class BitvavoClient {
 
     if (collected.isEmpty()) {
       try {
-        List<Transaction> result = requestTransactions(apiKey, apiSecret, "/account/history?start=0&end=" + nowMs);
-        log.info("Bitvavo API /account/history?start=0 returned {}", result == null ? 0 : result.size());
-        if (result != null) {
-          collected.addAll(result);
-        }
+        collected.addAll(fetch(HistoryEndpoint.ACCOUNT_HISTORY_RANGE, apiKey, apiSecret, markets, sinceMs, startMs, nowMs));
+        log.info("Bitvavo API /account/history?start={} returned {}", startMs, collected.size());
+        working = HistoryEndpoint.ACCOUNT_HISTORY_RANGE;
       } catch (Exception ex) {
-        log.warn("Bitvavo API /account/history?start=0 failed: {}", ex.getMessage());
+        log.warn("Bitvavo API /account/history?start={} failed: {}", startMs, ex.getMessage());
       }
     }
 
     if (collected.isEmpty()) {
       try {
-        List<Transaction> result = requestTransactions(apiKey, apiSecret, "/account/history");
-        log.info("Bitvavo API /account/history returned {}", result == null ? 0 : result.size());
-        if (result != null) {
-          collected.addAll(result);
-        }
+        collected.addAll(fetch(HistoryEndpoint.ACCOUNT_HISTORY, apiKey, apiSecret, markets, sinceMs, startMs, nowMs));
+        log.info("Bitvavo API /account/history returned {}", collected.size());
+        working = HistoryEndpoint.ACCOUNT_HISTORY;
       } catch (Exception ex) {
         log.warn("Bitvavo API /account/history plain failed: {}", ex.getMessage());
       }
     }
 
     if (collected.isEmpty() && markets != null && !markets.isEmpty()) {
-      List<Transaction> tradesAllMarkets = new ArrayList<>();
-      for (String market : markets) {
-        try {
-          List<Transaction> trades = requestTrades(apiKey, apiSecret, market);
-          if (trades != null) {
-            tradesAllMarkets.addAll(trades);
-          }
-        } catch (HttpClientErrorException.BadRequest badRequest) {
-          log.warn("Bitvavo API /trades failed for market {}: {}", market, badRequest.getMessage());
-        } catch (Exception innerEx) {
-          log.warn("Bitvavo API /trades failed for market {}: {}", market, innerEx.getMessage());
-        }
-      }
+      List<Transaction> tradesAllMarkets = fetch(HistoryEndpoint.MARKET_TRADES, apiKey, apiSecret, markets, sinceMs, startMs, nowMs);
       log.info("Bitvavo API /trades returned {}", tradesAllMarkets.size());
       collected.addAll(tradesAllMarkets);
+      working = HistoryEndpoint.MARKET_TRADES;
     }
 
     if (collected.isEmpty()) {
-      return List.of();
+      // Nothing proves an endpoint works yet, so keep probing on the next sync.
+      return new TransactionHistory(List.of(), null);
+    }
+    return new TransactionHistory(dedupe(collected), working);
+  }
+
+  private List<Transaction> fetch(HistoryEndpoint endpoint,
+                                  String apiKey,
+                                  String apiSecret,
+                                  List<String> markets,
+                                  Long sinceMs,
+                                  long startMs,
+                                  long nowMs) {
+    return switch (endpoint) {
+      case TRADE_HISTORY -> requestTransactions(apiKey, apiSecret,
+          "/account/history?type=trade&start=" + startMs + "&end=" + nowMs);
+      case TRADE_HISTORY_UNBOUNDED -> requestTransactions(apiKey, apiSecret, "/account/history?type=trade");
+      case LEGACY_TRANSACTIONS -> requestTransactions(apiKey, apiSecret, "/transactions");
+      case ACCOUNT_HISTORY_RANGE -> requestTransactions(apiKey, apiSecret,
+          "/account/history?start=" + startMs + "&end=" + nowMs);
+      case ACCOUNT_HISTORY -> requestTransactions(apiKey, apiSecret, "/account/history");
+      case MARKET_TRADES -> requestTradesAllMarkets(apiKey, apiSecret, markets, sinceMs);
+    };
+  }
+
+  private List<Transaction> requestTradesAllMarkets(String apiKey, String apiSecret, List<String> markets, Long sinceMs) {
+    List<Transaction> tradesAllMarkets = new ArrayList<>();
+    if (markets == null) {
+      return tradesAllMarkets;
+    }
+    for (String market : markets) {
+      try {
+        tradesAllMarkets.addAll(requestTrades(apiKey, apiSecret, market, sinceMs));
+      } catch (HttpClientErrorException.BadRequest badRequest) {
+        log.warn("Bitvavo API /trades failed for market {}: {}", market, badRequest.getMessage());
+      } catch (Exception innerEx) {
+        log.warn("Bitvavo API /trades failed for market {}: {}", market, innerEx.getMessage());
+      }
     }
+    return tradesAllMarkets;
+  }
 
+  private static List<Transaction> dedupe(List<Transaction> collected) {
     // Deduplicate transactions/trades that can overlap across endpoints.
     Map<String, Transaction> deduped = new LinkedHashMap<>();
     for (Transaction tx : collected) {
@@ -175,14 +211,27 @@ public class BitvavoClient {
   }
 
   private List<Transaction> requestTransactions(String apiKey, String apiSecret, String path) {
-    String raw = requestSignedJson(apiKey, apiSecret, path);
-    return parseTransactionsResponse(raw);
+    List<Transaction> transactions = new ArrayList<>();
+    int page = 1;
+    int totalPages;
+    do {
+      String pagedPath = page == 1 ? path : path + (path.contains("?") ? "&" : "?") + "page=" + page;
+      String raw = requestSignedJson(apiKey, apiSecret, pagedPath);
+      JsonNode root = readJson(raw);
+      transactions.addAll(parseTransactionsResponse(root, raw));
+      totalPages = root == null || !root.isObject() ? 1 : root.path("totalPages").asInt(1);
+      page++;
+    } while (page <= totalPages && page <= MAX_HISTORY_PAGES);
+    return transactions;
   }
 
-  private List<Transaction> requestTrades(String apiKey, String apiSecret, String market) {
+  private List<Transaction> requestTrades(String apiKey, String apiSecret, String market, Long sinceMs) {
     String path = "/trades?market=" + market;
+    if (sinceMs != null) {
+      path = path + "&start=" + sinceMs;
+    }
     String raw = requestSignedJson(apiKey, apiSecret, path);
-    return parseTransactionsResponse(raw);
+    return parseTransactionsResponse(readJson(raw), raw);
   }
 
   private String requestSignedJson(String apiKey, String apiSecret, String path) {
@@ -198,12 +247,22 @@ public class BitvavoClient {
         .body(String.class);
   }
 
-  private List<Transaction> parseTransactionsResponse(String raw) {
+  private JsonNode readJson(String raw) {
     if (raw == null || raw.isBlank()) {
+      return null;
+    }
+    try {
+      return objectMapper.readTree(raw);
+    } catch (Exception ex) {
+      throw new IllegalStateException("Failed to parse Bitvavo transactions payload: " + abbreviate(raw), ex);
+    }
+  }
+
+  private List<Transaction> parseTransactionsResponse(JsonNode root, String raw) {
+    if (root == null) {
       return List.of();
     }
     try {
-      JsonNode root = objectMapper.readTree(raw);
       JsonNode arrayNode = findTransactionArray(root);
       if (arrayNode == null || !arrayNode.isArray()) {
         return List.of();
@@ -483,6 +542,17 @@ public class BitvavoClient {
       String feeCurrency,
       String type) {}
 
+  public enum HistoryEndpoint {
+    TRADE_HISTORY,
+    TRADE_HISTORY_UNBOUNDED,
+    LEGACY_TRANSACTIONS,
+    ACCOUNT_HISTORY_RANGE,
+    ACCOUNT_HISTORY,
+    MARKET_TRADES
+  }
+
+  public record TransactionHistory(List<Transaction> transactions, HistoryEndpoint endpoint) {}
+
   public record Market(String market, String base, String quote, String status) {}
 
   public record TickerPrice(String market, String price) {}
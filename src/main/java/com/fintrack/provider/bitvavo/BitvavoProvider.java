@@ -1,5 +1,6 @@
 package com.fintrack.provider.bitvavo;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintrack.dto.ProviderField;
 import com.fintrack.dto.ProviderResponse;
 import com.fintrack.model.AccountTransaction;
@@ -11,10 +12,14 @@ import com.fintrack.model.FinancialAccount;
 import com.fintrack.model.TransactionDirection;
 import com.fintrack.provider.ConnectResult;
 import com.fintrack.provider.ConnectionProvider;
+import com.fintrack.provider.ExistingTransactions;
+import com.fintrack.provider.SyncMode;
 import com.fintrack.provider.SyncResult;
 import com.fintrack.provider.coingecko.CoinGeckoClient;
+import com.fintrack.repository.AccountTransactionBatchWriter;
 import com.fintrack.repository.AccountTransactionRepository;
 import com.fintrack.repository.FinancialAccountRepository;
+import com.fintrack.repository.MonthlyRollupWriter;
 import com.fintrack.service.CategoryService;
 import com.fintrack.service.SyncProgressService;
 import java.math.BigDecimal;
@@ -22,13 +27,16 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,22 +50,31 @@ public class BitvavoProvider implements ConnectionProvider {
   private final BitvavoClient client;
   private final FinancialAccountRepository accountRepository;
   private final AccountTransactionRepository transactionRepository;
+  private final AccountTransactionBatchWriter transactionWriter;
+  private final MonthlyRollupWriter rollupWriter;
   private final CategoryService categoryService;
   private final CoinGeckoClient coinGeckoClient;
   private final SyncProgressService syncProgressService;
+  private final ObjectMapper objectMapper;
 
   public BitvavoProvider(BitvavoClient client,
                          FinancialAccountRepository accountRepository,
                          AccountTransactionRepository transactionRepository,
+                         AccountTransactionBatchWriter transactionWriter,
+                         MonthlyRollupWriter rollupWriter,
                          CategoryService categoryService,
                          CoinGeckoClient coinGeckoClient,
-                         SyncProgressService syncProgressService) {
+                         SyncProgressService syncProgressService,
+                         ObjectMapper objectMapper) {
     this.client = client;
     this.accountRepository = accountRepository;
     this.transactionRepository = transactionRepository;
+    this.transactionWriter = transactionWriter;
+    this.rollupWriter = rollupWriter;
     this.categoryService = categoryService;
     this.coinGeckoClient = coinGeckoClient;
     this.syncProgressService = syncProgressService;
+    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -80,6 +97,11 @@ public class BitvavoProvider implements ConnectionProvider {
 
   @Override
   public SyncResult sync(Connection connection, Map<String, String> config) {
+    return sync(connection, config, SyncMode.INCREMENTAL);
+  }
+
+  @Override
+  public SyncResult sync(Connection connection, Map<String, String> config, SyncMode mode) {
     String apiKey = config.get("apiKey");
     String apiSecret = config.get("apiSecret");
     if (apiKey == null || apiSecret == null) {
@@ -158,33 +180,80 @@ public class BitvavoProvider implements ConnectionProvider {
 
     syncProgressService.update(connection, "Trades ophalen", 70);
     int transactionsImported = 0;
-    Map<String, InvestState> investmentStateBySymbol = new HashMap<>();
+    BitvavoSyncState previousState = readState(connection);
+    // Incremental runs continue from the stored cost basis; only trades after the cursor are added to it.
+    boolean incremental = mode != SyncMode.FULL && previousState != null && previousState.positions() != null;
+    Map<String, InvestState> investmentStateBySymbol = incremental
+        ? restorePositions(previousState.positions())
+        : new HashMap<>();
+    Long cursor = incremental ? previousState.lastTradeTimestamp() : null;
+    Set<String> cursorIds = incremental && previousState.lastTradeIds() != null
+        ? new HashSet<>(previousState.lastTradeIds())
+        : new HashSet<>();
+    BitvavoClient.HistoryEndpoint endpoint = parseEndpoint(previousState);
     List<BitvavoClient.Transaction> transactions;
     try {
-      transactions = client.getTransactions(apiKey, apiSecret, markets);
+      BitvavoClient.TransactionHistory history = client.getTransactions(apiKey, apiSecret, markets, cursor, endpoint);
+      transactions = history.transactions();
+      if (history.endpoint() != null) {
+        endpoint = history.endpoint();
+      }
     } catch (Exception ex) {
       log.warn("Bitvavo sync transactions failed: {}", ex.getMessage());
       transactions = List.of();
     }
     log.info("Bitvavo sync transactions: {}", transactions == null ? 0 : transactions.size());
+    Map<String, FinancialAccount> accountsBySymbol = new HashMap<>();
+    for (FinancialAccount account : accountRepository.findByConnectionId(connection.getId())) {
+      if (account.getExternalId() != null) {
+        accountsBySymbol.putIfAbsent(account.getExternalId(), account);
+      }
+    }
     if (transactions != null) {
       transactions = transactions.stream()
           .filter(Objects::nonNull)
           .sorted(Comparator.comparingLong(t -> t.timestamp() == null ? Long.MAX_VALUE : t.timestamp()))
           .toList();
+      Map<UUID, List<String>> externalIdsByAccount = new HashMap<>();
+      for (BitvavoClient.Transaction t : transactions) {
+        String asset = extractAssetSymbol(t);
+        FinancialAccount account = asset == null ? null : accountsBySymbol.get(asset);
+        String externalId = resolveExternalTransactionId(t);
+        if (account != null && externalId != null) {
+          externalIdsByAccount.computeIfAbsent(account.getId(), key -> new ArrayList<>()).add(externalId);
+        }
+      }
+      Map<UUID, ExistingTransactions> existingByAccount = new HashMap<>();
+      externalIdsByAccount.forEach((accountId, externalIds) -> existingByAccount.put(
+          accountId,
+          ExistingTransactions.load(transactionRepository, accountId, externalIds)));
+      List<AccountTransaction> pendingInserts = new ArrayList<>();
+      Map<UUID, List<LocalDate>> correctedDatesByAccount = new HashMap<>();
+      Long nextCursor = cursor;
+      Set<String> nextCursorIds = new HashSet<>(cursorIds);
       for (BitvavoClient.Transaction t : transactions) {
         if (t == null) {
           continue;
         }
         String asset = extractAssetSymbol(t);
-        registerInvestment(investmentStateBySymbol, asset, t, priceByMarket, fallbackPrices);
         String externalId = resolveExternalTransactionId(t);
+        Long tradeMs = epochMillis(t.timestamp());
+        if (isAfterCursor(tradeMs, externalId, cursor, cursorIds)) {
+          registerInvestment(investmentStateBySymbol, asset, t, priceByMarket, fallbackPrices);
+        }
+        if (tradeMs != null) {
+          if (nextCursor == null || tradeMs > nextCursor) {
+            nextCursor = tradeMs;
+            nextCursorIds.clear();
+          }
+          if (tradeMs.equals(nextCursor) && externalId != null) {
+            nextCursorIds.add(externalId);
+          }
+        }
         if (externalId == null) {
           continue;
         }
-        FinancialAccount account = asset == null ? null : accountRepository
-            .findByConnectionIdAndExternalId(connection.getId(), asset)
-            .orElse(null);
+        FinancialAccount account = asset == null ? null : accountsBySymbol.get(asset);
         if (account == null) {
           continue;
         }
@@ -192,13 +261,21 @@ public class BitvavoProvider implements ConnectionProvider {
         if (side == null) {
           continue;
         }
-        var existing = transactionRepository.findFirstByAccountIdAndExternalIdOrderByCreatedAtAsc(account.getId(), externalId);
-        if (existing.isPresent()) {
-          AccountTransaction existingTx = existing.get();
+        ExistingTransactions existingTransactions = existingByAccount
+            .computeIfAbsent(account.getId(), key -> ExistingTransactions.empty());
+        AccountTransaction existingTx = existingTransactions.find(externalId);
+        if (existingTx != null) {
           LocalDate bookingDate = resolveBookingDate(t);
           if (bookingDate != null && !bookingDate.equals(existingTx.getBookingDate())) {
+            LocalDate previousDate = existingTx.getBookingDate();
             existingTx.setBookingDate(bookingDate);
-            transactionRepository.save(existingTx);
+            if (existingTx.getId() != null) {
+              transactionRepository.save(existingTx);
+              List<LocalDate> correctedDates = correctedDatesByAccount
+                  .computeIfAbsent(account.getId(), key -> new ArrayList<>());
+              correctedDates.add(previousDate);
+              correctedDates.add(bookingDate);
+            }
           }
           continue;
         }
@@ -226,16 +303,22 @@ public class BitvavoProvider implements ConnectionProvider {
             account.getType(),
             account.getCurrency(),
             amount == null ? null : amount.toPlainString(),
-            null);
+            null,
+            false);
         tx.setCategory(categoryResult.category());
         tx.setCategorySource(categoryResult.source());
         if (categoryResult.confidence() != null) {
           tx.setCategoryConfidence(java.math.BigDecimal.valueOf(categoryResult.confidence()));
         }
         tx.setCategoryReason(categoryResult.reason());
-        transactionRepository.save(tx);
+        existingTransactions.register(tx);
+        pendingInserts.add(tx);
         transactionsImported++;
       }
+      transactionWriter.insertAll(pendingInserts);
+      correctedDatesByAccount.forEach(rollupWriter::refreshMonths);
+      cursor = nextCursor;
+      cursorIds = nextCursorIds;
     }
 
     if (balances != null) {
@@ -244,9 +327,7 @@ public class BitvavoProvider implements ConnectionProvider {
           continue;
         }
         String symbol = balance.symbol().toUpperCase();
-        FinancialAccount account = accountRepository
-            .findByConnectionIdAndExternalId(connection.getId(), balance.symbol())
-            .orElse(null);
+        FinancialAccount account = accountsBySymbol.get(balance.symbol());
         if (account == null) {
           continue;
         }
@@ -257,10 +338,88 @@ public class BitvavoProvider implements ConnectionProvider {
       }
     }
 
+    writeState(connection, new BitvavoSyncState(
+        endpoint == null ? null : endpoint.name(),
+        cursor,
+        List.copyOf(cursorIds),
+        snapshotPositions(investmentStateBySymbol)));
+
     syncProgressService.update(connection, "Afwerken", 95);
     return new SyncResult(accountsUpdated, transactionsImported, "OK");
   }
 
+  private BitvavoSyncState readState(Connection connection) {
+    if (connection.getProviderState() == null || connection.getProviderState().isBlank()) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(connection.getProviderState(), BitvavoSyncState.class);
+    } catch (Exception ex) {
+      log.warn("Bitvavo sync state unreadable for connection {}, running full sync: {}", connection.getId(), ex.getMessage());
+      return null;
+    }
+  }
+
+  private void writeState(Connection connection, BitvavoSyncState state) {
+    try {
+      connection.setProviderState(objectMapper.writeValueAsString(state));
+    } catch (Exception ex) {
+      log.warn("Bitvavo sync state not stored for connection {}: {}", connection.getId(), ex.getMessage());
+    }
+  }
+
+  private static BitvavoClient.HistoryEndpoint parseEndpoint(BitvavoSyncState state) {
+    if (state == null || state.endpoint() == null) {
+      return null;
+    }
+    try {
+      return BitvavoClient.HistoryEndpoint.valueOf(state.endpoint());
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private static boolean isAfterCursor(Long tradeMs, String externalId, Long cursor, Set<String> cursorIds) {
+    if (cursor == null) {
+      return true;
+    }
+    if (tradeMs == null) {
+      // Undated trades cannot be placed after the cursor; they were counted by the full sync.
+      return false;
+    }
+    if (tradeMs > cursor) {
+      return true;
+    }
+    return tradeMs.equals(cursor) && externalId != null && !cursorIds.contains(externalId);
+  }
+
+  private static Long epochMillis(Long timestamp) {
+    if (timestamp == null) {
+      return null;
+    }
+    return timestamp < 1_000_000_000_000L ? timestamp * 1000L : timestamp;
+  }
+
+  private static Map<String, InvestState> restorePositions(Map<String, BitvavoSyncState.Position> positions) {
+    Map<String, InvestState> restored = new HashMap<>();
+    positions.forEach((symbol, position) -> {
+      if (symbol == null || position == null) {
+        return;
+      }
+      InvestState state = new InvestState();
+      state.units = position.units() == null ? BigDecimal.ZERO : position.units();
+      state.costEur = position.costEur() == null ? BigDecimal.ZERO : position.costEur();
+      restored.put(symbol, state);
+    });
+    return restored;
+  }
+
+  private static Map<String, BitvavoSyncState.Position> snapshotPositions(Map<String, InvestState> states) {
+    Map<String, BitvavoSyncState.Position> positions = new HashMap<>();
+    states.forEach((symbol, state) -> positions.put(symbol, new BitvavoSyncState.Position(state.units, state.costEur)));
+    return positions;
+  }
+
   private static void registerInvestment(Map<String, InvestState> investmentStateBySymbol,
                                          String asset,
                                          BitvavoClient.Transaction t,
@@ -0,0 +1,14 @@
+package com.fintrack.provider.bitvavo;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public record BitvavoSyncState(
+    String endpoint,
+    Long lastTradeTimestamp,
+    List<String> lastTradeIds,
+    Map<String, Position> positions
+) {
+  public record Position(BigDecimal units, BigDecimal costEur) {}
+}
@@ -11,7 +11,9 @@ import com.fintrack.model.FinancialAccount;
 import com.fintrack.model.TransactionDirection;
 import com.fintrack.provider.ConnectResult;
 import com.fintrack.provider.ConnectionProvider;
+import com.fintrack.provider.ExistingTransactions;
 import com.fintrack.provider.SyncResult;
+import com.fintrack.repository.AccountTransactionBatchWriter;
 import com.fintrack.repository.AccountTransactionRepository;
 import com.fintrack.repository.FinancialAccountRepository;
 import com.fintrack.service.CategoryService;
@@ -45,15 +47,18 @@ public class DegiroCsvProvider implements ConnectionProvider {
 
   private final FinancialAccountRepository accountRepository;
   private final AccountTransactionRepository transactionRepository;
+  private final AccountTransactionBatchWriter transactionWriter;
   private final CategoryService categoryService;
   private final SyncProgressService syncProgressService;
 
   public DegiroCsvProvider(FinancialAccountRepository accountRepository,
                            AccountTransactionRepository transactionRepository,
+                           AccountTransactionBatchWriter transactionWriter,
                            CategoryService categoryService,
                            SyncProgressService syncProgressService) {
     this.accountRepository = accountRepository;
     this.transactionRepository = transactionRepository;
+    this.transactionWriter = transactionWriter;
     this.categoryService = categoryService;
     this.syncProgressService = syncProgressService;
   }
@@ -156,10 +161,13 @@ public class DegiroCsvProvider implements ConnectionProvider {
 
     syncProgressService.update(connection, "Transacties importeren", 70);
     int imported = 0;
+    ExistingTransactions existingTransactions = ExistingTransactions.loadIds(
+        transactionRepository,
+        account.getId(),
+        rows.stream().map(DegiroRow::externalId).toList());
+    List<AccountTransaction> pendingInserts = new ArrayList<>();
     for (DegiroRow row : rows) {
-      if (transactionRepository
-          .findFirstByAccountIdAndExternalIdOrderByCreatedAtAsc(account.getId(), row.externalId)
-          .isPresent()) {
+      if (existingTransactions.contains(row.externalId)) {
         continue;
       }
       AccountTransaction tx = new AccountTransaction();
@@ -186,7 +194,8 @@ public class DegiroCsvProvider implements ConnectionProvider {
           account.getType(),
           tx.getCurrency(),
           tx.getAmount().toPlainString(),
-          tx.getCounterpartyIban());
+          tx.getCounterpartyIban(),
+          false);
       tx.setCategory(categoryResult.category());
       tx.setCategorySource(categoryResult.source());
       if (categoryResult.confidence() != null) {
@@ -194,9 +203,11 @@ public class DegiroCsvProvider implements ConnectionProvider {
       }
       tx.setCategoryReason(categoryResult.reason());
 
-      transactionRepository.save(tx);
+      existingTransactions.register(tx);
+      pendingInserts.add(tx);
       imported++;
     }
+    transactionWriter.insertAll(pendingInserts);
     syncProgressService.update(connection, "Afwerken", 95);
     log.info("DEGIRO CSV sync imported {} transactions for connection {}", imported, connection.getId());
     return new SyncResult(1, imported, "OK");
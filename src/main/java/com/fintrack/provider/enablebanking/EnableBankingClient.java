@@ -2,7 +2,10 @@ package com.fintrack.provider.enablebanking;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintrack.config.EnableBankingProperties;
+import com.fintrack.dto.EnableBankingTokenStats;
+import com.fintrack.provider.JsonRowFields;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.nio.charset.StandardCharsets;
@@ -12,6 +15,7 @@ import java.security.KeyFactory;
 import java.security.PrivateKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -20,6 +24,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -34,17 +41,29 @@ public class EnableBankingClient {
   private static final String ISSUER = "enablebanking.com";
   private static final String AUDIENCE = "api.enablebanking.com";
   private static final int TOKEN_TTL_SECONDS = 300;
+  // Replace a token this long before it expires, so a request never leaves with one about to lapse.
+  private static final int TOKEN_REFRESH_MARGIN_SECONDS = 60;
 
   private final EnableBankingProperties properties;
   private final RestClient restClient;
+  private final EnableBankingTransactionDecoder transactionDecoder;
+  // Properties and the environment do not change at runtime, so the environment is resolved once.
+  private final boolean production;
 
   private volatile PrivateKey cachedSandboxKey;
   private volatile PrivateKey cachedProdKey;
+  private final ConcurrentHashMap<String, CachedToken> tokenCache = new ConcurrentHashMap<>();
+  private final Set<String> refreshingTokens = ConcurrentHashMap.newKeySet();
+  private final AtomicLong tokensSigned = new AtomicLong();
+  private final AtomicLong tokensReused = new AtomicLong();
 
-  public EnableBankingClient(EnableBankingProperties properties) {
+  public EnableBankingClient(EnableBankingProperties properties, ObjectMapper objectMapper) {
     this.properties = properties;
     String baseUrl = properties.baseUrl() == null ? "" : properties.baseUrl();
     this.restClient = RestClient.builder().baseUrl(baseUrl).build();
+    this.transactionDecoder = new EnableBankingTransactionDecoder(objectMapper);
+    String env = firstNonBlank(properties.environment(), System.getenv("ENABLE_BANKING_ENV"), "sandbox");
+    this.production = "production".equalsIgnoreCase(env);
   }
 
   public AuthorizationResponse startAuthorization(String aspspName,
@@ -145,15 +164,29 @@ public class EnableBankingClient {
         .body(JsonNode.class);
   }
 
-  public JsonNode getTransactions(String accountId, String continuationKey) {
+  public EnableBankingTransactionPage getTransactions(String accountId, String continuationKey) {
+    return getTransactions(accountId, continuationKey, null);
+  }
+
+  // Pages can hold hundreds of rows, so the body is decoded from its bytes without building a JsonNode tree.
+  public EnableBankingTransactionPage getTransactions(String accountId, String continuationKey, LocalDate dateFrom) {
     String uri = "/accounts/" + accountId + "/transactions";
+    uri = appendQueryParam(uri, "date_from", dateFrom == null ? null : dateFrom.toString());
     uri = appendQueryParam(uri, "continuation_key", continuationKey);
-    return restClient.get()
+    byte[] body = restClient.get()
         .uri(uri)
         .header(HttpHeaders.AUTHORIZATION, bearerToken())
         .accept(MediaType.APPLICATION_JSON)
         .retrieve()
-        .body(JsonNode.class);
+        .body(byte[].class);
+    if (Boolean.TRUE.equals(properties.debugLogResponses())) {
+      String text = body == null ? "null" : new String(body, StandardCharsets.UTF_8);
+      if (text.length() > 4000) {
+        text = text.substring(0, 4000) + "...";
+      }
+      log.info("Enable Banking debug transactions response accountId={}: {}", accountId, text);
+    }
+    return transactionDecoder.decode(body);
   }
 
   public String formatValidUntil(int consentDays) {
@@ -163,19 +196,49 @@ public class EnableBankingClient {
         .format(expiresAt);
   }
 
-  private String bearerToken() {
-    return "Bearer " + createJwt();
+  public EnableBankingTokenStats tokenStats() {
+    return new EnableBankingTokenStats(tokensSigned.get(), tokensReused.get());
   }
 
-  private String createJwt() {
-    String appId = requireValue(activeAppId(), "Enable Banking app id");
-    PrivateKey key = loadPrivateKey();
+  // One signed JWT per environment and app id, reused until shortly before it expires. When it is due,
+  // one caller signs a new one while the others keep using the old token, which is still valid.
+  private String bearerToken() {
+    String appId = requireValue(production ? properties.productionAppId() : properties.sandboxAppId(),
+        "Enable Banking app id");
+    String cacheKey = (production ? "production:" : "sandbox:") + appId;
     Instant now = Instant.now();
+    CachedToken cached = tokenCache.get(cacheKey);
+    if (cached != null && now.isBefore(cached.refreshAt())) {
+      tokensReused.incrementAndGet();
+      return cached.header();
+    }
+    boolean refreshing = refreshingTokens.add(cacheKey);
+    if (!refreshing && cached != null && now.isBefore(cached.expiresAt())) {
+      tokensReused.incrementAndGet();
+      return cached.header();
+    }
+    try {
+      Instant expiresAt = now.plusSeconds(TOKEN_TTL_SECONDS);
+      CachedToken token = new CachedToken(
+          "Bearer " + createJwt(appId, loadPrivateKey(), now, expiresAt),
+          now.plusSeconds(TOKEN_TTL_SECONDS - TOKEN_REFRESH_MARGIN_SECONDS),
+          expiresAt);
+      tokenCache.put(cacheKey, token);
+      tokensSigned.incrementAndGet();
+      return token.header();
+    } finally {
+      if (refreshing) {
+        refreshingTokens.remove(cacheKey);
+      }
+    }
+  }
+
+  private String createJwt(String appId, PrivateKey key, Instant issuedAt, Instant expiresAt) {
     return Jwts.builder()
         .setIssuer(ISSUER)
         .setAudience(AUDIENCE)
-        .setIssuedAt(java.util.Date.from(now))
-        .setExpiration(java.util.Date.from(now.plusSeconds(TOKEN_TTL_SECONDS)))
+        .setIssuedAt(java.util.Date.from(issuedAt))
+        .setExpiration(java.util.Date.from(expiresAt))
         .setHeaderParam("typ", "JWT")
         .setHeaderParam("kid", appId)
         .signWith(key, SignatureAlgorithm.RS256)
@@ -183,7 +246,7 @@ public class EnableBankingClient {
   }
 
   private PrivateKey loadPrivateKey() {
-    if (isProduction()) {
+    if (production) {
       if (cachedProdKey == null) {
         cachedProdKey = readPrivateKey(requireValue(properties.privateKeyProdPath(), "Enable Banking prod key path"));
       }
@@ -216,8 +279,7 @@ public class EnableBankingClient {
   }
 
   public boolean isProduction() {
-    String env = firstNonBlank(properties.environment(), System.getenv("ENABLE_BANKING_ENV"), "sandbox");
-    return "production".equalsIgnoreCase(env);
+    return production;
   }
 
   public String activeAppId() {
@@ -261,13 +323,13 @@ public class EnableBankingClient {
       return results;
     }
     for (JsonNode node : array) {
-      String name = text(node, "name");
-      String country = text(node, "country");
+      String name = JsonRowFields.text(node.get("name"));
+      String country = JsonRowFields.text(node.get("country"));
       if (name == null || country == null) {
         continue;
       }
-      String logo = text(node, "logo");
-      String bic = text(node, "bic");
+      String logo = JsonRowFields.text(node.get("logo"));
+      String bic = JsonRowFields.text(node.get("bic"));
       List<String> psuTypes = new ArrayList<>();
       JsonNode psuArray = node.path("psu_types");
       if (psuArray.isArray()) {
@@ -282,25 +344,13 @@ public class EnableBankingClient {
     return results;
   }
 
-  private static String text(JsonNode node, String path) {
-    JsonNode current = node;
-    for (String part : path.split("\\.")) {
-      if (current == null) {
-        return null;
-      }
-      current = current.path(part);
-      if (current.isMissingNode() || current.isNull()) {
-        return null;
-      }
-    }
-    return current.isTextual() ? current.asText() : current.toString();
-  }
-
   public record AuthorizationResponse(
       String url,
       @JsonProperty("authorization_id") String authorizationId,
       @JsonProperty("psu_id_hash") String psuIdHash
   ) {}
 
+  private record CachedToken(String header, Instant refreshAt, Instant expiresAt) {}
+
   public record Aspsp(String name, String country, String bic, String logo, List<String> psuTypes) {}
 }
@@ -14,13 +14,17 @@ import com.fintrack.model.FinancialAccount;
 import com.fintrack.model.TransactionDirection;
 import com.fintrack.provider.ConnectResult;
 import com.fintrack.provider.ConnectionProvider;
+import com.fintrack.provider.ExistingTransactions;
+import com.fintrack.provider.JsonField;
+import com.fintrack.provider.SyncMode;
 import com.fintrack.provider.SyncResult;
+import com.fintrack.repository.AccountTransactionBatchWriter;
 import com.fintrack.repository.AccountTransactionRepository;
 import com.fintrack.repository.FinancialAccountRepository;
+import com.fintrack.repository.MonthlyRollupWriter;
 import com.fintrack.service.CategoryService;
 import com.fintrack.service.SyncProgressService;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -28,42 +32,79 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
 @Component
 public class EnableBankingProvider implements ConnectionProvider {
   private static final String PROVIDER_ID = "enablebanking";
-  private static final Logger log = LoggerFactory.getLogger(EnableBankingProvider.class);
   private static final Pattern IBAN_PATTERN = Pattern.compile("\\b[A-Z]{2}[0-9]{2}[A-Z0-9]{11,30}\\b");
+  private static final int DEFAULT_SYNC_OVERLAP_DAYS = 7;
+  private static final int DEFAULT_ASPSP_CONCURRENCY = 3;
+  private static final JsonField ACCOUNT_NAME = JsonField.of("name", "product", "cash_account_type");
+  private static final JsonField ACCOUNT_CURRENCY = JsonField.of("currency", "account.currency");
+  private static final JsonField ACCOUNT_IBAN = JsonField.of("iban", "account_id.iban", "details.iban");
+  private static final JsonField ACCOUNT_NUMBER = JsonField.of("account_number", "details.account_number");
+  private static final JsonField ACCOUNT_REFERENCE = JsonField.of(
+      "uid",
+      "resource_id",
+      "resourceId",
+      "account_id.uid",
+      "account_id.id",
+      "id",
+      "account_id",
+      "accountId",
+      "iban",
+      "bban",
+      "account_number");
+  private static final JsonField BALANCE_TYPE = JsonField.of("balance_type", "balanceType");
+  private static final JsonField BALANCE_AMOUNT = JsonField.of("balance_amount.amount", "amount");
 
   private final EnableBankingClient client;
   private final EnableBankingProperties properties;
   private final AppProperties appProperties;
   private final FinancialAccountRepository accountRepository;
   private final AccountTransactionRepository transactionRepository;
+  private final AccountTransactionBatchWriter transactionWriter;
+  private final MonthlyRollupWriter rollupWriter;
   private final CategoryService categoryService;
   private final SyncProgressService syncProgressService;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor fetchExecutor;
+  // Shared by all syncs on this node, so concurrent connections to one bank stay within its limit together.
+  private final ConcurrentHashMap<String, Semaphore> aspspPermits = new ConcurrentHashMap<>();
 
   public EnableBankingProvider(EnableBankingClient client,
                                EnableBankingProperties properties,
                                AppProperties appProperties,
                                FinancialAccountRepository accountRepository,
                                AccountTransactionRepository transactionRepository,
+                               AccountTransactionBatchWriter transactionWriter,
+                               MonthlyRollupWriter rollupWriter,
                                CategoryService categoryService,
-                               SyncProgressService syncProgressService) {
+                               SyncProgressService syncProgressService,
+                               TransactionTemplate transactionTemplate,
+                               @Qualifier("enableBankingFetchExecutor") Executor fetchExecutor) {
     this.client = client;
     this.properties = properties;
     this.appProperties = appProperties;
     this.accountRepository = accountRepository;
     this.transactionRepository = transactionRepository;
+    this.transactionWriter = transactionWriter;
+    this.rollupWriter = rollupWriter;
     this.categoryService = categoryService;
     this.syncProgressService = syncProgressService;
+    this.transactionTemplate = transactionTemplate;
+    this.fetchExecutor = fetchExecutor;
   }
 
   @Override
@@ -127,6 +168,11 @@ public class EnableBankingProvider implements ConnectionProvider {
 
   @Override
   public SyncResult sync(Connection connection, Map<String, String> config) {
+    return sync(connection, config, SyncMode.INCREMENTAL);
+  }
+
+  @Override
+  public SyncResult sync(Connection connection, Map<String, String> config, SyncMode mode) {
     String sessionId = config.get("sessionId");
     if (sessionId == null || sessionId.isBlank()) {
       throw new IllegalStateException("Missing Enable Banking session. Complete the consent flow first.");
@@ -149,243 +195,279 @@ public class EnableBankingProvider implements ConnectionProvider {
       throw new IllegalStateException("Enable Banking returned no account ids. Reconnect the bank to refresh consent.");
     }
 
-    int totalAccounts = accountIds.size();
-    int accountIndex = 0;
+    // Accounts are fetched concurrently, up to the ASPSP's limit, and stored one by one in session order.
+    Semaphore permits = permitsFor(config);
+    List<FinancialAccount> knownAccounts = new ArrayList<>(accountIds.size());
+    List<CompletableFuture<AccountFetch>> fetches = new ArrayList<>(accountIds.size());
     for (String accountId : accountIds) {
-      accountIndex++;
-      int progress = 30 + (int) Math.round((accountIndex / (double) Math.max(totalAccounts, 1)) * 60);
+      FinancialAccount known = accountRepository
+          .findByConnectionIdAndExternalId(connection.getId(), accountId)
+          .orElse(null);
+      LocalDate dateFrom = known == null ? null : resolveDateFrom(known, mode);
+      knownAccounts.add(known);
+      fetches.add(CompletableFuture.supplyAsync(
+          () -> fetchAccount(accountId, dateFrom, permits), fetchExecutor));
+    }
+
+    int totalAccounts = accountIds.size();
+    for (int accountIndex = 0; accountIndex < totalAccounts; accountIndex++) {
+      AccountFetch fetched = awaitFetch(fetches.get(accountIndex));
+      int progress = 30 + (int) Math.round(((accountIndex + 1) / (double) Math.max(totalAccounts, 1)) * 60);
       syncProgressService.update(
           connection,
-          "Account " + accountIndex + " van " + totalAccounts + " synchroniseren",
+          "Account " + (accountIndex + 1) + " van " + totalAccounts + " synchroniseren",
           progress);
-      JsonNode details = client.getAccountDetails(accountId);
-      String name = firstNonBlank(text(details, "name"), text(details, "product"), text(details, "cash_account_type"));
-      String currency = firstNonBlank(text(details, "currency"), text(details, "account.currency"), "EUR");
-      String iban = firstNonBlank(text(details, "iban"), text(details, "account_id.iban"), text(details, "details.iban"));
-      String accountNumber = firstNonBlank(text(details, "account_number"), text(details, "details.account_number"));
-
-      JsonNode balances = client.getBalances(accountId);
-      BigDecimal balance = extractBalance(balances);
-
-      FinancialAccount account = accountRepository
-          .findByConnectionIdAndExternalId(connection.getId(), accountId)
-          .orElseGet(FinancialAccount::new);
-      if (account.getId() == null) {
-        account.setUser(connection.getUser());
-        account.setConnection(connection);
-        account.setType(AccountType.BANK);
-        account.setProvider("Enable Banking");
-        account.setExternalId(accountId);
-      }
-      account.setName(name == null || name.isBlank() ? "Bank account" : name);
-      account.setCurrency(currency);
-      account.setIban(iban);
-      account.setAccountNumber(accountNumber);
-      account.setCurrentBalance(balance);
-      if (balance != null) {
-        account.setCurrentFiatValue(balance);
-        account.setFiatCurrency(currency);
-      }
-      account.setLastSyncedAt(Instant.now());
-      accountRepository.save(account);
+      String accountId = accountIds.get(accountIndex);
+      FinancialAccount known = knownAccounts.get(accountIndex);
+      Integer imported = transactionTemplate.execute(
+          status -> storeAccount(connection, accountId, known, fetched));
       accountsUpdated++;
+      transactionsImported += imported == null ? 0 : imported;
+    }
+
+    syncProgressService.update(connection, "Afwerken", 95);
+    return new SyncResult(accountsUpdated, transactionsImported, "OK");
+  }
 
+  private AccountFetch fetchAccount(String accountId, LocalDate dateFrom, Semaphore permits) {
+    permits.acquireUninterruptibly();
+    try {
+      JsonNode details = client.getAccountDetails(accountId);
+      JsonNode balances = client.getBalances(accountId);
+      List<List<EnableBankingTransaction>> pages = new ArrayList<>();
       String continuationKey = null;
       boolean paginationSupported = true;
       do {
         String safeContinuation = normalizeContinuationKey(continuationKey);
-        JsonNode txResponse;
+        EnableBankingTransactionPage page;
         try {
-          txResponse = client.getTransactions(accountId, safeContinuation);
+          page = client.getTransactions(accountId, safeContinuation, dateFrom);
         } catch (HttpClientErrorException.UnprocessableEntity ex) {
           String body = ex.getResponseBodyAsString();
           if (body != null && body.contains("continuation_key")) {
             paginationSupported = false;
-            txResponse = client.getTransactions(accountId, null);
+            page = client.getTransactions(accountId, null, dateFrom);
           } else {
             throw ex;
           }
         }
-        logDebug("transactions response accountId=" + accountId, txResponse);
-        Iterable<JsonNode> txItems = extractArray(txResponse, "transactions", "items");
-        if (txItems == null) {
-          JsonNode txObject = txResponse == null ? null : txResponse.path("transactions");
-          if (txObject != null && txObject.isObject()) {
-            List<JsonNode> merged = new ArrayList<>();
-            JsonNode booked = txObject.path("booked");
-            if (booked != null && booked.isArray()) {
-              booked.forEach(merged::add);
-            }
-            JsonNode pending = txObject.path("pending");
-            if (pending != null && pending.isArray()) {
-              pending.forEach(merged::add);
-            }
-            if (!merged.isEmpty()) {
-              txItems = merged;
-            }
-          }
+        continuationKey = paginationSupported ? normalizeContinuationKey(page.continuationKey()) : null;
+        if (page.transactions() == null) {
+          break;
         }
-        if (paginationSupported) {
-          continuationKey = normalizeContinuationKey(firstNonBlank(
-              textValue(txResponse, "continuation_key"),
-              textValue(txResponse, "continuationKey")));
-        } else {
-          continuationKey = null;
+        pages.add(page.transactions());
+      } while (continuationKey != null && !continuationKey.isBlank());
+      return new AccountFetch(details, balances, pages);
+    } finally {
+      permits.release();
+    }
+  }
+
+  // Runs inside one transaction per account; returns the number of new transactions.
+  private int storeAccount(Connection connection, String accountId, FinancialAccount known, AccountFetch fetched) {
+    JsonNode details = fetched.details();
+    String name = ACCOUNT_NAME.text(details);
+    String currency = firstNonBlank(ACCOUNT_CURRENCY.text(details), "EUR");
+    String iban = ACCOUNT_IBAN.text(details);
+    String accountNumber = ACCOUNT_NUMBER.text(details);
+    BigDecimal balance = extractBalance(fetched.balances());
+
+    FinancialAccount draft = known == null ? new FinancialAccount() : known;
+    if (draft.getId() == null) {
+      draft.setUser(connection.getUser());
+      draft.setConnection(connection);
+      draft.setType(AccountType.BANK);
+      draft.setProvider("Enable Banking");
+      draft.setExternalId(accountId);
+    }
+    draft.setName(name == null || name.isBlank() ? "Bank account" : name);
+    draft.setCurrency(currency);
+    draft.setIban(iban);
+    draft.setAccountNumber(accountNumber);
+    draft.setCurrentBalance(balance);
+    if (balance != null) {
+      draft.setCurrentFiatValue(balance);
+      draft.setFiatCurrency(currency);
+    }
+    draft.setLastSyncedAt(Instant.now());
+    // known was loaded before this transaction, so continue with the managed copy. Flushed because the
+    // JDBC insert below references the account row.
+    FinancialAccount account = accountRepository.saveAndFlush(draft);
+
+    int transactionsImported = 0;
+    LocalDate latestBooked = account.getLastBookedDate();
+    for (List<EnableBankingTransaction> pageItems : fetched.pages()) {
+      List<String> pageExternalIds = new ArrayList<>(pageItems.size());
+      for (EnableBankingTransaction item : pageItems) {
+        pageExternalIds.add(item.externalId());
+      }
+      ExistingTransactions existingTransactions = ExistingTransactions.load(
+          transactionRepository, account.getId(), pageExternalIds);
+      List<AccountTransaction> pendingInserts = new ArrayList<>();
+      List<LocalDate> correctedDates = new ArrayList<>();
+      for (EnableBankingTransaction item : pageItems) {
+        String externalId = item.externalId();
+
+        BigDecimal signedAmount = item.amount();
+        if (signedAmount == null) {
+          continue;
         }
-        if (txItems == null) {
-          break;
+        TransactionDirection direction = resolveDirection(item, signedAmount, iban, accountNumber);
+        BigDecimal absoluteAmount = signedAmount.abs();
+        String txCurrency = firstNonBlank(item.currency(), currency);
+        String remittance = item.remittance();
+        String counterparty = resolveCounterparty(direction, item.creditorName(), item.debtorName());
+        String description = firstNonBlank(counterparty, remittance);
+        LocalDate bookingDate = item.bookingDate();
+        LocalDate valueDate = item.valueDate();
+        if (isBooked(item) && bookingDate != null
+            && (latestBooked == null || bookingDate.isAfter(latestBooked))) {
+          latestBooked = bookingDate;
+        }
+        String txType = item.transactionType();
+        String merchantName = counterparty;
+        String counterpartyIban = direction == TransactionDirection.OUT
+            ? firstNonBlank(item.creditorIban(), item.debtorIban())
+            : firstNonBlank(item.debtorIban(), item.creditorIban());
+        if (counterpartyIban == null || counterpartyIban.isBlank()) {
+          counterpartyIban = firstNonBlank(extractIban(remittance), extractIban(description));
         }
-        for (JsonNode txNode : txItems) {
-          String externalId = firstNonBlank(
-              text(txNode, "transaction_id"),
-              text(txNode, "transactionId"),
-              text(txNode, "entry_reference"),
-              text(txNode, "internal_transaction_id"));
-          if (externalId == null) {
-            externalId = UUID.nameUUIDFromBytes(txNode.toString().getBytes(StandardCharsets.UTF_8)).toString();
-          }
 
-          BigDecimal signedAmount = firstAmount(
-              txNode,
-              "transaction_amount.amount",
-              "amount.amount",
-              "amount",
-              "transactionAmount.amount");
-          if (signedAmount == null) {
-            continue;
+        AccountTransaction existing = existingTransactions.find(externalId);
+        if (existing != null) {
+          boolean changed = false;
+          if (existing.getBookingDate() == null && bookingDate != null) {
+            existing.setBookingDate(bookingDate);
+            changed = true;
           }
-          TransactionDirection direction = resolveDirection(txNode, signedAmount, iban, accountNumber);
-          BigDecimal absoluteAmount = signedAmount.abs();
-          String txCurrency = firstNonBlank(
-              text(txNode, "transaction_amount.currency"),
-              text(txNode, "amount.currency"),
-              text(txNode, "currency"),
-              currency);
-          String remittance = firstNonBlank(
-              text(txNode, "remittance_information_unstructured"),
-              text(txNode, "remittance_information_unstructured_array"),
-              joinArray(txNode.path("remittance_information")));
-          String creditorName = firstNonBlank(text(txNode, "creditor_name"), text(txNode, "creditor.name"));
-          String debtorName = firstNonBlank(text(txNode, "debtor_name"), text(txNode, "debtor.name"));
-          String counterparty = resolveCounterparty(direction, creditorName, debtorName);
-          String description = firstNonBlank(counterparty, remittance);
-          LocalDate bookingDate = parseDate(firstNonBlank(
-              text(txNode, "booking_date"),
-              text(txNode, "transaction_date"),
-              text(txNode, "date"),
-              text(txNode, "value_date")));
-          LocalDate valueDate = parseDate(firstNonBlank(text(txNode, "value_date"), text(txNode, "transaction_date")));
-          String txType = firstNonBlank(
-              text(txNode, "transaction_type"),
-              text(txNode, "proprietary_bank_transaction_code"),
-              text(txNode, "bank_transaction_code.code"),
-              text(txNode, "bank_transaction_code.sub_code"));
-          String merchantName = counterparty;
-          String creditorIban = firstNonBlank(
-              text(txNode, "creditor_account.iban"),
-              text(txNode, "creditorAccount.iban"),
-              text(txNode, "creditor_account.other.identification"),
-              text(txNode, "creditorAccount.other.identification"));
-          String debtorIban = firstNonBlank(
-              text(txNode, "debtor_account.iban"),
-              text(txNode, "debtorAccount.iban"),
-              text(txNode, "debtor_account.other.identification"),
-              text(txNode, "debtorAccount.other.identification"));
-          String counterpartyIban = direction == TransactionDirection.OUT
-              ? firstNonBlank(creditorIban, debtorIban)
-              : firstNonBlank(debtorIban, creditorIban);
-          if (counterpartyIban == null || counterpartyIban.isBlank()) {
-            counterpartyIban = firstNonBlank(extractIban(remittance), extractIban(description));
+          if (existing.getValueDate() == null && valueDate != null) {
+            existing.setValueDate(valueDate);
+            changed = true;
           }
-
-          var existingOpt = transactionRepository.findFirstByAccountIdAndExternalIdOrderByCreatedAtAsc(account.getId(), externalId);
-          if (existingOpt.isPresent()) {
-            AccountTransaction existing = existingOpt.get();
-            boolean changed = false;
-            if (existing.getBookingDate() == null && bookingDate != null) {
-              existing.setBookingDate(bookingDate);
-              changed = true;
-            }
-            if (existing.getValueDate() == null && valueDate != null) {
-              existing.setValueDate(valueDate);
-              changed = true;
-            }
-            if ((existing.getDescription() == null || existing.getDescription().isBlank()) && description != null) {
-              existing.setDescription(description);
-              changed = true;
-            }
-            if ((existing.getCounterpartyIban() == null || existing.getCounterpartyIban().isBlank()) && counterpartyIban != null) {
-              existing.setCounterpartyIban(counterpartyIban);
-              changed = true;
-            }
-            if ((existing.getMerchantName() == null || existing.getMerchantName().isBlank()) && merchantName != null) {
-              existing.setMerchantName(merchantName);
-              changed = true;
-            }
-            if (existing.getTransactionType() == null && txType != null) {
-              existing.setTransactionType(txType);
-              changed = true;
-            }
-            if (existing.getCurrency() == null && txCurrency != null) {
-              existing.setCurrency(txCurrency);
-              changed = true;
-            }
-            if (existing.getAmount() == null && absoluteAmount != null) {
-              existing.setAmount(absoluteAmount);
-              changed = true;
-            }
-            if (existing.getDirection() == null && direction != null) {
-              existing.setDirection(direction);
-              changed = true;
-            } else if (existing.getDirection() != null && direction != null && existing.getDirection() != direction) {
-              existing.setDirection(direction);
-              changed = true;
-            }
-            if (changed) {
-              transactionRepository.save(existing);
-            }
-            continue;
+          if ((existing.getDescription() == null || existing.getDescription().isBlank()) && description != null) {
+            existing.setDescription(description);
+            changed = true;
           }
-
-          AccountTransaction tx = new AccountTransaction();
-          tx.setAccount(account);
-          tx.setAmount(absoluteAmount);
-          tx.setCurrency(txCurrency);
-          tx.setDirection(direction);
-          tx.setDescription(description);
-          tx.setBookingDate(bookingDate);
-          tx.setValueDate(valueDate);
-          tx.setExternalId(externalId);
-          tx.setProviderTransactionId(text(txNode, "transaction_id"));
-          tx.setStatus(text(txNode, "status"));
-          tx.setTransactionType(txType);
-          tx.setMerchantName(merchantName);
-          tx.setCounterpartyIban(counterpartyIban);
-
-          CategoryService.CategoryResult categoryResult = categoryService.categorizeDetailed(
-              connection.getUser().getId(),
-              description,
-              tx.getMerchantName(),
-              direction,
-              txType,
-              account.getType(),
-              txCurrency,
-              absoluteAmount == null ? null : absoluteAmount.toPlainString(),
-              counterpartyIban);
-          tx.setCategory(categoryResult.category());
-          tx.setCategorySource(categoryResult.source());
-          if (categoryResult.confidence() != null) {
-            tx.setCategoryConfidence(java.math.BigDecimal.valueOf(categoryResult.confidence()));
+          if ((existing.getCounterpartyIban() == null || existing.getCounterpartyIban().isBlank()) && counterpartyIban != null) {
+            existing.setCounterpartyIban(counterpartyIban);
+            changed = true;
+          }
+          if ((existing.getMerchantName() == null || existing.getMerchantName().isBlank()) && merchantName != null) {
+            existing.setMerchantName(merchantName);
+            changed = true;
+          }
+          if (existing.getTransactionType() == null && txType != null) {
+            existing.setTransactionType(txType);
+            changed = true;
+          }
+          if (existing.getCurrency() == null && txCurrency != null) {
+            existing.setCurrency(txCurrency);
+            changed = true;
+          }
+          if (existing.getAmount() == null && absoluteAmount != null) {
+            existing.setAmount(absoluteAmount);
+            changed = true;
           }
-          tx.setCategoryReason(categoryResult.reason());
-          transactionRepository.save(tx);
-          transactionsImported++;
+          if (existing.getDirection() == null && direction != null) {
+            existing.setDirection(direction);
+            changed = true;
+          } else if (existing.getDirection() != null && direction != null && existing.getDirection() != direction) {
+            existing.setDirection(direction);
+            changed = true;
+          }
+          if (changed && existing.getId() != null) {
+            transactionRepository.save(existing);
+            correctedDates.add(existing.getBookingDate());
+          }
+          continue;
         }
-      } while (continuationKey != null && !continuationKey.isBlank());
+
+        AccountTransaction tx = new AccountTransaction();
+        tx.setAccount(account);
+        tx.setAmount(absoluteAmount);
+        tx.setCurrency(txCurrency);
+        tx.setDirection(direction);
+        tx.setDescription(description);
+        tx.setBookingDate(bookingDate);
+        tx.setValueDate(valueDate);
+        tx.setExternalId(externalId);
+        tx.setProviderTransactionId(item.transactionId());
+        tx.setStatus(item.status());
+        tx.setTransactionType(txType);
+        tx.setMerchantName(merchantName);
+        tx.setCounterpartyIban(counterpartyIban);
+
+        CategoryService.CategoryResult categoryResult = categoryService.categorizeDetailed(
+            connection.getUser().getId(),
+            description,
+            tx.getMerchantName(),
+            direction,
+            txType,
+            account.getType(),
+            txCurrency,
+            absoluteAmount == null ? null : absoluteAmount.toPlainString(),
+            counterpartyIban,
+            false);
+        tx.setCategory(categoryResult.category());
+        tx.setCategorySource(categoryResult.source());
+        if (categoryResult.confidence() != null) {
+          tx.setCategoryConfidence(java.math.BigDecimal.valueOf(categoryResult.confidence()));
+        }
+        tx.setCategoryReason(categoryResult.reason());
+        existingTransactions.register(tx);
+        pendingInserts.add(tx);
+        transactionsImported++;
+      }
+      transactionWriter.insertAll(pendingInserts);
+      if (!correctedDates.isEmpty()) {
+        // The rollup refresh reads through JDBC, so the corrected rows must be written first.
+        transactionRepository.flush();
+      }
+      rollupWriter.refreshMonths(account.getId(), correctedDates);
     }
 
-    syncProgressService.update(connection, "Afwerken", 95);
-    return new SyncResult(accountsUpdated, transactionsImported, "OK");
+    if (latestBooked != null && !latestBooked.equals(account.getLastBookedDate())) {
+      account.setLastBookedDate(latestBooked.isAfter(LocalDate.now()) ? LocalDate.now() : latestBooked);
+      accountRepository.save(account);
+    }
+    return transactionsImported;
+  }
+
+  private static AccountFetch awaitFetch(CompletableFuture<AccountFetch> fetch) {
+    try {
+      return fetch.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  private Semaphore permitsFor(Map<String, String> config) {
+    String aspsp = firstNonBlank(config.get("aspspCountry"), properties.defaultCountry(), "-")
+        + "/" + firstNonBlank(config.get("aspspName"), "-");
+    int limit = properties.aspspConcurrency() == null || properties.aspspConcurrency() <= 0
+        ? DEFAULT_ASPSP_CONCURRENCY
+        : properties.aspspConcurrency();
+    return aspspPermits.computeIfAbsent(aspsp.toLowerCase(Locale.ROOT), key -> new Semaphore(limit));
+  }
+
+  private record AccountFetch(JsonNode details, JsonNode balances, List<List<EnableBankingTransaction>> pages) {}
+
+  private LocalDate resolveDateFrom(FinancialAccount account, SyncMode mode) {
+    if (mode == SyncMode.FULL || account.getLastBookedDate() == null) {
+      return null;
+    }
+    int overlapDays = properties.syncOverlapDays() == null || properties.syncOverlapDays() < 0
+        ? DEFAULT_SYNC_OVERLAP_DAYS
+        : properties.syncOverlapDays();
+    return account.getLastBookedDate().minusDays(overlapDays);
+  }
+
+  private static boolean isBooked(EnableBankingTransaction item) {
+    String status = item.status();
+    return status == null || !status.trim().toUpperCase(Locale.ROOT).startsWith("PDNG");
   }
 
   private List<String> extractAccountIds(JsonNode sessionResponse) {
@@ -413,19 +495,7 @@ public class EnableBankingProvider implements ConnectionProvider {
       return node.asText();
     }
     if (node.isObject()) {
-      String id = firstNonBlank(
-          text(node, "uid"),
-          text(node, "resource_id"),
-          text(node, "resourceId"),
-          text(node, "account_id.uid"),
-          text(node, "account_id.id"),
-          text(node, "id"),
-          text(node, "account_id"),
-          text(node, "accountId"),
-          text(node, "iban"),
-          text(node, "bban"),
-          text(node, "account_number"));
-      return id == null || id.isBlank() ? null : id;
+      return ACCOUNT_REFERENCE.text(node);
     }
     return null;
   }
@@ -525,37 +595,6 @@ public class EnableBankingProvider implements ConnectionProvider {
     return null;
   }
 
-  private static String text(JsonNode node, String path) {
-    JsonNode current = node;
-    for (String part : path.split("\\.")) {
-      if (current == null) {
-        return null;
-      }
-      current = current.path(part);
-      if (current.isMissingNode() || current.isNull()) {
-        return null;
-      }
-    }
-    return current.isTextual() ? current.asText() : current.toString();
-  }
-
-  private static String textValue(JsonNode node, String path) {
-    JsonNode current = node;
-    for (String part : path.split("\\.")) {
-      if (current == null) {
-        return null;
-      }
-      current = current.path(part);
-      if (current.isMissingNode() || current.isNull()) {
-        return null;
-      }
-    }
-    if (current.isTextual() || current.isNumber()) {
-      return current.asText();
-    }
-    return null;
-  }
-
   private static String normalizeContinuationKey(String value) {
     if (value == null) {
       return null;
@@ -574,28 +613,21 @@ public class EnableBankingProvider implements ConnectionProvider {
     return trimmed;
   }
 
-  private static TransactionDirection resolveDirection(JsonNode txNode, BigDecimal amount, String accountIban, String accountNumber) {
-    String indicator = firstNonBlank(
-        text(txNode, "credit_debit_indicator"),
-        text(txNode, "creditDebitIndicator"));
+  private static TransactionDirection resolveDirection(EnableBankingTransaction item,
+                                                      BigDecimal amount,
+                                                      String accountIban,
+                                                      String accountNumber) {
+    String indicator = item.creditDebitIndicator();
     if ("DBIT".equalsIgnoreCase(indicator) || "DEBIT".equalsIgnoreCase(indicator)) {
       return TransactionDirection.OUT;
     }
     if ("CRDT".equalsIgnoreCase(indicator) || "CREDIT".equalsIgnoreCase(indicator)) {
       return TransactionDirection.IN;
     }
-    String creditorName = firstNonBlank(text(txNode, "creditor_name"), text(txNode, "creditor.name"));
-    String debtorName = firstNonBlank(text(txNode, "debtor_name"), text(txNode, "debtor.name"));
-    String creditorIban = firstNonBlank(
-        text(txNode, "creditor_account.iban"),
-        text(txNode, "creditorAccount.iban"),
-        text(txNode, "creditor_account.other.identification"),
-        text(txNode, "creditorAccount.other.identification"));
-    String debtorIban = firstNonBlank(
-        text(txNode, "debtor_account.iban"),
-        text(txNode, "debtorAccount.iban"),
-        text(txNode, "debtor_account.other.identification"),
-        text(txNode, "debtorAccount.other.identification"));
+    String creditorName = item.creditorName();
+    String debtorName = item.debtorName();
+    String creditorIban = item.creditorIban();
+    String debtorIban = item.debtorIban();
     String normalizedAccountIban = normalizeIdentifier(accountIban);
     String normalizedAccountNumber = normalizeIdentifier(accountNumber);
     String normalizedCreditor = normalizeIdentifier(creditorIban);
@@ -659,34 +691,18 @@ public class EnableBankingProvider implements ConnectionProvider {
     return firstNonBlank(creditorName, debtorName);
   }
 
-  private static String joinArray(JsonNode node) {
-    if (node == null || node.isMissingNode() || node.isNull() || !node.isArray()) {
-      return null;
-    }
-    StringBuilder builder = new StringBuilder();
-    for (JsonNode item : node) {
-      if (item.isTextual()) {
-        if (builder.length() > 0) {
-          builder.append(" | ");
-        }
-        builder.append(item.asText());
-      }
-    }
-    return builder.length() == 0 ? null : builder.toString();
-  }
-
   private static BigDecimal extractBalance(JsonNode balances) {
     if (balances == null) {
       return null;
     }
     JsonNode array = balances.isArray() ? balances : balances.path("balances");
     if (!array.isArray()) {
-      return firstAmount(balances, "balance_amount.amount", "amount");
+      return firstAmount(balances, BALANCE_AMOUNT);
     }
     BigDecimal fallback = null;
     for (JsonNode balanceNode : array) {
-      String type = firstNonBlank(text(balanceNode, "balance_type"), text(balanceNode, "balanceType"));
-      BigDecimal amount = firstAmount(balanceNode, "balance_amount.amount", "amount");
+      String type = BALANCE_TYPE.text(balanceNode);
+      BigDecimal amount = firstAmount(balanceNode, BALANCE_AMOUNT);
       if (amount == null) {
         continue;
       }
@@ -700,58 +716,24 @@ public class EnableBankingProvider implements ConnectionProvider {
     return fallback;
   }
 
-  private static BigDecimal firstAmount(JsonNode node, String... paths) {
-    if (node == null) {
-      return null;
-    }
-    for (String path : paths) {
-      JsonNode current = node;
-      for (String part : path.split("\\.")) {
-        if (current == null) {
-          current = null;
-          break;
-        }
-        current = current.path(part);
-        if (current.isMissingNode() || current.isNull()) {
-          current = null;
-          break;
-        }
+  // The first alternative holding a number or text wins; text that is not a number means no amount.
+  private static BigDecimal firstAmount(JsonNode node, JsonField field) {
+    for (int i = 0; i < field.alternatives(); i++) {
+      JsonNode value = field.at(node, i);
+      if (value == null) {
+        continue;
       }
-      if (current != null && !current.isNull()) {
-        if (current.isNumber()) {
-          return current.decimalValue();
-        }
-        if (current.isTextual()) {
-          try {
-            return new BigDecimal(current.asText());
-          } catch (NumberFormatException ex) {
-            return null;
-          }
+      if (value.isNumber()) {
+        return value.decimalValue();
+      }
+      if (value.isTextual()) {
+        try {
+          return new BigDecimal(value.asText());
+        } catch (NumberFormatException ex) {
+          return null;
         }
       }
     }
     return null;
   }
-
-  private static LocalDate parseDate(String value) {
-    if (value == null || value.isBlank()) {
-      return null;
-    }
-    try {
-      return LocalDate.parse(value);
-    } catch (Exception ex) {
-      return null;
-    }
-  }
-
-  private void logDebug(String label, JsonNode payload) {
-    if (!Boolean.TRUE.equals(properties.debugLogResponses())) {
-      return;
-    }
-    String body = payload == null ? "null" : payload.toString();
-    if (body.length() > 4000) {
-      body = body.substring(0, 4000) + "...";
-    }
-    log.info("Enable Banking debug {}: {}", label, body);
-  }
 }
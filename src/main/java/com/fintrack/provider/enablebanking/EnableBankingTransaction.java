@@ -0,0 +1,23 @@
+package com.fintrack.provider.enablebanking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One row of a transactions page, reduced to what the importer uses. Names, IBANs and the currency
+// are the first non-blank of their alternative fields; amount is signed as the bank sent it.
+public record EnableBankingTransaction(
+    String externalId,
+    String transactionId,
+    BigDecimal amount,
+    String currency,
+    String status,
+    String creditDebitIndicator,
+    String creditorName,
+    String debtorName,
+    String creditorIban,
+    String debtorIban,
+    String remittance,
+    LocalDate bookingDate,
+    LocalDate valueDate,
+    String transactionType
+) {}
@@ -0,0 +1,297 @@
+package com.fintrack.provider.enablebanking;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintrack.provider.JsonRowFields;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Streams a transactions page from the response bytes straight into EnableBankingTransaction rows.
+// Accepted shapes: a bare array, {"transactions": [...]}, {"items": [...]} and
+// {"transactions": {"booked": [...], "pending": [...]}}.
+final class EnableBankingTransactionDecoder {
+  private static final JsonRowFields FIELDS = JsonRowFields.of(
+      "transaction_id",
+      "transactionId",
+      "entry_reference",
+      "internal_transaction_id",
+      "transaction_amount.amount",
+      "amount.amount",
+      "amount",
+      "transactionAmount.amount",
+      "transaction_amount.currency",
+      "amount.currency",
+      "currency",
+      "status",
+      "credit_debit_indicator",
+      "creditDebitIndicator",
+      "creditor_name",
+      "creditor.name",
+      "debtor_name",
+      "debtor.name",
+      "creditor_account.iban",
+      "creditorAccount.iban",
+      "creditor_account.other.identification",
+      "creditorAccount.other.identification",
+      "debtor_account.iban",
+      "debtorAccount.iban",
+      "debtor_account.other.identification",
+      "debtorAccount.other.identification",
+      "remittance_information_unstructured",
+      "remittance_information_unstructured_array",
+      "remittance_information",
+      "booking_date",
+      "transaction_date",
+      "date",
+      "value_date",
+      "transaction_type",
+      "proprietary_bank_transaction_code",
+      "bank_transaction_code.code",
+      "bank_transaction_code.sub_code");
+  private static final int TRANSACTION_ID = FIELDS.slot("transaction_id");
+  private static final int TRANSACTION_ID_CAMEL = FIELDS.slot("transactionId");
+  private static final int ENTRY_REFERENCE = FIELDS.slot("entry_reference");
+  private static final int INTERNAL_TRANSACTION_ID = FIELDS.slot("internal_transaction_id");
+  private static final int TRANSACTION_AMOUNT = FIELDS.slot("transaction_amount.amount");
+  private static final int AMOUNT_AMOUNT = FIELDS.slot("amount.amount");
+  private static final int AMOUNT = FIELDS.slot("amount");
+  private static final int TRANSACTION_AMOUNT_CAMEL = FIELDS.slot("transactionAmount.amount");
+  private static final int TRANSACTION_CURRENCY = FIELDS.slot("transaction_amount.currency");
+  private static final int AMOUNT_CURRENCY = FIELDS.slot("amount.currency");
+  private static final int CURRENCY = FIELDS.slot("currency");
+  private static final int STATUS = FIELDS.slot("status");
+  private static final int INDICATOR = FIELDS.slot("credit_debit_indicator");
+  private static final int INDICATOR_CAMEL = FIELDS.slot("creditDebitIndicator");
+  private static final int CREDITOR_NAME = FIELDS.slot("creditor_name");
+  private static final int CREDITOR_NAME_NESTED = FIELDS.slot("creditor.name");
+  private static final int DEBTOR_NAME = FIELDS.slot("debtor_name");
+  private static final int DEBTOR_NAME_NESTED = FIELDS.slot("debtor.name");
+  private static final int CREDITOR_IBAN = FIELDS.slot("creditor_account.iban");
+  private static final int CREDITOR_IBAN_CAMEL = FIELDS.slot("creditorAccount.iban");
+  private static final int CREDITOR_OTHER = FIELDS.slot("creditor_account.other.identification");
+  private static final int CREDITOR_OTHER_CAMEL = FIELDS.slot("creditorAccount.other.identification");
+  private static final int DEBTOR_IBAN = FIELDS.slot("debtor_account.iban");
+  private static final int DEBTOR_IBAN_CAMEL = FIELDS.slot("debtorAccount.iban");
+  private static final int DEBTOR_OTHER = FIELDS.slot("debtor_account.other.identification");
+  private static final int DEBTOR_OTHER_CAMEL = FIELDS.slot("debtorAccount.other.identification");
+  private static final int REMITTANCE = FIELDS.slot("remittance_information_unstructured");
+  private static final int REMITTANCE_ARRAY = FIELDS.slot("remittance_information_unstructured_array");
+  private static final int REMITTANCE_LINES = FIELDS.slot("remittance_information");
+  private static final int BOOKING_DATE = FIELDS.slot("booking_date");
+  private static final int TRANSACTION_DATE = FIELDS.slot("transaction_date");
+  private static final int DATE = FIELDS.slot("date");
+  private static final int VALUE_DATE = FIELDS.slot("value_date");
+  private static final int TRANSACTION_TYPE = FIELDS.slot("transaction_type");
+  private static final int PROPRIETARY_CODE = FIELDS.slot("proprietary_bank_transaction_code");
+  private static final int BANK_CODE = FIELDS.slot("bank_transaction_code.code");
+  private static final int BANK_SUB_CODE = FIELDS.slot("bank_transaction_code.sub_code");
+
+  private final ObjectMapper objectMapper;
+
+  EnableBankingTransactionDecoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  EnableBankingTransactionPage decode(byte[] body) {
+    if (body == null || body.length == 0) {
+      return new EnableBankingTransactionPage(null, null);
+    }
+    try (JsonParser parser = objectMapper.createParser(body)) {
+      JsonToken root = parser.nextToken();
+      if (root == JsonToken.START_ARRAY) {
+        return new EnableBankingTransactionPage(readRows(parser, body), null);
+      }
+      if (root != JsonToken.START_OBJECT) {
+        return new EnableBankingTransactionPage(null, null);
+      }
+      List<EnableBankingTransaction> transactions = null;
+      List<EnableBankingTransaction> items = null;
+      List<EnableBankingTransaction> booked = null;
+      List<EnableBankingTransaction> pending = null;
+      String continuationKey = null;
+      String continuationKeyCamel = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken token = parser.nextToken();
+        if ("transactions".equals(name) && token == JsonToken.START_ARRAY) {
+          transactions = readRows(parser, body);
+        } else if ("transactions".equals(name) && token == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String group = parser.currentName();
+            JsonToken groupToken = parser.nextToken();
+            if (groupToken == JsonToken.START_ARRAY && "booked".equals(group)) {
+              booked = readRows(parser, body);
+            } else if (groupToken == JsonToken.START_ARRAY && "pending".equals(group)) {
+              pending = readRows(parser, body);
+            } else {
+              parser.skipChildren();
+            }
+          }
+        } else if ("items".equals(name) && token == JsonToken.START_ARRAY) {
+          items = readRows(parser, body);
+        } else if ("continuation_key".equals(name)) {
+          continuationKey = scalarText(parser.readValueAsTree());
+        } else if ("continuationKey".equals(name)) {
+          continuationKeyCamel = scalarText(parser.readValueAsTree());
+        } else {
+          parser.skipChildren();
+        }
+      }
+      List<EnableBankingTransaction> rows = transactions != null ? transactions : items;
+      if (rows == null && (booked != null || pending != null)) {
+        List<EnableBankingTransaction> merged = new ArrayList<>();
+        if (booked != null) {
+          merged.addAll(booked);
+        }
+        if (pending != null) {
+          merged.addAll(pending);
+        }
+        rows = merged.isEmpty() ? null : merged;
+      }
+      return new EnableBankingTransactionPage(rows, firstNonBlank(continuationKey, continuationKeyCamel));
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unreadable Enable Banking transactions page", ex);
+    }
+  }
+
+  // Expects the parser on START_ARRAY; rows that are not objects carry nothing to import and are skipped.
+  private List<EnableBankingTransaction> readRows(JsonParser parser, byte[] body) throws IOException {
+    List<EnableBankingTransaction> rows = new ArrayList<>();
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        continue;
+      }
+      int start = (int) parser.currentTokenLocation().getByteOffset();
+      JsonNode[] values = FIELDS.read(parser);
+      int end = (int) parser.currentLocation().getByteOffset();
+      rows.add(toTransaction(values, body, start, end));
+    }
+    return rows;
+  }
+
+  private EnableBankingTransaction toTransaction(JsonNode[] values, byte[] body, int start, int end) throws IOException {
+    String transactionId = text(values, TRANSACTION_ID);
+    String externalId = firstNonBlank(
+        transactionId,
+        text(values, TRANSACTION_ID_CAMEL),
+        text(values, ENTRY_REFERENCE),
+        text(values, INTERNAL_TRANSACTION_ID));
+    if (externalId == null) {
+      // Rows without an id are keyed by their content, as read into a tree, so earlier imports still match.
+      String row = objectMapper.readTree(body, start, end - start).toString();
+      externalId = UUID.nameUUIDFromBytes(row.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+    return new EnableBankingTransaction(
+        externalId,
+        transactionId,
+        firstAmount(values, TRANSACTION_AMOUNT, AMOUNT_AMOUNT, AMOUNT, TRANSACTION_AMOUNT_CAMEL),
+        firstNonBlank(text(values, TRANSACTION_CURRENCY), text(values, AMOUNT_CURRENCY), text(values, CURRENCY)),
+        text(values, STATUS),
+        firstNonBlank(text(values, INDICATOR), text(values, INDICATOR_CAMEL)),
+        firstNonBlank(text(values, CREDITOR_NAME), text(values, CREDITOR_NAME_NESTED)),
+        firstNonBlank(text(values, DEBTOR_NAME), text(values, DEBTOR_NAME_NESTED)),
+        firstNonBlank(
+            text(values, CREDITOR_IBAN),
+            text(values, CREDITOR_IBAN_CAMEL),
+            text(values, CREDITOR_OTHER),
+            text(values, CREDITOR_OTHER_CAMEL)),
+        firstNonBlank(
+            text(values, DEBTOR_IBAN),
+            text(values, DEBTOR_IBAN_CAMEL),
+            text(values, DEBTOR_OTHER),
+            text(values, DEBTOR_OTHER_CAMEL)),
+        firstNonBlank(
+            text(values, REMITTANCE),
+            text(values, REMITTANCE_ARRAY),
+            joinArray(values[REMITTANCE_LINES])),
+        parseDate(firstNonBlank(
+            text(values, BOOKING_DATE),
+            text(values, TRANSACTION_DATE),
+            text(values, DATE),
+            text(values, VALUE_DATE))),
+        parseDate(firstNonBlank(text(values, VALUE_DATE), text(values, TRANSACTION_DATE))),
+        firstNonBlank(
+            text(values, TRANSACTION_TYPE),
+            text(values, PROPRIETARY_CODE),
+            text(values, BANK_CODE),
+            text(values, BANK_SUB_CODE)));
+  }
+
+  private static String text(JsonNode[] values, int slot) {
+    return JsonRowFields.text(values[slot]);
+  }
+
+  private static String scalarText(JsonNode node) {
+    if (node != null && (node.isTextual() || node.isNumber())) {
+      return node.asText();
+    }
+    return null;
+  }
+
+  // The first alternative holding a number or text wins; text that is not a number means no amount.
+  private static BigDecimal firstAmount(JsonNode[] values, int... slots) {
+    for (int slot : slots) {
+      JsonNode node = values[slot];
+      if (node == null) {
+        continue;
+      }
+      if (node.isNumber()) {
+        return node.decimalValue();
+      }
+      if (node.isTextual()) {
+        try {
+          return new BigDecimal(node.asText());
+        } catch (NumberFormatException ex) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String joinArray(JsonNode node) {
+    if (node == null || !node.isArray()) {
+      return null;
+    }
+    StringBuilder builder = new StringBuilder();
+    for (JsonNode item : node) {
+      if (item.isTextual()) {
+        if (builder.length() > 0) {
+          builder.append(" | ");
+        }
+        builder.append(item.asText());
+      }
+    }
+    return builder.length() == 0 ? null : builder.toString();
+  }
+
+  private static LocalDate parseDate(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value);
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+
+  private static String firstNonBlank(String... values) {
+    for (String value : values) {
+      if (value != null && !value.isBlank()) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,68 @@
+package com.fintrack.provider.tink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.math.BigDecimal;
+
+// Tink sends amounts as plain numbers or text, or as {"unscaledValue", "scale"} / {"value", "scale"} objects.
+final class TinkAmounts {
+  private TinkAmounts() {
+  }
+
+  static BigDecimal parse(JsonNode node) {
+    if (node == null) {
+      return null;
+    }
+    if (node.isNumber()) {
+      return node.decimalValue();
+    }
+    if (node.isTextual()) {
+      try {
+        return new BigDecimal(node.asText());
+      } catch (NumberFormatException ignored) {
+        return null;
+      }
+    }
+    if (node.isObject()) {
+      JsonNode unscaled = node.get("unscaledValue");
+      JsonNode scale = node.get("scale");
+      BigDecimal unscaledValue = parse(unscaled);
+      Integer scaleValue = parseScale(scale);
+      if (unscaledValue != null) {
+        if (scaleValue != null) {
+          return unscaledValue.movePointLeft(Math.abs(scaleValue));
+        }
+        return unscaledValue;
+      }
+      JsonNode value = node.get("value");
+      if (value != null) {
+        BigDecimal parsed = parse(value);
+        if (parsed != null && scaleValue != null) {
+          return parsed.movePointLeft(Math.abs(scaleValue));
+        }
+        return parsed;
+      }
+      JsonNode amount = node.get("amount");
+      if (amount != null) {
+        return parse(amount);
+      }
+    }
+    return null;
+  }
+
+  private static Integer parseScale(JsonNode scale) {
+    if (scale == null || scale.isNull()) {
+      return null;
+    }
+    if (scale.canConvertToInt()) {
+      return scale.asInt();
+    }
+    if (scale.isTextual()) {
+      try {
+        return Integer.parseInt(scale.asText());
+      } catch (NumberFormatException ignored) {
+        return null;
+      }
+    }
+    return null;
+  }
+}
@@ -2,7 +2,9 @@ package com.fintrack.provider.tink;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintrack.config.TinkProperties;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import org.slf4j.Logger;
@@ -22,11 +24,13 @@ public class TinkClient {
 
   private final TinkProperties properties;
   private final RestClient restClient;
+  private final TinkTransactionDecoder transactionDecoder;
 
-  public TinkClient(TinkProperties properties) {
+  public TinkClient(TinkProperties properties, ObjectMapper objectMapper) {
     this.properties = properties;
     String baseUrl = properties.baseUrl() == null ? "" : properties.baseUrl();
     this.restClient = RestClient.builder().baseUrl(baseUrl).build();
+    this.transactionDecoder = new TinkTransactionDecoder(objectMapper);
   }
 
   public TokenResponse exchangeCode(String code) {
@@ -59,14 +63,15 @@ public class TinkClient {
     String uri = resolveUri(properties.accountsPath());
     uri = appendQueryParam(uri, "pageSize", "100");
     uri = appendQueryParam(uri, "pageToken", pageToken);
-    return getJson(uri, accessToken);
+    return get(uri, accessToken, JsonNode.class);
   }
 
-  public JsonNode listTransactions(String accessToken, String accountId) {
+  public TinkTransactionPage listTransactions(String accessToken, String accountId) {
     return listTransactions(accessToken, accountId, null);
   }
 
-  public JsonNode listTransactions(String accessToken, String accountId, String pageToken) {
+  // Pages can hold hundreds of rows, so the body is decoded from its bytes without building a JsonNode tree.
+  public TinkTransactionPage listTransactions(String accessToken, String accountId, String pageToken) {
     requireConfigured("transactionsPath", properties.transactionsPath());
     String path = properties.transactionsPath();
     if (accountId != null && path != null) {
@@ -79,10 +84,10 @@ public class TinkClient {
     path = appendQueryParam(path, "pageToken", pageToken);
     path = appendQueryParam(path, "statusIn", "BOOKED");
     path = appendQueryParam(path, "statusIn", "PENDING");
-    return getJson(resolveUri(path), accessToken);
+    return transactionDecoder.decode(get(resolveUri(path), accessToken, byte[].class));
   }
 
-  private JsonNode getJson(String uri, String accessToken) {
+  private <T> T get(String uri, String accessToken, Class<T> responseType) {
     Set<String> contentTypes = new LinkedHashSet<>();
     if (properties.dataContentType() != null && !properties.dataContentType().isBlank()) {
       contentTypes.add(properties.dataContentType());
@@ -104,9 +109,10 @@ public class TinkClient {
         if (isDebugLogEnabled()) {
           log.info("Tink GET {} (Content-Type: {})", uri, contentType == null ? "<none>" : contentType);
         }
-        JsonNode body = spec.retrieve().body(JsonNode.class);
+        T body = spec.retrieve().body(responseType);
         if (isDebugLogEnabled()) {
-          log.info("Tink response {}: {}", uri, truncate(body == null ? "null" : body.toString(), 2000));
+          String logged = body instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(body);
+          log.info("Tink response {}: {}", uri, truncate(logged, 2000));
         }
         return body;
       } catch (HttpClientErrorException ex) {
@@ -13,7 +13,10 @@ import com.fintrack.model.FinancialAccount;
 import com.fintrack.model.TransactionDirection;
 import com.fintrack.provider.ConnectResult;
 import com.fintrack.provider.ConnectionProvider;
+import com.fintrack.provider.ExistingTransactions;
+import com.fintrack.provider.JsonField;
 import com.fintrack.provider.SyncResult;
+import com.fintrack.repository.AccountTransactionBatchWriter;
 import com.fintrack.repository.AccountTransactionRepository;
 import com.fintrack.repository.FinancialAccountRepository;
 import com.fintrack.service.CategoryService;
@@ -22,22 +25,48 @@ import java.math.BigDecimal;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TinkProvider implements ConnectionProvider {
   private static final String PROVIDER_ID = "tink";
+  private static final JsonField NEXT_PAGE_TOKEN = JsonField.of("nextPageToken", "next_page_token");
+  private static final JsonField ACCOUNT_ID = JsonField.of("id", "accountId");
+  private static final JsonField ACCOUNT_NAME = JsonField.of("name", "displayName");
+  private static final JsonField ACCOUNT_CURRENCY = JsonField.of(
+      "currency",
+      "balances.available.currency",
+      "balances.current.currency",
+      "balances.booked.amount.currencyCode",
+      "balance.currency");
+  private static final JsonField ACCOUNT_IBAN = JsonField.of("identifiers.iban.iban", "iban");
+  private static final JsonField ACCOUNT_NUMBER = JsonField.of(
+      "identifiers.financialInstitution.accountNumber",
+      "accountNumber");
+  private static final JsonField ACCOUNT_BALANCE = JsonField.of(
+      "balances.available.amount.value",
+      "balances.current.amount.value",
+      "balances.booked.amount.value",
+      "balances.available.amount",
+      "balances.current.amount",
+      "balances.booked.amount",
+      "balance.amount.value",
+      "balance.amount",
+      "balance",
+      "availableAmount",
+      "currentAmount");
+  private static final JsonField BALANCE_TYPE = JsonField.of("type", "balanceType");
 
   private final TinkClient client;
   private final TinkProperties properties;
   private final AppProperties appProperties;
   private final FinancialAccountRepository accountRepository;
   private final AccountTransactionRepository transactionRepository;
+  private final AccountTransactionBatchWriter transactionWriter;
   private final CategoryService categoryService;
   private final SyncProgressService syncProgressService;
 
@@ -46,6 +75,7 @@ public class TinkProvider implements ConnectionProvider {
                      AppProperties appProperties,
                      FinancialAccountRepository accountRepository,
                      AccountTransactionRepository transactionRepository,
+                     AccountTransactionBatchWriter transactionWriter,
                      CategoryService categoryService,
                      SyncProgressService syncProgressService) {
     this.client = client;
@@ -53,6 +83,7 @@ public class TinkProvider implements ConnectionProvider {
     this.appProperties = appProperties;
     this.accountRepository = accountRepository;
     this.transactionRepository = transactionRepository;
+    this.transactionWriter = transactionWriter;
     this.categoryService = categoryService;
     this.syncProgressService = syncProgressService;
   }
@@ -127,44 +158,22 @@ public class TinkProvider implements ConnectionProvider {
     do {
       JsonNode accountsResponse = client.listAccounts(accessToken, nextAccountPage);
       JsonNode accountArray = extractArray(accountsResponse, "accounts", "data", "items");
-      nextAccountPage = firstNonBlank(text(accountsResponse, "nextPageToken"), text(accountsResponse, "next_page_token"));
+      nextAccountPage = NEXT_PAGE_TOKEN.text(accountsResponse);
 
       if (accountArray == null) {
         break;
       }
       for (JsonNode accountNode : accountArray) {
-        String accountId = firstNonBlank(text(accountNode, "id"), text(accountNode, "accountId"));
+        String accountId = ACCOUNT_ID.text(accountNode);
         if (accountId == null) {
           continue;
         }
-        String name = firstNonBlank(text(accountNode, "name"), text(accountNode, "displayName"), accountId);
-        String currency = firstNonBlank(
-            text(accountNode, "currency"),
-            text(accountNode, "balances.available.currency"),
-            text(accountNode, "balances.current.currency"),
-            text(accountNode, "balances.booked.amount.currencyCode"),
-            text(accountNode, "balance.currency"),
-            "EUR");
-        String iban = firstNonBlank(
-            text(accountNode, "identifiers.iban.iban"),
-            text(accountNode, "iban"));
-        String accountNumber = firstNonBlank(
-            text(accountNode, "identifiers.financialInstitution.accountNumber"),
-            text(accountNode, "accountNumber"));
+        String name = firstNonBlank(ACCOUNT_NAME.text(accountNode), accountId);
+        String currency = firstNonBlank(ACCOUNT_CURRENCY.text(accountNode), "EUR");
+        String iban = ACCOUNT_IBAN.text(accountNode);
+        String accountNumber = ACCOUNT_NUMBER.text(accountNode);
 
-        BigDecimal balance = firstAmount(
-            accountNode,
-            "balances.available.amount.value",
-            "balances.current.amount.value",
-            "balances.booked.amount.value",
-            "balances.available.amount",
-            "balances.current.amount",
-            "balances.booked.amount",
-            "balance.amount.value",
-            "balance.amount",
-            "balance",
-            "availableAmount",
-            "currentAmount");
+        BigDecimal balance = firstAmount(accountNode, ACCOUNT_BALANCE);
         if (balance == null) {
           balance = extractBalanceFromArray(accountNode.path("balances"));
         }
@@ -195,56 +204,39 @@ public class TinkProvider implements ConnectionProvider {
         syncProgressService.update(connection, "Transacties ophalen", progress);
         String nextTxPage = null;
         do {
-          JsonNode transactionsResponse = client.listTransactions(accessToken, accountId, nextTxPage);
-          JsonNode txArray = extractTransactions(transactionsResponse);
-          nextTxPage = firstNonBlank(text(transactionsResponse, "nextPageToken"), text(transactionsResponse, "next_page_token"));
-          if (txArray == null) {
+          TinkTransactionPage page = client.listTransactions(accessToken, accountId, nextTxPage);
+          nextTxPage = page.nextPageToken();
+          if (page.transactions() == null) {
             break;
           }
 
-          for (JsonNode txNode : txArray) {
-            String txAccountId = firstNonBlank(text(txNode, "accountId"), text(txNode, "account.id"));
-            if (txAccountId != null && !txAccountId.equals(accountId)) {
+          List<TinkTransaction> pageItems = new ArrayList<>();
+          List<String> pageExternalIds = new ArrayList<>();
+          for (TinkTransaction item : page.transactions()) {
+            if (item.accountId() != null && !item.accountId().equals(accountId)) {
               continue;
             }
-            String externalId = firstNonBlank(
-                text(txNode, "id"),
-                text(txNode, "identifiers.providerTransactionId"),
-                text(txNode, "transactionId"),
-                text(txNode, "internalTransactionId"),
-                text(txNode, "entryReference"));
-            if (externalId == null) {
-              externalId = UUID.nameUUIDFromBytes(txNode.toString().getBytes(StandardCharsets.UTF_8)).toString();
-            }
-            if (transactionRepository.findFirstByAccountIdAndExternalIdOrderByCreatedAtAsc(account.getId(), externalId).isPresent()) {
+            pageItems.add(item);
+            pageExternalIds.add(item.externalId());
+          }
+          ExistingTransactions existingTransactions = ExistingTransactions.loadIds(
+              transactionRepository, account.getId(), pageExternalIds);
+          List<AccountTransaction> pendingInserts = new ArrayList<>();
+
+          for (TinkTransaction item : pageItems) {
+            String externalId = item.externalId();
+            if (existingTransactions.contains(externalId)) {
               continue;
             }
 
-            BigDecimal signedAmount = firstAmount(
-                txNode,
-                "amount.value",
-                "amount",
-                "transactionAmount.amount",
-                "transactionAmount.amount.value",
-                "amount.value.value");
+            BigDecimal signedAmount = item.amount();
             if (signedAmount == null) {
               continue;
             }
             TransactionDirection direction = signedAmount.signum() < 0 ? TransactionDirection.OUT : TransactionDirection.IN;
             BigDecimal absoluteAmount = signedAmount.abs();
-            String txCurrency = firstNonBlank(
-                text(txNode, "currency"),
-                text(txNode, "amount.currency"),
-                text(txNode, "amount.currencyCode"),
-                text(txNode, "transactionAmount.currency"),
-                currency);
-            String description = firstNonBlank(
-                text(txNode, "description"),
-                text(txNode, "text"),
-                text(txNode, "descriptions.display"),
-                text(txNode, "descriptions.original"),
-                text(txNode, "merchant.name"),
-                text(txNode, "counterpart.name"));
+            String txCurrency = firstNonBlank(item.currency(), currency);
+            String description = item.description();
 
             AccountTransaction tx = new AccountTransaction();
             tx.setAccount(account);
@@ -252,17 +244,14 @@ public class TinkProvider implements ConnectionProvider {
             tx.setCurrency(txCurrency);
             tx.setDirection(direction);
             tx.setDescription(description);
-            tx.setBookingDate(parseDate(firstNonBlank(
-                text(txNode, "date"),
-                text(txNode, "bookingDate"),
-                text(txNode, "dates.booked"))));
-            tx.setValueDate(parseDate(text(txNode, "valueDate")));
+            tx.setBookingDate(item.bookingDate());
+            tx.setValueDate(item.valueDate());
             tx.setExternalId(externalId);
-            tx.setProviderTransactionId(text(txNode, "identifiers.providerTransactionId"));
-            tx.setStatus(firstNonBlank(text(txNode, "status"), text(txNode, "bookingStatus")));
-            String txType = firstNonBlank(text(txNode, "types.type"), text(txNode, "type"));
+            tx.setProviderTransactionId(item.providerTransactionId());
+            tx.setStatus(item.status());
+            String txType = item.transactionType();
             tx.setTransactionType(txType);
-            tx.setMerchantName(text(txNode, "merchant.name"));
+            tx.setMerchantName(item.merchantName());
             CategoryService.CategoryResult categoryResult = categoryService.categorizeDetailed(
                 connection.getUser().getId(),
                 description,
@@ -272,16 +261,19 @@ public class TinkProvider implements ConnectionProvider {
                 account.getType(),
                 txCurrency,
                 absoluteAmount == null ? null : absoluteAmount.toPlainString(),
-                null);
+                null,
+                false);
             tx.setCategory(categoryResult.category());
             tx.setCategorySource(categoryResult.source());
             if (categoryResult.confidence() != null) {
               tx.setCategoryConfidence(java.math.BigDecimal.valueOf(categoryResult.confidence()));
             }
             tx.setCategoryReason(categoryResult.reason());
-            transactionRepository.save(tx);
+            existingTransactions.register(tx);
+            pendingInserts.add(tx);
             transactionsImported++;
           }
+          transactionWriter.insertAll(pendingInserts);
         } while (nextTxPage != null && !nextTxPage.isBlank());
       }
     } while (nextAccountPage != null && !nextAccountPage.isBlank());
@@ -329,62 +321,9 @@ public class TinkProvider implements ConnectionProvider {
     return null;
   }
 
-  private static JsonNode extractTransactions(JsonNode root) {
-    if (root == null) {
-      return null;
-    }
-    if (root.isArray()) {
-      return root;
-    }
-    JsonNode transactions = root.path("transactions");
-    if (transactions != null) {
-      if (transactions.isArray()) {
-        return transactions;
-      }
-      JsonNode booked = transactions.path("booked");
-      if (booked.isArray()) {
-        return booked;
-      }
-    }
-    JsonNode data = root.path("data");
-    if (data.isArray()) {
-      return data;
-    }
-    return null;
-  }
-
-  private static String text(JsonNode node, String path) {
-    JsonNode current = node;
-    for (String part : path.split("\\.")) {
-      if (current == null) {
-        return null;
-      }
-      current = current.path(part);
-      if (current.isMissingNode() || current.isNull()) {
-        return null;
-      }
-    }
-    return current.isTextual() ? current.asText() : current.toString();
-  }
-
-  private static BigDecimal firstAmount(JsonNode node, String... paths) {
-    for (String path : paths) {
-      JsonNode current = node;
-      for (String part : path.split("\\.")) {
-        if (current == null) {
-          current = null;
-          break;
-        }
-        current = current.path(part);
-        if (current.isMissingNode() || current.isNull()) {
-          current = null;
-          break;
-        }
-      }
-      if (current == null) {
-        continue;
-      }
-      BigDecimal parsed = parseAmountNode(current);
+  private static BigDecimal firstAmount(JsonNode node, JsonField field) {
+    for (int i = 0; i < field.alternatives(); i++) {
+      BigDecimal parsed = TinkAmounts.parse(field.at(node, i));
       if (parsed != null) {
         return parsed;
       }
@@ -392,74 +331,16 @@ public class TinkProvider implements ConnectionProvider {
     return null;
   }
 
-  private static BigDecimal parseAmountNode(JsonNode node) {
-    if (node == null) {
-      return null;
-    }
-    if (node.isNumber()) {
-      return node.decimalValue();
-    }
-    if (node.isTextual()) {
-      try {
-        return new BigDecimal(node.asText());
-      } catch (NumberFormatException ignored) {
-        return null;
-      }
-    }
-    if (node.isObject()) {
-      JsonNode unscaled = node.get("unscaledValue");
-      JsonNode scale = node.get("scale");
-      BigDecimal unscaledValue = parseAmountNode(unscaled);
-      Integer scaleValue = parseScale(scale);
-      if (unscaledValue != null) {
-        if (scaleValue != null) {
-          return unscaledValue.movePointLeft(Math.abs(scaleValue));
-        }
-        return unscaledValue;
-      }
-      JsonNode value = node.get("value");
-      if (value != null) {
-        BigDecimal parsed = parseAmountNode(value);
-        if (parsed != null && scaleValue != null) {
-          return parsed.movePointLeft(Math.abs(scaleValue));
-        }
-        return parsed;
-      }
-      JsonNode amount = node.get("amount");
-      if (amount != null) {
-        return parseAmountNode(amount);
-      }
-    }
-    return null;
-  }
-
-  private static Integer parseScale(JsonNode scale) {
-    if (scale == null || scale.isNull()) {
-      return null;
-    }
-    if (scale.canConvertToInt()) {
-      return scale.asInt();
-    }
-    if (scale.isTextual()) {
-      try {
-        return Integer.parseInt(scale.asText());
-      } catch (NumberFormatException ignored) {
-        return null;
-      }
-    }
-    return null;
-  }
-
   private static BigDecimal extractBalanceFromArray(JsonNode balancesNode) {
     if (balancesNode == null || !balancesNode.isArray()) {
       return null;
     }
     BigDecimal fallback = null;
     for (JsonNode entry : balancesNode) {
-      String type = firstNonBlank(text(entry, "type"), text(entry, "balanceType"));
-      BigDecimal amount = parseAmountNode(entry.get("amount"));
+      String type = BALANCE_TYPE.text(entry);
+      BigDecimal amount = TinkAmounts.parse(entry.get("amount"));
       if (amount == null) {
-        amount = parseAmountNode(entry.get("balanceAmount"));
+        amount = TinkAmounts.parse(entry.get("balanceAmount"));
       }
       if (amount == null) {
         continue;
@@ -471,15 +352,4 @@ public class TinkProvider implements ConnectionProvider {
     }
     return fallback;
   }
-
-  private static LocalDate parseDate(String value) {
-    if (value == null || value.isBlank()) {
-      return null;
-    }
-    try {
-      return LocalDate.parse(value);
-    } catch (Exception ex) {
-      return null;
-    }
-  }
 }
@@ -0,0 +1,20 @@
+package com.fintrack.provider.tink;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One row of a Tink transactions page, reduced to what the importer uses. Each field is the first
+// non-blank of its alternatives; amount is signed as Tink sent it.
+public record TinkTransaction(
+    String accountId,
+    String externalId,
+    String providerTransactionId,
+    BigDecimal amount,
+    String currency,
+    String description,
+    LocalDate bookingDate,
+    LocalDate valueDate,
+    String status,
+    String transactionType,
+    String merchantName
+) {}
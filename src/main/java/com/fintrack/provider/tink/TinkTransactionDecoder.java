@@ -0,0 +1,224 @@
+package com.fintrack.provider.tink;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintrack.provider.JsonRowFields;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Streams a Tink transactions page from the response bytes straight into TinkTransaction rows.
+// Accepted shapes: a bare array, {"transactions": [...]}, {"transactions": {"booked": [...]}} and
+// {"data": [...]}.
+final class TinkTransactionDecoder {
+  private static final JsonRowFields FIELDS = JsonRowFields.of(
+      "accountId",
+      "account.id",
+      "id",
+      "identifiers.providerTransactionId",
+      "transactionId",
+      "internalTransactionId",
+      "entryReference",
+      "amount",
+      "amount.value",
+      "amount.value.value",
+      "amount.currency",
+      "amount.currencyCode",
+      "transactionAmount.amount",
+      "transactionAmount.amount.value",
+      "transactionAmount.currency",
+      "currency",
+      "description",
+      "text",
+      "descriptions.display",
+      "descriptions.original",
+      "merchant.name",
+      "counterpart.name",
+      "date",
+      "bookingDate",
+      "dates.booked",
+      "valueDate",
+      "status",
+      "bookingStatus",
+      "types.type",
+      "type");
+  private static final int ACCOUNT_ID = FIELDS.slot("accountId");
+  private static final int ACCOUNT_ID_NESTED = FIELDS.slot("account.id");
+  private static final int ID = FIELDS.slot("id");
+  private static final int PROVIDER_TRANSACTION_ID = FIELDS.slot("identifiers.providerTransactionId");
+  private static final int TRANSACTION_ID = FIELDS.slot("transactionId");
+  private static final int INTERNAL_TRANSACTION_ID = FIELDS.slot("internalTransactionId");
+  private static final int ENTRY_REFERENCE = FIELDS.slot("entryReference");
+  private static final int AMOUNT = FIELDS.slot("amount");
+  private static final int AMOUNT_VALUE = FIELDS.slot("amount.value");
+  private static final int AMOUNT_VALUE_VALUE = FIELDS.slot("amount.value.value");
+  private static final int AMOUNT_CURRENCY = FIELDS.slot("amount.currency");
+  private static final int AMOUNT_CURRENCY_CODE = FIELDS.slot("amount.currencyCode");
+  private static final int TRANSACTION_AMOUNT = FIELDS.slot("transactionAmount.amount");
+  private static final int TRANSACTION_AMOUNT_VALUE = FIELDS.slot("transactionAmount.amount.value");
+  private static final int TRANSACTION_CURRENCY = FIELDS.slot("transactionAmount.currency");
+  private static final int CURRENCY = FIELDS.slot("currency");
+  private static final int DESCRIPTION = FIELDS.slot("description");
+  private static final int TEXT = FIELDS.slot("text");
+  private static final int DISPLAY_DESCRIPTION = FIELDS.slot("descriptions.display");
+  private static final int ORIGINAL_DESCRIPTION = FIELDS.slot("descriptions.original");
+  private static final int MERCHANT_NAME = FIELDS.slot("merchant.name");
+  private static final int COUNTERPART_NAME = FIELDS.slot("counterpart.name");
+  private static final int DATE = FIELDS.slot("date");
+  private static final int BOOKING_DATE = FIELDS.slot("bookingDate");
+  private static final int DATES_BOOKED = FIELDS.slot("dates.booked");
+  private static final int VALUE_DATE = FIELDS.slot("valueDate");
+  private static final int STATUS = FIELDS.slot("status");
+  private static final int BOOKING_STATUS = FIELDS.slot("bookingStatus");
+  private static final int TYPES_TYPE = FIELDS.slot("types.type");
+  private static final int TYPE = FIELDS.slot("type");
+
+  private final ObjectMapper objectMapper;
+
+  TinkTransactionDecoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  TinkTransactionPage decode(byte[] body) {
+    if (body == null || body.length == 0) {
+      return new TinkTransactionPage(null, null);
+    }
+    try (JsonParser parser = objectMapper.createParser(body)) {
+      JsonToken root = parser.nextToken();
+      if (root == JsonToken.START_ARRAY) {
+        return new TinkTransactionPage(readRows(parser, body), null);
+      }
+      if (root != JsonToken.START_OBJECT) {
+        return new TinkTransactionPage(null, null);
+      }
+      List<TinkTransaction> transactions = null;
+      List<TinkTransaction> booked = null;
+      List<TinkTransaction> data = null;
+      String nextPageToken = null;
+      String nextPageTokenSnake = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken token = parser.nextToken();
+        if ("transactions".equals(name) && token == JsonToken.START_ARRAY) {
+          transactions = readRows(parser, body);
+        } else if ("transactions".equals(name) && token == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String group = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && "booked".equals(group)) {
+              booked = readRows(parser, body);
+            } else {
+              parser.skipChildren();
+            }
+          }
+        } else if ("data".equals(name) && token == JsonToken.START_ARRAY) {
+          data = readRows(parser, body);
+        } else if ("nextPageToken".equals(name)) {
+          nextPageToken = JsonRowFields.text(parser.readValueAsTree());
+        } else if ("next_page_token".equals(name)) {
+          nextPageTokenSnake = JsonRowFields.text(parser.readValueAsTree());
+        } else {
+          parser.skipChildren();
+        }
+      }
+      List<TinkTransaction> rows = transactions != null ? transactions : (booked != null ? booked : data);
+      return new TinkTransactionPage(rows, firstNonBlank(nextPageToken, nextPageTokenSnake));
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unreadable Tink transactions page", ex);
+    }
+  }
+
+  // Expects the parser on START_ARRAY; rows that are not objects carry nothing to import and are skipped.
+  private List<TinkTransaction> readRows(JsonParser parser, byte[] body) throws IOException {
+    List<TinkTransaction> rows = new ArrayList<>();
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        continue;
+      }
+      int start = (int) parser.currentTokenLocation().getByteOffset();
+      JsonNode[] values = FIELDS.read(parser);
+      int end = (int) parser.currentLocation().getByteOffset();
+      rows.add(toTransaction(values, body, start, end));
+    }
+    return rows;
+  }
+
+  private TinkTransaction toTransaction(JsonNode[] values, byte[] body, int start, int end) throws IOException {
+    String providerTransactionId = text(values, PROVIDER_TRANSACTION_ID);
+    String externalId = firstNonBlank(
+        text(values, ID),
+        providerTransactionId,
+        text(values, TRANSACTION_ID),
+        text(values, INTERNAL_TRANSACTION_ID),
+        text(values, ENTRY_REFERENCE));
+    if (externalId == null) {
+      // Rows without an id are keyed by their content, as read into a tree, so earlier imports still match.
+      String row = objectMapper.readTree(body, start, end - start).toString();
+      externalId = UUID.nameUUIDFromBytes(row.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+    return new TinkTransaction(
+        firstNonBlank(text(values, ACCOUNT_ID), text(values, ACCOUNT_ID_NESTED)),
+        externalId,
+        providerTransactionId,
+        firstAmount(values, AMOUNT_VALUE, AMOUNT, TRANSACTION_AMOUNT, TRANSACTION_AMOUNT_VALUE, AMOUNT_VALUE_VALUE),
+        firstNonBlank(
+            text(values, CURRENCY),
+            text(values, AMOUNT_CURRENCY),
+            text(values, AMOUNT_CURRENCY_CODE),
+            text(values, TRANSACTION_CURRENCY)),
+        firstNonBlank(
+            text(values, DESCRIPTION),
+            text(values, TEXT),
+            text(values, DISPLAY_DESCRIPTION),
+            text(values, ORIGINAL_DESCRIPTION),
+            text(values, MERCHANT_NAME),
+            text(values, COUNTERPART_NAME)),
+        parseDate(firstNonBlank(text(values, DATE), text(values, BOOKING_DATE), text(values, DATES_BOOKED))),
+        parseDate(text(values, VALUE_DATE)),
+        firstNonBlank(text(values, STATUS), text(values, BOOKING_STATUS)),
+        firstNonBlank(text(values, TYPES_TYPE), text(values, TYPE)),
+        text(values, MERCHANT_NAME));
+  }
+
+  private static String text(JsonNode[] values, int slot) {
+    return JsonRowFields.text(values[slot]);
+  }
+
+  private static BigDecimal firstAmount(JsonNode[] values, int... slots) {
+    for (int slot : slots) {
+      BigDecimal parsed = TinkAmounts.parse(values[slot]);
+      if (parsed != null) {
+        return parsed;
+      }
+    }
+    return null;
+  }
+
+  private static LocalDate parseDate(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value);
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+
+  private static String firstNonBlank(String... values) {
+    for (String value : values) {
+      if (value != null && !value.isBlank()) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
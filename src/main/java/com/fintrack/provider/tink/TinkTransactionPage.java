@@ -0,0 +1,6 @@
+package com.fintrack.provider.tink;
+
+import java.util.List;
+
+// transactions is null when the payload has no transaction array at all, which ends pagination.
+public record TinkTransactionPage(List<TinkTransaction> transactions, String nextPageToken) {}
@@ -0,0 +1,103 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.AccountTransaction;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class AccountTransactionBatchWriter {
+  private static final Logger log = LoggerFactory.getLogger(AccountTransactionBatchWriter.class);
+  private static final int BATCH_SIZE = 500;
+  private static final String INSERT_SQL = "insert into account_transactions (" +
+      "id, account_id, amount, currency, direction, description, booking_date, value_date, " +
+      "category, category_source, category_confidence, category_reason, external_id, " +
+      "provider_transaction_id, status, transaction_type, merchant_name, counterparty_iban, created_at) " +
+      "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String UPDATE_CATEGORY_SQL = "update account_transactions set " +
+      "category = ?, category_source = ?, category_confidence = ?, category_reason = ? where id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final MonthlyRollupWriter rollupWriter;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public AccountTransactionBatchWriter(JdbcTemplate jdbcTemplate,
+                                       MonthlyRollupWriter rollupWriter,
+                                       ApplicationEventPublisher eventPublisher) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.rollupWriter = rollupWriter;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Transactional
+  public int insertAll(List<AccountTransaction> transactions) {
+    if (transactions == null || transactions.isEmpty()) {
+      return 0;
+    }
+    long startedAt = System.nanoTime();
+    for (AccountTransaction tx : transactions) {
+      tx.prepareForInsert();
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, transactions, BATCH_SIZE, this::bind);
+    rollupWriter.recordInserts(transactions);
+    eventPublisher.publishEvent(new TransactionsInsertedEvent(List.copyOf(transactions)));
+    long elapsedMs = Math.max(1L, (System.nanoTime() - startedAt) / 1_000_000L);
+    log.debug("Inserted {} transactions in {} ms ({} rows/s)",
+        transactions.size(), elapsedMs, transactions.size() * 1000L / elapsedMs);
+    return transactions.size();
+  }
+
+  @Transactional
+  public int updateCategories(List<AccountTransaction> transactions) {
+    if (transactions == null || transactions.isEmpty()) {
+      return 0;
+    }
+    jdbcTemplate.batchUpdate(UPDATE_CATEGORY_SQL, transactions, BATCH_SIZE, (ps, tx) -> {
+      ps.setString(1, tx.getCategory());
+      ps.setString(2, tx.getCategorySource());
+      ps.setBigDecimal(3, tx.getCategoryConfidence());
+      ps.setString(4, tx.getCategoryReason());
+      ps.setObject(5, tx.getId());
+    });
+    return transactions.size();
+  }
+
+  private void bind(PreparedStatement ps, AccountTransaction tx) throws SQLException {
+    ps.setObject(1, tx.getId());
+    ps.setObject(2, tx.getAccount().getId());
+    ps.setBigDecimal(3, tx.getAmount());
+    ps.setString(4, tx.getCurrency());
+    ps.setString(5, tx.getDirection() == null ? null : tx.getDirection().name());
+    ps.setString(6, tx.getDescription());
+    setDate(ps, 7, tx.getBookingDate());
+    setDate(ps, 8, tx.getValueDate());
+    ps.setString(9, tx.getCategory());
+    ps.setString(10, tx.getCategorySource());
+    ps.setBigDecimal(11, tx.getCategoryConfidence());
+    ps.setString(12, tx.getCategoryReason());
+    ps.setString(13, tx.getExternalId());
+    ps.setString(14, tx.getProviderTransactionId());
+    ps.setString(15, tx.getStatus());
+    ps.setString(16, tx.getTransactionType());
+    ps.setString(17, tx.getMerchantName());
+    ps.setString(18, tx.getCounterpartyIban());
+    ps.setTimestamp(19, Timestamp.from(tx.getCreatedAt()));
+  }
+
+  private static void setDate(PreparedStatement ps, int index, LocalDate value) throws SQLException {
+    if (value == null) {
+      ps.setNull(index, Types.DATE);
+    } else {
+      ps.setObject(index, value);
+    }
+  }
+}
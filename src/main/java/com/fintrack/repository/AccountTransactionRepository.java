@@ -1,65 +1,74 @@
 package com.fintrack.repository;
 
+import com.fintrack.dto.TransactionResponse;
 import com.fintrack.model.AccountTransaction;
 import com.fintrack.model.AccountType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface AccountTransactionRepository extends JpaRepository<AccountTransaction, UUID> {
-  @Query("select t from AccountTransaction t " +
-      "where t.account.user.id = :userId " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
-      "and t.bookingDate >= :from and t.bookingDate <= :to")
-  List<AccountTransaction> findUserTransactionsInRange(
-      @Param("userId") UUID userId,
-      @Param("from") LocalDate from,
-      @Param("to") LocalDate to);
+  String TRANSACTION_RESPONSE = "select new com.fintrack.dto.TransactionResponse(" +
+      "t.id, t.account.id, t.amount, t.currency, t.direction, t.description, t.bookingDate, t.valueDate, " +
+      "t.category, t.categorySource, t.categoryConfidence, t.categoryReason, t.status, t.transactionType, " +
+      "t.merchantName, t.counterpartyIban) from AccountTransaction t ";
 
-  @Query("select t from AccountTransaction t " +
-      "where (t.account.user.id = :userId or t.account.household.id in :householdIds) " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
-      "and t.bookingDate >= :from and t.bookingDate <= :to")
-  List<AccountTransaction> findUserAndHouseholdTransactionsInRange(
-      @Param("userId") UUID userId,
-      @Param("householdIds") List<UUID> householdIds,
+  // Keyset pages ordered by (bookingDate, id) descending; served by idx_account_transactions_account_booking_id.
+  @Query(TRANSACTION_RESPONSE +
+      "where t.account.id in :accountIds and t.bookingDate >= :from and t.bookingDate <= :to " +
+      "order by t.bookingDate desc, t.id desc")
+  List<TransactionResponse> findPageStart(
+      @Param("accountIds") Collection<UUID> accountIds,
       @Param("from") LocalDate from,
-      @Param("to") LocalDate to);
+      @Param("to") LocalDate to,
+      Pageable pageable);
 
-  @Query("select t from AccountTransaction t " +
-      "where t.account.user.id = :userId " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED)")
-  List<AccountTransaction> findUserTransactions(@Param("userId") UUID userId);
+  @Query(TRANSACTION_RESPONSE +
+      "where t.account.id in :accountIds and t.bookingDate >= :from and t.bookingDate <= :to " +
+      "and (t.bookingDate < :cursorDate or (t.bookingDate = :cursorDate and t.id < :cursorId)) " +
+      "order by t.bookingDate desc, t.id desc")
+  List<TransactionResponse> findPageAfter(
+      @Param("accountIds") Collection<UUID> accountIds,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to,
+      @Param("cursorDate") LocalDate cursorDate,
+      @Param("cursorId") UUID cursorId,
+      Pageable pageable);
 
-  @Query("select t from AccountTransaction t " +
-      "where (t.account.user.id = :userId or t.account.household.id in :householdIds) " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED)")
-  List<AccountTransaction> findUserAndHouseholdTransactions(
-      @Param("userId") UUID userId,
-      @Param("householdIds") List<UUID> householdIds);
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(TRANSACTION_RESPONSE +
+      "where t.account.id in :accountIds and t.bookingDate >= :from and t.bookingDate <= :to " +
+      "order by t.bookingDate desc, t.id desc")
+  Stream<TransactionResponse> streamRange(
+      @Param("accountIds") Collection<UUID> accountIds,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
 
-  @Query("select t from AccountTransaction t " +
-      "where t.account.user.id = :userId " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
-      "and lower(coalesce(t.categorySource, '')) = 'ai' " +
-      "order by t.bookingDate desc, t.createdAt desc")
-  List<AccountTransaction> findUserAiTransactions(
-      @Param("userId") UUID userId,
-      Pageable pageable);
+  @Query(TRANSACTION_RESPONSE +
+      "where t.account.id in :accountIds and t.bookingDate >= :from and t.bookingDate <= :to")
+  List<TransactionResponse> findResponsesInRange(
+      @Param("accountIds") Collection<UUID> accountIds,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
 
-  @Query("select t from AccountTransaction t " +
-      "where (t.account.user.id = :userId or t.account.household.id in :householdIds) " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
-      "and lower(coalesce(t.categorySource, '')) = 'ai' " +
+  @Query(TRANSACTION_RESPONSE +
+      "where t.account.id in :accountIds and lower(coalesce(t.categorySource, '')) = 'ai' " +
       "order by t.bookingDate desc, t.createdAt desc")
-  List<AccountTransaction> findUserAndHouseholdAiTransactions(
-      @Param("userId") UUID userId,
-      @Param("householdIds") List<UUID> householdIds,
+  List<TransactionResponse> findAiResponses(
+      @Param("accountIds") Collection<UUID> accountIds,
       Pageable pageable);
 
   @Query("select t from AccountTransaction t " +
@@ -83,32 +92,7 @@ public interface AccountTransactionRepository extends JpaRepository<AccountTrans
       @Param("from") LocalDate from,
       @Param("to") LocalDate to);
 
-  @Query("select coalesce(t.category, 'Overig'), t.currency, sum(t.amount) from AccountTransaction t " +
-      "where (t.account.user.id = :userId or t.account.household.id in :householdIds) " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
-      "and t.account.type = :type and t.direction = com.fintrack.model.TransactionDirection.OUT " +
-      "and (t.category is null or (t.category <> 'Transfer' and t.category <> 'Crypto')) " +
-      "and t.bookingDate >= :from and t.bookingDate <= :to group by coalesce(t.category, 'Overig'), t.currency")
-  List<Object[]> sumByCategoryForUserAndHouseholds(
-      @Param("userId") UUID userId,
-      @Param("householdIds") List<UUID> householdIds,
-      @Param("type") AccountType type,
-      @Param("from") LocalDate from,
-      @Param("to") LocalDate to);
-
-  @Query("select coalesce(t.category, 'Overig'), t.currency, sum(t.amount) from AccountTransaction t " +
-      "where t.account.user.id = :userId " +
-      "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
-      "and t.account.type = :type and t.direction = com.fintrack.model.TransactionDirection.OUT " +
-      "and (t.category is null or (t.category <> 'Transfer' and t.category <> 'Crypto')) " +
-      "and t.bookingDate >= :from and t.bookingDate <= :to group by coalesce(t.category, 'Overig'), t.currency")
-  List<Object[]> sumByCategoryForUser(
-      @Param("userId") UUID userId,
-      @Param("type") AccountType type,
-      @Param("from") LocalDate from,
-      @Param("to") LocalDate to);
-
-  @Query("select t from AccountTransaction t " +
+  @Query("select t from AccountTransaction t join fetch t.account " +
       "where (t.account.user.id in :userIds or t.account.household.id = :householdId) " +
       "and (t.account.connection is null or t.account.connection.status <> com.fintrack.model.ConnectionStatus.DISABLED) " +
       "and t.bookingDate >= :from and t.bookingDate <= :to")
@@ -118,9 +102,46 @@ public interface AccountTransactionRepository extends JpaRepository<AccountTrans
       @Param("from") LocalDate from,
       @Param("to") LocalDate to);
 
-  List<AccountTransaction> findByAccountId(UUID accountId);
+  // Keyset chunks by primary key for batch jobs; accounts stay lazy, callers only need their ids.
+  @Query("select t from AccountTransaction t where t.account.id in :accountIds order by t.id")
+  List<AccountTransaction> findChunkStart(
+      @Param("accountIds") Collection<UUID> accountIds,
+      Pageable pageable);
+
+  @Query("select t from AccountTransaction t where t.account.id in :accountIds and t.id > :afterId order by t.id")
+  List<AccountTransaction> findChunkAfter(
+      @Param("accountIds") Collection<UUID> accountIds,
+      @Param("afterId") UUID afterId,
+      Pageable pageable);
+
+  long countByAccountIdIn(Collection<UUID> accountIds);
+
+  @Query("select t from AccountTransaction t join fetch t.account where t.id = :id")
+  Optional<AccountTransaction> findWithAccountById(@Param("id") UUID id);
+
+  @Query("select coalesce(sum(case when t.direction = com.fintrack.model.TransactionDirection.IN " +
+      "then t.amount else -t.amount end), 0) from AccountTransaction t where t.account.id = :accountId")
+  BigDecimal sumSignedAmountByAccountId(@Param("accountId") UUID accountId);
+
+  List<AccountTransaction> findByAccountIdAndExternalIdIn(UUID accountId, Collection<String> externalIds);
+
+  @Query("select t.externalId from AccountTransaction t " +
+      "where t.account.id = :accountId and t.externalId in :externalIds")
+  List<String> findExistingExternalIds(
+      @Param("accountId") UUID accountId,
+      @Param("externalIds") Collection<String> externalIds);
 
-  Optional<AccountTransaction> findFirstByAccountIdAndExternalIdOrderByCreatedAtAsc(UUID accountId, String externalId);
+  // Only overwrites rows still carrying the rule fallback, so manual edits made meanwhile win.
+  @Modifying
+  @Transactional
+  @Query("update AccountTransaction t set t.category = :category, t.categorySource = 'ai', " +
+      "t.categoryConfidence = :confidence, t.categoryReason = :reason " +
+      "where t.id = :id and lower(t.categorySource) = 'rule' and lower(t.category) = 'overig'")
+  int applyAiCategory(
+      @Param("id") UUID id,
+      @Param("category") String category,
+      @Param("confidence") BigDecimal confidence,
+      @Param("reason") String reason);
 
   void deleteByAccountId(UUID accountId);
 }
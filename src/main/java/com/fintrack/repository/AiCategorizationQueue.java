@@ -0,0 +1,95 @@
+package com.fintrack.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Table-backed work queue of transactions awaiting AI categorization (one row per transaction).
+@Repository
+public class AiCategorizationQueue {
+  private static final int BATCH_SIZE = 500;
+  private static final String ENQUEUE_SQL = "insert into ai_categorization_queue " +
+      "(transaction_id, user_id, attempts, enqueued_at, next_attempt_at) values (?, ?, 0, ?, ?) " +
+      "on conflict (transaction_id) do nothing";
+  // Claiming pushes next_attempt_at out to the lease end, so other nodes skip the rows until then; rows
+  // another node is claiming right now are skipped as well. A node that dies leaves them due again later.
+  private static final String CLAIM_SQL = "with claimed as (" +
+      "update ai_categorization_queue set next_attempt_at = ? " +
+      "where transaction_id in (" +
+      "select transaction_id from ai_categorization_queue where next_attempt_at <= ? " +
+      "order by enqueued_at limit ? for update skip locked) " +
+      "returning transaction_id, user_id, attempts, enqueued_at) " +
+      "select transaction_id, user_id, attempts from claimed order by enqueued_at";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public AiCategorizationQueue(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void enqueue(Collection<Entry> entries) {
+    if (entries == null || entries.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.from(Instant.now());
+    jdbcTemplate.batchUpdate(ENQUEUE_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+      ps.setObject(1, entry.transactionId());
+      ps.setObject(2, entry.userId());
+      ps.setTimestamp(3, now);
+      ps.setTimestamp(4, now);
+    });
+  }
+
+  public List<Entry> claimDue(Instant now, Instant leaseUntil, int limit) {
+    return jdbcTemplate.query(CLAIM_SQL,
+        (rs, rowNum) -> new Entry(
+            rs.getObject("transaction_id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            rs.getInt("attempts")),
+        Timestamp.from(leaseUntil), Timestamp.from(now), limit);
+  }
+
+  // Hands claimed rows back untouched, due again at the given time.
+  public void release(Collection<UUID> transactionIds, Instant dueAt) {
+    if (transactionIds == null || transactionIds.isEmpty()) {
+      return;
+    }
+    Timestamp due = Timestamp.from(dueAt);
+    jdbcTemplate.batchUpdate("update ai_categorization_queue set next_attempt_at = ? where transaction_id = ?",
+        transactionIds, BATCH_SIZE, (ps, id) -> {
+          ps.setTimestamp(1, due);
+          ps.setObject(2, id);
+        });
+  }
+
+  public void remove(Collection<UUID> transactionIds) {
+    if (transactionIds == null || transactionIds.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate("delete from ai_categorization_queue where transaction_id = ?",
+        transactionIds, BATCH_SIZE, (ps, id) -> ps.setObject(1, id));
+  }
+
+  public void reschedule(Collection<UUID> transactionIds, Instant nextAttemptAt) {
+    if (transactionIds == null || transactionIds.isEmpty()) {
+      return;
+    }
+    Timestamp next = Timestamp.from(nextAttemptAt);
+    jdbcTemplate.batchUpdate("update ai_categorization_queue set attempts = attempts + 1, next_attempt_at = ? " +
+            "where transaction_id = ?",
+        transactionIds, BATCH_SIZE, (ps, id) -> {
+          ps.setTimestamp(1, next);
+          ps.setObject(2, id);
+        });
+  }
+
+  public record Entry(UUID transactionId, UUID userId, int attempts) {
+    public Entry(UUID transactionId, UUID userId) {
+      this(transactionId, userId, 0);
+    }
+  }
+}
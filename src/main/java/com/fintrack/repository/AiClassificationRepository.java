@@ -0,0 +1,36 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.AiClassification;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AiClassificationRepository extends JpaRepository<AiClassification, UUID> {
+  Optional<AiClassification> findByUserIdAndFingerprint(UUID userId, String fingerprint);
+
+  @Modifying
+  @Transactional
+  @Query(value = "insert into ai_classifications (id, user_id, fingerprint, category, confidence, model, created_at) " +
+      "values (:id, :userId, :fingerprint, :category, :confidence, :model, :createdAt) " +
+      "on conflict (user_id, fingerprint) do update set category = excluded.category, " +
+      "confidence = excluded.confidence, model = excluded.model, created_at = excluded.created_at",
+      nativeQuery = true)
+  void upsert(@Param("id") UUID id,
+              @Param("userId") UUID userId,
+              @Param("fingerprint") String fingerprint,
+              @Param("category") String category,
+              @Param("confidence") BigDecimal confidence,
+              @Param("model") String model,
+              @Param("createdAt") Instant createdAt);
+
+  @Modifying
+  @Transactional
+  @Query("delete from AiClassification c where c.userId = :userId")
+  void deleteByUserId(@Param("userId") UUID userId);
+}
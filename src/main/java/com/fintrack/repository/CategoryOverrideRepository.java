@@ -12,7 +12,5 @@ public interface CategoryOverrideRepository extends JpaRepository<CategoryOverri
       CategoryOverride.MatchType matchType,
       String matchValue);
 
-  List<CategoryOverride> findByUserIdAndMatchType(UUID userId, CategoryOverride.MatchType matchType);
-
   List<CategoryOverride> findByUserId(UUID userId);
 }
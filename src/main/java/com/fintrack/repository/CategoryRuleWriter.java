@@ -0,0 +1,110 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.CategoryOverride;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Applies one category rule to existing transactions in a single statement: the update, the rollup
+// deltas and the change count all run inside PostgreSQL against the generated *_key columns.
+@Repository
+public class CategoryRuleWriter {
+  private static final String DEFAULT_CATEGORY = "Overig";
+  private static final String SOURCE = "override";
+  private static final String REASON = "Gebruikersregel";
+  private static final String CONFIDENCE = "0.98";
+  private static final String APPLY_SQL_TEMPLATE = "with matched as (" +
+      "select id, category as previous_category from account_transactions " +
+      "where account_id = any(?) and %s " +
+      "and (category is distinct from ? or category_source is distinct from '" + SOURCE + "' " +
+      "or category_reason is distinct from '" + REASON + "' or category_confidence is distinct from " + CONFIDENCE + ") " +
+      "for update), " +
+      "changed as (" +
+      "update account_transactions t set category = ?, category_source = '" + SOURCE + "', " +
+      "category_reason = '" + REASON + "', category_confidence = " + CONFIDENCE + " " +
+      "from matched m where t.id = m.id " +
+      "returning t.account_id, t.booking_date, t.amount, t.currency, t.direction, m.previous_category), " +
+      "deltas as (" +
+      "select account_id, cast(date_trunc('month', booking_date) as date) as period_start, currency, " +
+      "coalesce(previous_category, '" + DEFAULT_CATEGORY + "') as category, direction, " +
+      "-sum(amount) as total, -count(*) as tx_count from changed " +
+      "where booking_date is not null and amount is not null " +
+      "and coalesce(previous_category, '" + DEFAULT_CATEGORY + "') <> ? " +
+      "group by 1, 2, 3, 4, 5 " +
+      "union all " +
+      "select account_id, cast(date_trunc('month', booking_date) as date), currency, cast(? as varchar), direction, " +
+      "sum(amount), count(*) from changed " +
+      "where booking_date is not null and amount is not null " +
+      "and coalesce(previous_category, '" + DEFAULT_CATEGORY + "') <> ? " +
+      "group by 1, 2, 3, 5), " +
+      "rolled as (" +
+      "insert into monthly_rollups " +
+      "(id, account_id, period_start, currency, category, direction, total, tx_count, updated_at) " +
+      "select gen_random_uuid(), account_id, period_start, currency, category, direction, total, tx_count, now() " +
+      "from deltas " +
+      "on conflict (account_id, period_start, currency, category, direction) do update set " +
+      "total = monthly_rollups.total + excluded.total, " +
+      "tx_count = monthly_rollups.tx_count + excluded.tx_count, " +
+      "updated_at = excluded.updated_at) " +
+      "select count(*) filter (where lower(coalesce(previous_category, '')) <> lower(?)) from changed";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public CategoryRuleWriter(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  // Returns how many transactions ended up with a different category (case-insensitive).
+  @Transactional
+  public int apply(Collection<UUID> accountIds, CategoryOverride rule) {
+    if (accountIds == null || accountIds.isEmpty() || rule.getMatchValue() == null || rule.getCategory() == null) {
+      return 0;
+    }
+    String sql = APPLY_SQL_TEMPLATE.formatted(predicate(rule));
+    String matchValue = isContains(rule) ? "%" + rule.getMatchValue() + "%" : rule.getMatchValue();
+    String category = rule.getCategory();
+    Integer updated = jdbcTemplate.query(connection -> {
+      PreparedStatement ps = connection.prepareStatement(sql);
+      ps.setArray(1, uuidArray(connection, accountIds));
+      ps.setString(2, matchValue);
+      ps.setString(3, category);
+      ps.setString(4, category);
+      ps.setString(5, category);
+      ps.setString(6, category);
+      ps.setString(7, category);
+      ps.setString(8, category);
+      return ps;
+    }, rs -> rs.next() ? rs.getInt(1) : 0);
+    jdbcTemplate.update(connection -> {
+      PreparedStatement ps = connection.prepareStatement(
+          "delete from monthly_rollups where account_id = any(?) and tx_count <= 0");
+      ps.setArray(1, uuidArray(connection, accountIds));
+      return ps;
+    });
+    return updated == null ? 0 : updated;
+  }
+
+  // Match values are stored normalized to [a-z0-9], so they never contain LIKE wildcards.
+  private static String predicate(CategoryOverride rule) {
+    return switch (rule.getMatchType()) {
+      case IBAN -> "counterparty_iban_key = ?";
+      case MERCHANT -> isContains(rule) ? "merchant_key like ?" : "merchant_key = ?";
+      case DESCRIPTION -> isContains(rule) ? "description_key like ?" : "description_key = ?";
+    };
+  }
+
+  private static boolean isContains(CategoryOverride rule) {
+    return rule.getMatchType() != CategoryOverride.MatchType.IBAN
+        && rule.getMatchMode() != CategoryOverride.MatchMode.EXACT;
+  }
+
+  private static Array uuidArray(Connection connection, Collection<UUID> ids) throws SQLException {
+    return connection.createArrayOf("uuid", ids.toArray());
+  }
+}
@@ -28,4 +28,18 @@ public interface FinancialAccountRepository extends JpaRepository<FinancialAccou
   List<FinancialAccount> findActiveByUserIdOrHouseholdIdIn(
       @Param("userId") UUID userId,
       @Param("householdIds") List<UUID> householdIds);
+
+  @Query("select a.id from FinancialAccount a " +
+      "left join a.connection c " +
+      "where a.user.id = :userId " +
+      "and (c is null or c.status <> com.fintrack.model.ConnectionStatus.DISABLED)")
+  List<UUID> findActiveIdsByUserId(@Param("userId") UUID userId);
+
+  @Query("select a.id from FinancialAccount a " +
+      "left join a.connection c " +
+      "where (a.user.id = :userId or a.household.id in :householdIds) " +
+      "and (c is null or c.status <> com.fintrack.model.ConnectionStatus.DISABLED)")
+  List<UUID> findActiveIdsByUserIdOrHouseholdIdIn(
+      @Param("userId") UUID userId,
+      @Param("householdIds") List<UUID> householdIds);
 }
@@ -0,0 +1,29 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.MonthlyRollup;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, UUID> {
+  @Query("select r.currency, r.direction, sum(r.total) from MonthlyRollup r " +
+      "where r.accountId in :accountIds and r.periodStart = :periodStart " +
+      "and lower(r.category) <> 'transfer' and lower(r.category) <> 'crypto' " +
+      "group by r.currency, r.direction")
+  List<Object[]> sumCashflowByCurrency(
+      @Param("accountIds") Collection<UUID> accountIds,
+      @Param("periodStart") LocalDate periodStart);
+
+  @Query("select r.category, r.currency, sum(r.total) from MonthlyRollup r " +
+      "where r.accountId in :accountIds and r.periodStart = :periodStart " +
+      "and r.direction = com.fintrack.model.TransactionDirection.OUT " +
+      "and r.category <> 'Transfer' and r.category <> 'Crypto' " +
+      "group by r.category, r.currency")
+  List<Object[]> sumSpendingByCategory(
+      @Param("accountIds") Collection<UUID> accountIds,
+      @Param("periodStart") LocalDate periodStart);
+}
@@ -0,0 +1,158 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.AccountTransaction;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class MonthlyRollupWriter {
+  private static final String DEFAULT_CATEGORY = "Overig";
+  private static final String UPSERT_SQL = "insert into monthly_rollups " +
+      "(id, account_id, period_start, currency, category, direction, total, tx_count, updated_at) " +
+      "values (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+      "on conflict (account_id, period_start, currency, category, direction) do update set " +
+      "total = monthly_rollups.total + excluded.total, " +
+      "tx_count = monthly_rollups.tx_count + excluded.tx_count, " +
+      "updated_at = excluded.updated_at";
+  private static final String REBUILD_SELECT = "select gen_random_uuid(), account_id, " +
+      "cast(date_trunc('month', booking_date) as date), currency, coalesce(category, '" + DEFAULT_CATEGORY + "'), " +
+      "direction, sum(amount), count(*), now() " +
+      "from account_transactions " +
+      "where account_id = ? and booking_date is not null and amount is not null ";
+  private static final String REBUILD_GROUP = "group by account_id, cast(date_trunc('month', booking_date) as date), " +
+      "currency, coalesce(category, '" + DEFAULT_CATEGORY + "'), direction " +
+      "on conflict (account_id, period_start, currency, category, direction) do update set " +
+      "total = excluded.total, tx_count = excluded.tx_count, updated_at = excluded.updated_at";
+  private static final String REBUILD_INSERT = "insert into monthly_rollups " +
+      "(id, account_id, period_start, currency, category, direction, total, tx_count, updated_at) ";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public MonthlyRollupWriter(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Transactional
+  public void recordInserts(Collection<AccountTransaction> transactions) {
+    if (transactions == null || transactions.isEmpty()) {
+      return;
+    }
+    Map<Key, Delta> deltas = new LinkedHashMap<>();
+    for (AccountTransaction tx : transactions) {
+      accumulate(deltas, tx, tx.getCategory(), 1);
+    }
+    apply(deltas);
+  }
+
+  @Transactional
+  public void recordCategoryChanges(Collection<CategoryChange> changes) {
+    if (changes == null || changes.isEmpty()) {
+      return;
+    }
+    Map<Key, Delta> deltas = new LinkedHashMap<>();
+    for (CategoryChange change : changes) {
+      AccountTransaction tx = change.transaction();
+      if (categoryKey(change.previousCategory()).equals(categoryKey(tx.getCategory()))) {
+        continue;
+      }
+      accumulate(deltas, tx, change.previousCategory(), -1);
+      accumulate(deltas, tx, tx.getCategory(), 1);
+    }
+    apply(deltas);
+  }
+
+  // Recomputes the given months of one account from account_transactions, e.g. after provider corrections.
+  @Transactional
+  public void refreshMonths(UUID accountId, Collection<LocalDate> dates) {
+    if (accountId == null || dates == null) {
+      return;
+    }
+    Set<LocalDate> months = new LinkedHashSet<>();
+    for (LocalDate date : dates) {
+      if (date != null) {
+        months.add(date.withDayOfMonth(1));
+      }
+    }
+    for (LocalDate month : months) {
+      LocalDate end = month.plusMonths(1).minusDays(1);
+      jdbcTemplate.update("delete from monthly_rollups where account_id = ? and period_start = ?",
+          accountId, Date.valueOf(month));
+      jdbcTemplate.update(REBUILD_INSERT + REBUILD_SELECT + "and booking_date >= ? and booking_date <= ? " + REBUILD_GROUP,
+          accountId, Date.valueOf(month), Date.valueOf(end));
+    }
+  }
+
+  @Transactional
+  public void deleteByAccountId(UUID accountId) {
+    jdbcTemplate.update("delete from monthly_rollups where account_id = ?", accountId);
+  }
+
+  private void apply(Map<Key, Delta> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.from(Instant.now());
+    List<Object[]> rows = new ArrayList<>(deltas.size());
+    Set<UUID> accountIds = new LinkedHashSet<>();
+    deltas.forEach((key, delta) -> {
+      if (delta.count == 0 && delta.total.signum() == 0) {
+        return;
+      }
+      accountIds.add(key.accountId());
+      rows.add(new Object[] {
+          UUID.randomUUID(), key.accountId(), Date.valueOf(key.periodStart()), key.currency(), key.category(),
+          key.direction(), delta.total, delta.count, now});
+    });
+    if (rows.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    for (UUID accountId : accountIds) {
+      jdbcTemplate.update("delete from monthly_rollups where account_id = ? and tx_count <= 0", accountId);
+    }
+  }
+
+  private static void accumulate(Map<Key, Delta> deltas, AccountTransaction tx, String category, int sign) {
+    if (tx == null || tx.getAccount() == null || tx.getAccount().getId() == null
+        || tx.getBookingDate() == null || tx.getAmount() == null
+        || tx.getCurrency() == null || tx.getDirection() == null) {
+      return;
+    }
+    Key key = new Key(
+        tx.getAccount().getId(),
+        tx.getBookingDate().withDayOfMonth(1),
+        tx.getCurrency(),
+        categoryKey(category),
+        tx.getDirection().name());
+    Delta delta = deltas.computeIfAbsent(key, ignored -> new Delta());
+    delta.total = sign > 0 ? delta.total.add(tx.getAmount()) : delta.total.subtract(tx.getAmount());
+    delta.count += sign;
+  }
+
+  private static String categoryKey(String category) {
+    return category == null ? DEFAULT_CATEGORY : category;
+  }
+
+  public record CategoryChange(AccountTransaction transaction, String previousCategory) {}
+
+  private record Key(UUID accountId, LocalDate periodStart, String currency, String category, String direction) {}
+
+  private static final class Delta {
+    private BigDecimal total = BigDecimal.ZERO;
+    private long count;
+  }
+}
@@ -0,0 +1,106 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.SyncPriority;
+import com.fintrack.provider.SyncMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Table-backed queue of connection syncs. A connection has at most one row; asking again while it waits
+// only raises its priority and upgrades INCREMENTAL to FULL. Started jobs are leased to the node running
+// them, so several application nodes can drain the same table.
+@Repository
+public class SyncJobQueue {
+  private static final int BATCH_SIZE = 500;
+  private static final String ENQUEUE_SQL = "insert into sync_jobs " +
+      "(connection_id, provider_id, sync_mode, priority, enqueued_at) values (?, ?, ?, ?, ?) " +
+      "on conflict (connection_id) do update set " +
+      "priority = greatest(sync_jobs.priority, excluded.priority), " +
+      "sync_mode = case when excluded.sync_mode = 'FULL' then 'FULL' else sync_jobs.sync_mode end " +
+      "where sync_jobs.started_at is null";
+  // Claims on every node are serialized by this transaction-scoped advisory lock, so the live lease
+  // count the claim checks cannot change between the check and the update.
+  private static final long CLAIM_LOCK_KEY = 0x73796e636a6f6273L;
+  // Waiting jobs and jobs whose lease ran out are claimable, unless their provider already holds as many
+  // live leases as its cap allows. Caps come as parallel arrays; unlisted providers get the default.
+  private static final String CLAIM_SQL = "update sync_jobs set started_at = ?, lease_owner = ?, lease_expires_at = ? " +
+      "where connection_id = (" +
+      "select j.connection_id from sync_jobs j " +
+      "where (j.started_at is null or j.lease_expires_at < ?) " +
+      "and (select count(*) from sync_jobs l where l.provider_id = j.provider_id " +
+      "and l.started_at is not null and l.lease_expires_at >= ?) < coalesce(" +
+      "(select c.cap from unnest(?, ?) as c(provider_id, cap) where c.provider_id = j.provider_id), ?) " +
+      "order by j.priority desc, j.enqueued_at limit 1 for update skip locked) " +
+      "returning connection_id, provider_id, sync_mode";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public SyncJobQueue(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public void enqueue(UUID connectionId, String providerId, SyncMode mode, SyncPriority priority) {
+    jdbcTemplate.update(ENQUEUE_SQL,
+        connectionId, providerId, mode.name(), priority.weight(), Timestamp.from(Instant.now()));
+    eventPublisher.publishEvent(new SyncJobQueuedEvent(connectionId));
+  }
+
+  // The lock is taken in its own statement so the claim's snapshot includes claims committed while waiting.
+  @Transactional
+  public Optional<Job> claimNext(String owner,
+                                 Instant now,
+                                 Instant leaseUntil,
+                                 Map<String, Integer> providerCaps,
+                                 int defaultCap) {
+    jdbcTemplate.query("select pg_advisory_xact_lock(?)", rs -> { }, CLAIM_LOCK_KEY);
+    List<String> providerIds = List.copyOf(providerCaps.keySet());
+    Integer[] caps = providerIds.stream().map(providerCaps::get).toArray(Integer[]::new);
+    List<Job> claimed = jdbcTemplate.query(connection -> {
+      PreparedStatement ps = connection.prepareStatement(CLAIM_SQL);
+      ps.setTimestamp(1, Timestamp.from(now));
+      ps.setString(2, owner);
+      ps.setTimestamp(3, Timestamp.from(leaseUntil));
+      ps.setTimestamp(4, Timestamp.from(now));
+      ps.setTimestamp(5, Timestamp.from(now));
+      ps.setArray(6, connection.createArrayOf("varchar", providerIds.toArray()));
+      ps.setArray(7, connection.createArrayOf("int4", caps));
+      ps.setInt(8, defaultCap);
+      return ps;
+    }, (rs, rowNum) -> new Job(
+        rs.getObject("connection_id", UUID.class),
+        rs.getString("provider_id"),
+        SyncMode.valueOf(rs.getString("sync_mode"))));
+    return claimed.stream().findFirst();
+  }
+
+  public void renewLeases(String owner, Collection<UUID> connectionIds, Instant leaseUntil) {
+    if (connectionIds == null || connectionIds.isEmpty()) {
+      return;
+    }
+    Timestamp until = Timestamp.from(leaseUntil);
+    jdbcTemplate.batchUpdate("update sync_jobs set lease_expires_at = ? where connection_id = ? and lease_owner = ?",
+        connectionIds, BATCH_SIZE, (ps, id) -> {
+          ps.setTimestamp(1, until);
+          ps.setObject(2, id);
+          ps.setString(3, owner);
+        });
+  }
+
+  // Only the lease holder completes a job; a job reclaimed after an expired lease belongs to its new owner.
+  public void complete(UUID connectionId, String owner) {
+    jdbcTemplate.update("delete from sync_jobs where connection_id = ? and lease_owner = ?", connectionId, owner);
+  }
+
+  public record Job(UUID connectionId, String providerId, SyncMode mode) {}
+}
@@ -0,0 +1,5 @@
+package com.fintrack.repository;
+
+import java.util.UUID;
+
+public record SyncJobQueuedEvent(UUID connectionId) {}
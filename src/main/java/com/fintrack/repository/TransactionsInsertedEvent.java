@@ -0,0 +1,6 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.AccountTransaction;
+import java.util.List;
+
+public record TransactionsInsertedEvent(List<AccountTransaction> transactions) {}
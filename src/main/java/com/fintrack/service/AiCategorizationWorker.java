@@ -0,0 +1,165 @@
+package com.fintrack.service;
+
+import com.fintrack.model.AccountTransaction;
+import com.fintrack.model.FinancialAccount;
+import com.fintrack.repository.AccountTransactionRepository;
+import com.fintrack.repository.AiCategorizationQueue;
+import com.fintrack.repository.MonthlyRollupWriter;
+import com.fintrack.repository.TransactionsInsertedEvent;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Imports only apply rule categories; rows the rules leave as "Overig" are queued here and
+// categorized by the AI in the background, so a sync never waits on the AI rate limit.
+@Component
+public class AiCategorizationWorker {
+  private static final Logger log = LoggerFactory.getLogger(AiCategorizationWorker.class);
+  private static final int MAX_ITEMS_PER_RUN = CategoryService.AI_BATCH_SIZE * 4;
+  private static final int MAX_ATTEMPTS = 5;
+  private static final Duration RETRY_BACKOFF = Duration.ofMinutes(15);
+  private static final Duration MAX_RETRY_BACKOFF = Duration.ofHours(24);
+  // Claimed rows stay hidden from other nodes this long; a run finishes well within it.
+  private static final Duration CLAIM_LEASE = Duration.ofMinutes(10);
+
+  private final AiCategorizationQueue queue;
+  private final AccountTransactionRepository transactionRepository;
+  private final CategoryService categoryService;
+  private final AppSettingsService appSettingsService;
+  private final MonthlyRollupWriter rollupWriter;
+  private final OpenAiClient openAiClient;
+
+  public AiCategorizationWorker(AiCategorizationQueue queue,
+                                AccountTransactionRepository transactionRepository,
+                                CategoryService categoryService,
+                                AppSettingsService appSettingsService,
+                                MonthlyRollupWriter rollupWriter,
+                                OpenAiClient openAiClient) {
+    this.queue = queue;
+    this.transactionRepository = transactionRepository;
+    this.categoryService = categoryService;
+    this.appSettingsService = appSettingsService;
+    this.rollupWriter = rollupWriter;
+    this.openAiClient = openAiClient;
+  }
+
+  // Runs inside the inserting transaction, so queued work commits or rolls back with the rows.
+  @EventListener
+  public void onTransactionsInserted(TransactionsInsertedEvent event) {
+    List<AiCategorizationQueue.Entry> entries = new ArrayList<>();
+    for (AccountTransaction tx : event.transactions()) {
+      FinancialAccount account = tx.getAccount();
+      if (account == null || account.getUser() == null) {
+        continue;
+      }
+      if (categoryService.needsAi(tx.getCategory(), tx.getCategorySource())) {
+        entries.add(new AiCategorizationQueue.Entry(tx.getId(), account.getUser().getId()));
+      }
+    }
+    queue.enqueue(entries);
+  }
+
+  @Scheduled(fixedDelayString = "${fintrack.ai.queue-poll-ms:30000}")
+  public void drain() {
+    if (!appSettingsService.isAiAvailable() || !openAiClient.hasBudget()) {
+      return;
+    }
+    Instant now = Instant.now();
+    List<AiCategorizationQueue.Entry> due = queue.claimDue(now, now.plus(CLAIM_LEASE), MAX_ITEMS_PER_RUN);
+    if (due.isEmpty()) {
+      return;
+    }
+    Map<UUID, AccountTransaction> transactions = transactionRepository
+        .findAllById(due.stream().map(AiCategorizationQueue.Entry::transactionId).toList())
+        .stream()
+        .collect(Collectors.toMap(AccountTransaction::getId, Function.identity()));
+
+    List<UUID> done = new ArrayList<>();
+    Map<UUID, List<AiCategorizationQueue.Entry>> byUser = new LinkedHashMap<>();
+    for (AiCategorizationQueue.Entry entry : due) {
+      AccountTransaction tx = transactions.get(entry.transactionId());
+      if (tx == null || !categoryService.needsAi(tx.getCategory(), tx.getCategorySource())) {
+        // Deleted or recategorized since it was queued.
+        done.add(entry.transactionId());
+        continue;
+      }
+      byUser.computeIfAbsent(entry.userId(), id -> new ArrayList<>()).add(entry);
+    }
+
+    List<MonthlyRollupWriter.CategoryChange> changes = new ArrayList<>();
+    List<AiCategorizationQueue.Entry> failed = new ArrayList<>();
+    for (Map.Entry<UUID, List<AiCategorizationQueue.Entry>> group : byUser.entrySet()) {
+      List<AiCategorizationQueue.Entry> entries = group.getValue();
+      List<CategoryService.AiRequest> requests = entries.stream()
+          .map(entry -> CategoryService.AiRequest.from(transactions.get(entry.transactionId())))
+          .toList();
+      List<CategoryService.CategoryResult> results = categoryService.classifyWithAi(group.getKey(), requests);
+      boolean paused = !appSettingsService.isAiAvailable() || !openAiClient.hasBudget();
+      for (int i = 0; i < entries.size(); i++) {
+        AiCategorizationQueue.Entry entry = entries.get(i);
+        CategoryService.CategoryResult result = i < results.size() ? results.get(i) : null;
+        if (result == null) {
+          // A cooldown or spent rate budget is not the item's fault; leave it queued as is.
+          if (!paused) {
+            failed.add(entry);
+          }
+          continue;
+        }
+        AccountTransaction tx = transactions.get(entry.transactionId());
+        BigDecimal confidence = result.confidence() == null ? null : BigDecimal.valueOf(result.confidence());
+        if (transactionRepository.applyAiCategory(tx.getId(), result.category(), confidence, result.reason()) > 0) {
+          String previousCategory = tx.getCategory();
+          tx.setCategory(result.category());
+          changes.add(new MonthlyRollupWriter.CategoryChange(tx, previousCategory));
+        }
+        done.add(entry.transactionId());
+      }
+      if (paused) {
+        break;
+      }
+    }
+
+    rollupWriter.recordCategoryChanges(changes);
+    queue.remove(done);
+    retryOrDrop(failed, now);
+    // Rows left over by a pause are handed back as they were, due again right away.
+    Set<UUID> settled = new HashSet<>(done);
+    failed.forEach(entry -> settled.add(entry.transactionId()));
+    queue.release(due.stream()
+        .map(AiCategorizationQueue.Entry::transactionId)
+        .filter(id -> !settled.contains(id))
+        .toList(), now);
+    log.debug("AI categorization queue: {} categorized, {} completed, {} retried", changes.size(), done.size(), failed.size());
+  }
+
+  private void retryOrDrop(List<AiCategorizationQueue.Entry> failed, Instant now) {
+    List<UUID> dropped = new ArrayList<>();
+    Map<Integer, List<UUID>> retryByAttempts = new LinkedHashMap<>();
+    for (AiCategorizationQueue.Entry entry : failed) {
+      if (entry.attempts() + 1 >= MAX_ATTEMPTS) {
+        dropped.add(entry.transactionId());
+      } else {
+        retryByAttempts.computeIfAbsent(entry.attempts(), attempts -> new ArrayList<>()).add(entry.transactionId());
+      }
+    }
+    queue.remove(dropped);
+    retryByAttempts.forEach((attempts, ids) -> {
+      Duration backoff = RETRY_BACKOFF.multipliedBy(1L << attempts);
+      queue.reschedule(ids, now.plus(backoff.compareTo(MAX_RETRY_BACKOFF) > 0 ? MAX_RETRY_BACKOFF : backoff));
+    });
+  }
+}
@@ -0,0 +1,167 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.AiCacheStatsResponse;
+import com.fintrack.model.AiClassification;
+import com.fintrack.repository.AiClassificationRepository;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Remembers AI categories per user by transaction fingerprint: an LRU in front of ai_classifications.
+// Entries are dropped when the user's category list changes, since answers depend on that list.
+@Component
+public class AiClassificationCache {
+  private static final Logger log = LoggerFactory.getLogger(AiClassificationCache.class);
+  private static final int MAX_MEMORY_ENTRIES = 10_000;
+  private static final String REASON = "AI classificatie op basis van omschrijving";
+
+  private final AiClassificationRepository repository;
+  private final Map<Key, CategoryService.CategoryResult> memory =
+      new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CategoryService.CategoryResult> eldest) {
+          return size() > MAX_MEMORY_ENTRIES;
+        }
+      };
+  private final AtomicLong memoryHits = new AtomicLong();
+  private final AtomicLong databaseHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public AiClassificationCache(AiClassificationRepository repository) {
+    this.repository = repository;
+  }
+
+  public Optional<CategoryService.CategoryResult> lookup(UUID userId, CategoryService.AiRequest request) {
+    String fingerprint = fingerprint(request);
+    if (userId == null || fingerprint == null) {
+      return Optional.empty();
+    }
+    Key key = new Key(userId, fingerprint);
+    CategoryService.CategoryResult cached;
+    synchronized (memory) {
+      cached = memory.get(key);
+    }
+    if (cached != null) {
+      memoryHits.incrementAndGet();
+      return Optional.of(cached);
+    }
+    Optional<CategoryService.CategoryResult> stored = repository.findByUserIdAndFingerprint(userId, key.fingerprint())
+        .map(this::toResult);
+    if (stored.isPresent()) {
+      databaseHits.incrementAndGet();
+      remember(key, stored.get());
+    } else {
+      misses.incrementAndGet();
+    }
+    return stored;
+  }
+
+  public void store(UUID userId, CategoryService.AiRequest request, CategoryService.CategoryResult result, String model) {
+    String fingerprint = fingerprint(request);
+    if (userId == null || fingerprint == null || result == null || result.category() == null) {
+      return;
+    }
+    Key key = new Key(userId, fingerprint);
+    remember(key, result);
+    try {
+      repository.upsert(
+          UUID.randomUUID(),
+          userId,
+          key.fingerprint(),
+          result.category(),
+          result.confidence() == null ? null : BigDecimal.valueOf(result.confidence()),
+          model,
+          Instant.now());
+    } catch (Exception ex) {
+      log.warn("Failed to persist AI classification: {}", ex.getMessage());
+    }
+  }
+
+  public void invalidate(UUID userId) {
+    if (userId == null) {
+      return;
+    }
+    synchronized (memory) {
+      memory.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+    repository.deleteByUserId(userId);
+  }
+
+  public AiCacheStatsResponse stats() {
+    int entries;
+    synchronized (memory) {
+      entries = memory.size();
+    }
+    return new AiCacheStatsResponse(memoryHits.get(), databaseHits.get(), misses.get(), entries);
+  }
+
+  private void remember(Key key, CategoryService.CategoryResult result) {
+    synchronized (memory) {
+      memory.put(key, result);
+    }
+  }
+
+  private CategoryService.CategoryResult toResult(AiClassification stored) {
+    Double confidence = stored.getConfidence() == null ? null : stored.getConfidence().doubleValue();
+    return new CategoryService.CategoryResult(stored.getCategory(), "ai", confidence, REASON);
+  }
+
+  // Digits are dropped so dates, card numbers and references in otherwise identical descriptions share an entry.
+  // Null when merchant and description carry no letters: such rows have nothing in common to share an answer on.
+  static String fingerprint(CategoryService.AiRequest request) {
+    String merchant = normalize(request.merchant());
+    String description = normalize(request.description());
+    if (merchant.isEmpty() && description.isEmpty()) {
+      return null;
+    }
+    String material = merchant + "\n"
+        + description + "\n"
+        + normalizeIban(request.counterpartyIban()) + "\n"
+        + (request.direction() == null ? "" : request.direction().name());
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+    } catch (Exception ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
+  private static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    StringBuilder builder = new StringBuilder(value.length());
+    for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+      if (Character.isLetter(c)) {
+        builder.append(c);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String normalizeIban(String iban) {
+    if (iban == null) {
+      return "";
+    }
+    StringBuilder builder = new StringBuilder(iban.length());
+    for (char c : iban.toUpperCase(Locale.ROOT).toCharArray()) {
+      if (!Character.isWhitespace(c)) {
+        builder.append(c);
+      }
+    }
+    return builder.toString();
+  }
+
+  private record Key(UUID userId, String fingerprint) {}
+}
@@ -0,0 +1,130 @@
+package com.fintrack.service;
+
+import com.fintrack.config.GeminiProperties;
+import com.fintrack.dto.AiRateLimitStatus;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+// Non-blocking per-model budgets: RPM and TPM as continuously refilling token buckets, RPD as a
+// counter per Pacific-time day (when Gemini quotas reset). Callers get false instead of waiting.
+@Component
+public class AiRateLimiter {
+  private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+  private static final double NANOS_PER_MINUTE = 60_000_000_000d;
+
+  private final GeminiProperties properties;
+  private final ConcurrentHashMap<String, ModelBudget> budgets = new ConcurrentHashMap<>();
+
+  public AiRateLimiter(GeminiProperties properties) {
+    this.properties = properties;
+  }
+
+  public boolean tryAcquire(String model, int estimatedTokens) {
+    return budget(model).tryAcquire(Math.max(0, estimatedTokens), System.nanoTime(), LocalDate.now(QUOTA_ZONE));
+  }
+
+  public boolean hasBudget(String model) {
+    return budget(model).hasBudget(System.nanoTime(), LocalDate.now(QUOTA_ZONE));
+  }
+
+  public List<AiRateLimitStatus> snapshot() {
+    List<AiRateLimitStatus> statuses = new ArrayList<>();
+    long now = System.nanoTime();
+    LocalDate today = LocalDate.now(QUOTA_ZONE);
+    budgets.forEach((model, budget) -> statuses.add(budget.status(model, now, today)));
+    return statuses;
+  }
+
+  private ModelBudget budget(String model) {
+    return budgets.computeIfAbsent(model == null ? "" : model, key -> new ModelBudget(limitsFor(key)));
+  }
+
+  private GeminiProperties.ModelLimits limitsFor(String model) {
+    Map<String, GeminiProperties.ModelLimits> limits = properties.limits();
+    if (limits != null && limits.containsKey(model)) {
+      return limits.get(model);
+    }
+    return properties.defaultLimits() == null
+        ? new GeminiProperties.ModelLimits(null, null, null)
+        : properties.defaultLimits();
+  }
+
+  private static int limit(Integer value) {
+    return value == null || value <= 0 ? 0 : value;
+  }
+
+  private static final class ModelBudget {
+    private final int rpm;
+    private final int tpm;
+    private final int rpd;
+    private double requestTokens;
+    private double tokenTokens;
+    private long refilledAt;
+    private LocalDate day;
+    private int requestsToday;
+    private long rejected;
+
+    ModelBudget(GeminiProperties.ModelLimits limits) {
+      this.rpm = limit(limits.rpm());
+      this.tpm = limit(limits.tpm());
+      this.rpd = limit(limits.rpd());
+      this.requestTokens = rpm;
+      this.tokenTokens = tpm;
+      this.refilledAt = System.nanoTime();
+    }
+
+    synchronized boolean tryAcquire(int tokens, long now, LocalDate today) {
+      refill(now, today);
+      // A request larger than the whole TPM budget can still go through once the bucket is full.
+      boolean allowed = (rpm == 0 || requestTokens >= 1)
+          && (tpm == 0 || tokenTokens >= Math.min(tokens, tpm))
+          && (rpd == 0 || requestsToday < rpd);
+      if (!allowed) {
+        rejected++;
+        return false;
+      }
+      if (rpm > 0) {
+        requestTokens -= 1;
+      }
+      if (tpm > 0) {
+        tokenTokens -= Math.min(tokens, tpm);
+      }
+      requestsToday++;
+      return true;
+    }
+
+    synchronized boolean hasBudget(long now, LocalDate today) {
+      refill(now, today);
+      return (rpm == 0 || requestTokens >= 1) && (rpd == 0 || requestsToday < rpd);
+    }
+
+    synchronized AiRateLimitStatus status(String model, long now, LocalDate today) {
+      refill(now, today);
+      return new AiRateLimitStatus(
+          model,
+          rpm,
+          rpm == 0 ? 0 : (int) requestTokens,
+          tpm,
+          tpm == 0 ? 0 : (long) tokenTokens,
+          rpd,
+          requestsToday,
+          rejected);
+    }
+
+    private void refill(long now, LocalDate today) {
+      double minutes = (now - refilledAt) / NANOS_PER_MINUTE;
+      refilledAt = now;
+      requestTokens = Math.min(rpm, requestTokens + minutes * rpm);
+      tokenTokens = Math.min(tpm, tokenTokens + minutes * tpm);
+      if (!today.equals(day)) {
+        day = today;
+        requestsToday = 0;
+      }
+    }
+  }
+}
@@ -20,11 +20,13 @@ public class AppSettingsService {
   private static final long MIN_CRYPTO_SYNC_INTERVAL_MS = 60 * 1000L;
   private static final long MAX_CRYPTO_SYNC_INTERVAL_MS = 24 * 60 * 60 * 1000L;
   private static final int MAX_AI_ERROR_LENGTH = 255;
+  private static final Duration SNAPSHOT_TTL = Duration.ofSeconds(30);
 
   private final AppSettingsRepository repository;
   private final SyncProperties syncProperties;
   private final OpenAiProperties openAiProperties;
   private final GeminiProperties geminiProperties;
+  private volatile Snapshot cached;
 
   public AppSettingsService(AppSettingsRepository repository,
                             SyncProperties syncProperties,
@@ -67,48 +69,32 @@ public class AppSettingsService {
       String model = request.getAiModel().trim();
       settings.setAiModel(model.isBlank() ? null : model);
     }
-    repository.save(settings);
+    refresh(repository.save(settings));
     return toResponse(settings);
   }
 
   public boolean isSyncEnabled() {
-    AppSettings settings = getOrCreate();
-    Boolean enabled = settings.getSyncEnabled();
-    return enabled != null ? enabled : syncProperties.enabled();
+    return snapshot().syncEnabled();
   }
 
   public long getSyncIntervalMs() {
-    AppSettings settings = getOrCreate();
-    Long interval = settings.getSyncIntervalMs();
-    return interval != null ? interval : syncProperties.intervalMs();
+    return snapshot().syncIntervalMs();
   }
 
   public long getCryptoSyncIntervalMs() {
-    long baseInterval = getSyncIntervalMs();
-    AppSettings settings = getOrCreate();
-    Long override = settings.getCryptoSyncIntervalMs();
-    if (override != null && override > 0) {
-      return override;
-    }
-    long cryptoDefault = syncProperties.cryptoIntervalMs();
-    if (cryptoDefault <= 0) {
-      return baseInterval;
-    }
-    return Math.min(baseInterval, cryptoDefault);
+    return snapshot().cryptoSyncIntervalMs();
   }
 
   public boolean isAiEnabled() {
-    AppSettings settings = getOrCreate();
-    Boolean enabled = settings.getAiEnabled();
-    return enabled != null ? enabled : defaultAiEnabled();
+    return snapshot().aiEnabled();
   }
 
   public boolean isAiAvailable() {
-    if (!isAiEnabled()) {
+    Snapshot snapshot = snapshot();
+    if (!snapshot.aiEnabled()) {
       return false;
     }
-    AppSettings settings = getOrCreate();
-    Instant disabledUntil = settings.getAiDisabledUntil();
+    Instant disabledUntil = snapshot.aiDisabledUntil();
     return disabledUntil == null || disabledUntil.isBefore(Instant.now());
   }
 
@@ -127,12 +113,45 @@ public class AppSettingsService {
       settings.setAiLastError(normalizeAiError(message));
       settings.setAiLastErrorAt(now);
     }
-    repository.save(settings);
+    refresh(repository.save(settings));
   }
 
   public String getAiModel() {
-    AppSettings settings = getOrCreate();
-    return normalizeAiModel(settings.getAiModel());
+    return snapshot().aiModel();
+  }
+
+  // Settings are read on every categorization and scheduler tick, so they are served from an
+  // immutable in-memory snapshot. Local writes replace it immediately; the TTL picks up other nodes' writes.
+  private Snapshot snapshot() {
+    Snapshot current = cached;
+    if (current != null && current.expiresAt().isAfter(Instant.now())) {
+      return current;
+    }
+    return refresh(getOrCreate());
+  }
+
+  private Snapshot refresh(AppSettings settings) {
+    Long cryptoOverride = settings.getCryptoSyncIntervalMs();
+    long syncIntervalMs = settings.getSyncIntervalMs() != null
+        ? settings.getSyncIntervalMs()
+        : syncProperties.intervalMs();
+    long cryptoSyncIntervalMs;
+    if (cryptoOverride != null && cryptoOverride > 0) {
+      cryptoSyncIntervalMs = cryptoOverride;
+    } else {
+      long cryptoDefault = syncProperties.cryptoIntervalMs();
+      cryptoSyncIntervalMs = cryptoDefault <= 0 ? syncIntervalMs : Math.min(syncIntervalMs, cryptoDefault);
+    }
+    Snapshot snapshot = new Snapshot(
+        settings.getSyncEnabled() != null ? settings.getSyncEnabled() : syncProperties.enabled(),
+        syncIntervalMs,
+        cryptoSyncIntervalMs,
+        settings.getAiEnabled() != null ? settings.getAiEnabled() : defaultAiEnabled(),
+        normalizeAiModel(settings.getAiModel()),
+        settings.getAiDisabledUntil(),
+        Instant.now().plus(SNAPSHOT_TTL));
+    cached = snapshot;
+    return snapshot;
   }
 
   private AppSettings getOrCreate() {
@@ -208,4 +227,12 @@ public class AppSettingsService {
     }
     return compact.substring(0, MAX_AI_ERROR_LENGTH - 3) + "...";
   }
+
+  private record Snapshot(boolean syncEnabled,
+                          long syncIntervalMs,
+                          long cryptoSyncIntervalMs,
+                          boolean aiEnabled,
+                          String aiModel,
+                          Instant aiDisabledUntil,
+                          Instant expiresAt) {}
 }
@@ -0,0 +1,131 @@
+package com.fintrack.service;
+
+import com.fintrack.model.CategoryOverride;
+import com.fintrack.repository.CategoryOverrideRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+// Per-user in-memory view of category overrides, so categorizing an import does not reload the rules per row.
+// Keys passed in must already be normalized the same way the rules' match values are.
+@Component
+public class CategoryOverrideIndex {
+  private static final Duration INDEX_CACHE_TTL = Duration.ofMinutes(5);
+
+  private final CategoryOverrideRepository overrideRepository;
+  private final ConcurrentHashMap<UUID, CachedIndex> indexCache = new ConcurrentHashMap<>();
+  // Bumped on every invalidation; an index loaded under an older version is not cached.
+  private final AtomicLong version = new AtomicLong();
+
+  public CategoryOverrideIndex(CategoryOverrideRepository overrideRepository) {
+    this.overrideRepository = overrideRepository;
+  }
+
+  public Optional<String> findCategory(UUID userId, String ibanKey, String merchantKey, String descriptionKey) {
+    if (userId == null) {
+      return Optional.empty();
+    }
+    UserIndex index = indexFor(userId);
+    if (ibanKey != null) {
+      String category = index.iban().get(ibanKey);
+      if (category != null) {
+        return Optional.of(category);
+      }
+    }
+    if (merchantKey != null) {
+      String category = index.merchant().match(merchantKey);
+      if (category != null) {
+        return Optional.of(category);
+      }
+    }
+    if (descriptionKey != null) {
+      return Optional.ofNullable(index.description().match(descriptionKey));
+    }
+    return Optional.empty();
+  }
+
+  public void invalidate(UUID userId) {
+    version.incrementAndGet();
+    if (userId != null) {
+      indexCache.remove(userId);
+    }
+  }
+
+  private UserIndex indexFor(UUID userId) {
+    Instant now = Instant.now();
+    CachedIndex cached = indexCache.get(userId);
+    if (cached != null && cached.expiresAt().isAfter(now)) {
+      return cached.index();
+    }
+    long loadedAt = version.get();
+    UserIndex index = build(overrideRepository.findByUserId(userId));
+    if (version.get() == loadedAt) {
+      indexCache.put(userId, new CachedIndex(now.plus(INDEX_CACHE_TTL), index));
+    }
+    return index;
+  }
+
+  private UserIndex build(List<CategoryOverride> overrides) {
+    Map<String, String> iban = new HashMap<>();
+    List<CategoryOverride> merchant = new ArrayList<>();
+    List<CategoryOverride> description = new ArrayList<>();
+    for (CategoryOverride rule : overrides) {
+      if (rule.getMatchType() == null || rule.getMatchValue() == null || rule.getCategory() == null) {
+        continue;
+      }
+      switch (rule.getMatchType()) {
+        case IBAN -> iban.putIfAbsent(rule.getMatchValue(), rule.getCategory());
+        case MERCHANT -> merchant.add(rule);
+        case DESCRIPTION -> description.add(rule);
+      }
+    }
+    return new UserIndex(iban, RuleSet.of(merchant), RuleSet.of(description));
+  }
+
+  // EXACT rules win over CONTAINS rules, and among CONTAINS rules the longest match value wins,
+  // mirroring CategoryService's previous compareRuleSpecificity ordering.
+  private record RuleSet(Map<String, String> exact, KeywordMatcher containsMatcher, String[] containsCategories) {
+    static RuleSet of(List<CategoryOverride> rules) {
+      Map<String, String> exact = new HashMap<>();
+      List<CategoryOverride> contains = new ArrayList<>();
+      for (CategoryOverride rule : rules) {
+        if (rule.getMatchMode() == CategoryOverride.MatchMode.EXACT) {
+          exact.putIfAbsent(rule.getMatchValue(), rule.getCategory());
+        } else {
+          contains.add(rule);
+        }
+      }
+      // Rank by descending length so the matcher's lowest rank is the most specific hit.
+      contains.sort(Comparator.comparingInt((CategoryOverride rule) -> rule.getMatchValue().length()).reversed());
+      List<String> keywords = new ArrayList<>(contains.size());
+      String[] categories = new String[contains.size()];
+      for (int i = 0; i < contains.size(); i++) {
+        keywords.add(contains.get(i).getMatchValue());
+        categories[i] = contains.get(i).getCategory();
+      }
+      return new RuleSet(exact, KeywordMatcher.compile(keywords), categories);
+    }
+
+    String match(String key) {
+      String exactCategory = exact.get(key);
+      if (exactCategory != null) {
+        return exactCategory;
+      }
+      int rank = containsMatcher.match(key);
+      return rank == KeywordMatcher.NO_MATCH ? null : containsCategories[rank];
+    }
+  }
+
+  private record UserIndex(Map<String, String> iban, RuleSet merchant, RuleSet description) {}
+
+  private record CachedIndex(Instant expiresAt, UserIndex index) {}
+}
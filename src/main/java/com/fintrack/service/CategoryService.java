@@ -1,18 +1,21 @@
 package com.fintrack.service;
 
+import com.fintrack.model.AccountTransaction;
 import com.fintrack.model.AccountType;
-import com.fintrack.model.CategoryOverride;
 import com.fintrack.model.FinancialAccount;
+import com.fintrack.model.MatchKeys;
 import com.fintrack.model.TransactionDirection;
-import com.fintrack.repository.CategoryOverrideRepository;
 import com.fintrack.repository.FinancialAccountRepository;
 import com.fintrack.repository.TransactionCategoryRepository;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -55,24 +58,30 @@ public class CategoryService {
       "bitonic",
       "btcdirect"
   );
+  public static final int AI_BATCH_SIZE = 25;
+  private static final double AI_CONFIDENCE = 0.72;
+  private static final String AI_REASON = "AI classificatie op basis van omschrijving";
   private static final Duration ACCOUNT_CACHE_TTL = Duration.ofMinutes(5);
   private static final Pattern IBAN_PATTERN = Pattern.compile("\\b[A-Z]{2}[0-9]{2}[A-Z0-9]{11,30}\\b");
 
   private final OpenAiClient openAiClient;
   private final TransactionCategorizer ruleCategorizer;
-  private final CategoryOverrideRepository overrideRepository;
+  private final CategoryOverrideIndex overrideIndex;
+  private final AiClassificationCache aiCache;
   private final TransactionCategoryRepository transactionCategoryRepository;
   private final FinancialAccountRepository accountRepository;
   private final ConcurrentHashMap<UUID, CachedAccounts> accountCache = new ConcurrentHashMap<>();
 
   public CategoryService(OpenAiClient openAiClient,
                          TransactionCategorizer ruleCategorizer,
-                         CategoryOverrideRepository overrideRepository,
+                         CategoryOverrideIndex overrideIndex,
+                         AiClassificationCache aiCache,
                          TransactionCategoryRepository transactionCategoryRepository,
                          FinancialAccountRepository accountRepository) {
     this.openAiClient = openAiClient;
     this.ruleCategorizer = ruleCategorizer;
-    this.overrideRepository = overrideRepository;
+    this.overrideIndex = overrideIndex;
+    this.aiCache = aiCache;
     this.transactionCategoryRepository = transactionCategoryRepository;
     this.accountRepository = accountRepository;
   }
@@ -111,29 +120,68 @@ public class CategoryService {
                                            String amount,
                                            String counterpartyIban,
                                            boolean allowAi) {
+    MatchKeySet keys = new MatchKeySet(
+        MatchKeys.normalize(merchant),
+        MatchKeys.normalize(description),
+        MatchKeys.normalize(counterpartyIban));
+    return categorizeDetailed(userId, description, merchant, direction, transactionType, accountType, currency, amount,
+        counterpartyIban, keys, allowAi);
+  }
+
+  // Uses the transaction's stored match keys instead of normalizing its text again.
+  public CategoryResult categorizeDetailed(UUID userId, AccountTransaction tx, AccountType accountType, boolean allowAi) {
+    MatchKeySet keys = new MatchKeySet(
+        storedKey(tx.getMerchantKey(), tx.getMerchantName()),
+        storedKey(tx.getDescriptionKey(), tx.getDescription()),
+        storedKey(tx.getCounterpartyIbanKey(), tx.getCounterpartyIban()));
+    return categorizeDetailed(
+        userId,
+        tx.getDescription(),
+        tx.getMerchantName(),
+        tx.getDirection(),
+        tx.getTransactionType(),
+        accountType,
+        tx.getCurrency(),
+        tx.getAmount() == null ? null : tx.getAmount().toPlainString(),
+        tx.getCounterpartyIban(),
+        keys,
+        allowAi);
+  }
+
+  private CategoryResult categorizeDetailed(UUID userId,
+                                            String description,
+                                            String merchant,
+                                            TransactionDirection direction,
+                                            String transactionType,
+                                            AccountType accountType,
+                                            String currency,
+                                            String amount,
+                                            String counterpartyIban,
+                                            MatchKeySet keys,
+                                            boolean allowAi) {
     if (accountType == AccountType.CRYPTO) {
       return new CategoryResult("Crypto", "rule", 0.95, "Crypto account");
     }
-    String detectedIban = firstNonBlank(
-        counterpartyIban,
-        extractIban(description),
-        extractIban(merchant));
-    if (isInternalTransfer(userId, detectedIban)) {
+    String detectedIbanKey = counterpartyIban != null && !counterpartyIban.isBlank()
+        ? keys.counterpartyIban()
+        : MatchKeys.normalize(firstNonBlank(extractIban(description), extractIban(merchant)));
+    if (isInternalTransfer(userId, detectedIbanKey)) {
       return new CategoryResult("Transfer", "rule", 0.92, "Eigen rekening");
     }
     if (transactionType != null && transactionType.equalsIgnoreCase("TRANSFER")) {
       return new CategoryResult("Transfer", "rule", 0.9, "Type TRANSFER");
     }
-    if (isCryptoTransfer(description, merchant)) {
+    if (isCryptoTransfer(keys)) {
       return new CategoryResult("Crypto", "rule", 0.85, "Crypto exchange");
     }
     if (direction == TransactionDirection.IN) {
       return new CategoryResult("Inkomen", "rule", 0.9, "Inkomende transactie");
     }
 
-    Optional<CategoryOverride> override = findOverride(userId, merchant, description, counterpartyIban);
+    Optional<String> override = overrideIndex.findCategory(
+        userId, keys.counterpartyIban(), keys.merchant(), keys.description());
     if (override.isPresent()) {
-      return new CategoryResult(override.get().getCategory(), "override", 0.98, "Gebruikersregel");
+      return new CategoryResult(override.get(), "override", 0.98, "Gebruikersregel");
     }
 
     String combined = buildCombined(description, merchant, counterpartyIban);
@@ -145,13 +193,20 @@ public class CategoryService {
 
     List<String> categories = allowedCategories(userId);
     if (allowAi) {
+      AiRequest request = new AiRequest(description, merchant, direction, transactionType, currency, amount, counterpartyIban);
+      Optional<CategoryResult> cached = aiCache.lookup(userId, request);
+      if (cached.isPresent()) {
+        return cached.get();
+      }
       String ai = openAiClient.classify(
           buildSystemPrompt(categories),
-          buildUserPrompt(description, merchant, direction, transactionType, currency, amount, counterpartyIban),
+          buildUserPrompt(request),
           categories
       );
       if (ai != null) {
-        return new CategoryResult(ai, "ai", 0.72, "AI classificatie op basis van omschrijving");
+        CategoryResult result = new CategoryResult(ai, "ai", AI_CONFIDENCE, AI_REASON);
+        aiCache.store(userId, request, result, openAiClient.currentModel());
+        return result;
       }
     }
 
@@ -159,12 +214,82 @@ public class CategoryService {
     return new CategoryResult(match.category(), "rule", confidence, match.reason());
   }
 
+  // True when the rules found nothing and categorizeDetailed would have asked the AI.
+  public boolean needsAi(CategoryResult result) {
+    return result != null && needsAi(result.category(), result.source());
+  }
+
+  public boolean needsAi(String category, String source) {
+    return "rule".equalsIgnoreCase(source) && "Overig".equalsIgnoreCase(category);
+  }
+
+  // Cached answers are reused; the rest is de-duplicated by fingerprint and sent AI_BATCH_SIZE per request.
+  // Entries stay null where the AI gave no valid category.
+  public List<CategoryResult> classifyWithAi(UUID userId, List<AiRequest> requests) {
+    List<CategoryResult> results = new ArrayList<>(Collections.nCopies(requests.size(), (CategoryResult) null));
+    Map<String, List<Integer>> pending = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      Optional<CategoryResult> cached = aiCache.lookup(userId, requests.get(i));
+      if (cached.isPresent()) {
+        results.set(i, cached.get());
+      } else {
+        // Rows without a fingerprint are never merged with others.
+        String fingerprint = AiClassificationCache.fingerprint(requests.get(i));
+        pending.computeIfAbsent(fingerprint == null ? "row:" + i : fingerprint, key -> new ArrayList<>()).add(i);
+      }
+    }
+    if (pending.isEmpty()) {
+      return results;
+    }
+    List<String> categories = allowedCategories(userId);
+    String systemPrompt = buildBatchSystemPrompt(categories);
+    String model = openAiClient.currentModel();
+    List<List<Integer>> groups = new ArrayList<>(pending.values());
+    for (int start = 0; start < groups.size(); start += AI_BATCH_SIZE) {
+      List<List<Integer>> chunk = groups.subList(start, Math.min(groups.size(), start + AI_BATCH_SIZE));
+      List<String> prompts = chunk.stream()
+          .map(group -> buildUserPrompt(requests.get(group.get(0))))
+          .toList();
+      List<String> answers = openAiClient.classifyBatch(systemPrompt, prompts, categories);
+      for (int i = 0; i < chunk.size(); i++) {
+        String ai = answers.get(i);
+        if (ai == null) {
+          continue;
+        }
+        CategoryResult result = new CategoryResult(ai, "ai", AI_CONFIDENCE, AI_REASON);
+        aiCache.store(userId, requests.get(chunk.get(i).get(0)), result, model);
+        for (int index : chunk.get(i)) {
+          results.set(index, result);
+        }
+      }
+    }
+    return results;
+  }
+
+  private String buildBatchSystemPrompt(List<String> categories) {
+    return "You categorize financial transactions. " +
+        "For each numbered transaction pick exactly one category from this list: " + String.join(", ", categories) + ". " +
+        "Return only a JSON array with one entry per transaction, like " +
+        "[{\"id\":1,\"category\":\"<one of the allowed categories>\"}].";
+  }
+
   private String buildSystemPrompt(List<String> categories) {
     return "You categorize financial transactions. " +
         "Pick exactly one category from this list: " + String.join(", ", categories) + ". " +
         "Return only JSON like {\"category\":\"<one of the allowed categories>\"}.";
   }
 
+  private String buildUserPrompt(AiRequest request) {
+    return buildUserPrompt(
+        request.description(),
+        request.merchant(),
+        request.direction(),
+        request.transactionType(),
+        request.currency(),
+        request.amount(),
+        request.counterpartyIban());
+  }
+
   private String buildUserPrompt(String description,
                                  String merchant,
                                  TransactionDirection direction,
@@ -209,43 +334,6 @@ public class CategoryService {
     return null;
   }
 
-  private Optional<CategoryOverride> findOverride(UUID userId,
-                                                  String merchant,
-                                                  String description,
-                                                  String counterpartyIban) {
-    if (userId == null) {
-      return Optional.empty();
-    }
-    String iban = normalize(counterpartyIban);
-    if (iban != null) {
-      var override = overrideRepository.findFirstByUserIdAndMatchTypeAndMatchValue(
-          userId,
-          CategoryOverride.MatchType.IBAN,
-          iban);
-      if (override.isPresent()) {
-        return override;
-      }
-    }
-    String merchantKey = normalize(merchant);
-    if (merchantKey != null) {
-      var overrides = overrideRepository.findByUserIdAndMatchType(userId, CategoryOverride.MatchType.MERCHANT);
-      var match = overrides.stream()
-          .filter(rule -> matchesRule(merchantKey, rule))
-          .max((a, b) -> compareRuleSpecificity(a, b));
-      if (match.isPresent()) {
-        return match;
-      }
-    }
-    String descKey = normalize(description);
-    if (descKey != null) {
-      var overrides = overrideRepository.findByUserIdAndMatchType(userId, CategoryOverride.MatchType.DESCRIPTION);
-      return overrides.stream()
-          .filter(rule -> matchesRule(descKey, rule))
-          .max((a, b) -> compareRuleSpecificity(a, b));
-    }
-    return Optional.empty();
-  }
-
   private List<String> allowedCategories(UUID userId) {
     if (userId == null) {
       return CATEGORIES;
@@ -274,68 +362,31 @@ public class CategoryService {
     return builder.toString().trim();
   }
 
-  private boolean matchesRule(String value, CategoryOverride rule) {
-    if (value == null || rule == null || rule.getMatchValue() == null) {
-      return false;
-    }
-    CategoryOverride.MatchMode mode = rule.getMatchMode() == null
-        ? CategoryOverride.MatchMode.CONTAINS
-        : rule.getMatchMode();
-    return mode == CategoryOverride.MatchMode.EXACT
-        ? value.equals(rule.getMatchValue())
-        : value.contains(rule.getMatchValue());
-  }
-
-  private int compareRuleSpecificity(CategoryOverride a, CategoryOverride b) {
-    CategoryOverride.MatchMode modeA = a.getMatchMode() == null
-        ? CategoryOverride.MatchMode.CONTAINS
-        : a.getMatchMode();
-    CategoryOverride.MatchMode modeB = b.getMatchMode() == null
-        ? CategoryOverride.MatchMode.CONTAINS
-        : b.getMatchMode();
-    if (modeA != modeB) {
-      return modeA == CategoryOverride.MatchMode.EXACT ? 1 : -1;
-    }
-    int lenA = a.getMatchValue() == null ? 0 : a.getMatchValue().length();
-    int lenB = b.getMatchValue() == null ? 0 : b.getMatchValue().length();
-    return Integer.compare(lenA, lenB);
-  }
-
-  private String normalize(String value) {
-    if (value == null) {
-      return null;
-    }
-    String cleaned = value.toLowerCase(Locale.ROOT)
-        .replaceAll("\\s+", " ")
-        .replaceAll("[^a-z0-9]+", "")
-        .trim();
-    return cleaned.isBlank() ? null : cleaned;
-  }
-
-  private boolean isCryptoTransfer(String description, String merchant) {
-    String combined = buildCombined(description, merchant, null);
-    String normalized = normalize(combined);
-    if (normalized == null) {
+  // Same text as normalizing buildCombined(description, merchant, null): the keys concatenated.
+  private boolean isCryptoTransfer(MatchKeySet keys) {
+    if (keys.merchant() == null && keys.description() == null) {
       return false;
     }
+    String combined = (keys.merchant() == null ? "" : keys.merchant())
+        + (keys.description() == null ? "" : keys.description());
     for (String keyword : CRYPTO_KEYWORDS) {
-      if (normalized.contains(keyword)) {
+      if (combined.contains(keyword)) {
         return true;
       }
     }
     return false;
   }
 
-  private boolean isInternalTransfer(UUID userId, String counterpartyIban) {
-    if (userId == null || counterpartyIban == null || counterpartyIban.isBlank()) {
-      return false;
-    }
-    String normalized = normalize(counterpartyIban);
-    if (normalized == null) {
+  private boolean isInternalTransfer(UUID userId, String ibanKey) {
+    if (userId == null || ibanKey == null) {
       return false;
     }
     Set<String> identifiers = getAccountIdentifiers(userId);
-    return identifiers.contains(normalized);
+    return identifiers.contains(ibanKey);
+  }
+
+  private static String storedKey(String key, String value) {
+    return key != null ? key : MatchKeys.normalize(value);
   }
 
   private Set<String> getAccountIdentifiers(UUID userId) {
@@ -359,13 +410,34 @@ public class CategoryService {
   }
 
   private void addIdentifier(Set<String> identifiers, String value) {
-    String normalized = normalize(value);
+    String normalized = MatchKeys.normalize(value);
     if (normalized != null) {
       identifiers.add(normalized);
     }
   }
 
+  private record MatchKeySet(String merchant, String description, String counterpartyIban) {}
+
   private record CachedAccounts(Instant expiresAt, Set<String> identifiers) {}
 
   public record CategoryResult(String category, String source, Double confidence, String reason) {}
+
+  public record AiRequest(String description,
+                          String merchant,
+                          TransactionDirection direction,
+                          String transactionType,
+                          String currency,
+                          String amount,
+                          String counterpartyIban) {
+    public static AiRequest from(AccountTransaction tx) {
+      return new AiRequest(
+          tx.getDescription(),
+          tx.getMerchantName(),
+          tx.getDirection(),
+          tx.getTransactionType(),
+          tx.getCurrency(),
+          tx.getAmount() == null ? null : tx.getAmount().toPlainString(),
+          tx.getCounterpartyIban());
+    }
+  }
 }
@@ -9,11 +9,14 @@ import com.fintrack.dto.ProviderResponse;
 import com.fintrack.dto.UpdateConnectionRequest;
 import com.fintrack.model.Connection;
 import com.fintrack.model.ConnectionStatus;
+import com.fintrack.model.SyncPriority;
 import com.fintrack.model.SyncStatus;
 import com.fintrack.provider.ConnectResult;
 import com.fintrack.provider.ConnectionProvider;
 import com.fintrack.provider.ProviderRegistry;
+import com.fintrack.provider.SyncMode;
 import com.fintrack.repository.ConnectionRepository;
+import com.fintrack.repository.SyncJobQueue;
 import com.fintrack.repository.UserRepository;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -22,7 +25,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -34,19 +36,22 @@ public class ConnectionService {
   private final CryptoService cryptoService;
   private final ObjectMapper objectMapper;
   private final NotificationService notificationService;
+  private final SyncJobQueue syncJobQueue;
 
   public ConnectionService(ConnectionRepository connectionRepository,
                            UserRepository userRepository,
                            ProviderRegistry providerRegistry,
                            CryptoService cryptoService,
                            ObjectMapper objectMapper,
-                           NotificationService notificationService) {
+                           NotificationService notificationService,
+                           SyncJobQueue syncJobQueue) {
     this.connectionRepository = connectionRepository;
     this.userRepository = userRepository;
     this.providerRegistry = providerRegistry;
     this.cryptoService = cryptoService;
     this.objectMapper = objectMapper;
     this.notificationService = notificationService;
+    this.syncJobQueue = syncJobQueue;
   }
 
   public List<ProviderResponse> listProviders() {
@@ -121,43 +126,57 @@ public class ConnectionService {
     return new ConnectResponse(result.redirectUrl());
   }
 
-  public ConnectionResponse syncConnection(UUID userId, UUID connectionId) {
+  public ConnectionResponse syncConnection(UUID userId, UUID connectionId, SyncMode mode) {
     Connection connection = connectionRepository.findByIdAndUserId(connectionId, userId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Connection not found"));
-    return requestSync(connection);
+    return requestSync(connection, mode, SyncPriority.USER);
   }
 
   public void syncConnectionById(UUID connectionId) {
     Connection connection = connectionRepository.findById(connectionId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Connection not found"));
-    requestSync(connection);
+    requestSync(connection, SyncMode.INCREMENTAL, SyncPriority.USER);
   }
 
-  public void syncConnection(Connection connection) {
-    if (!prepareSync(connection)) {
+  public void requestBackgroundSync(Connection connection) {
+    requestSync(connection, SyncMode.INCREMENTAL, SyncPriority.BACKGROUND);
+  }
+
+  // Called by SyncDispatcher on a sync worker while it holds the job's lease. RUNNING is accepted too:
+  // that is a job whose previous lease holder died mid-sync.
+  public void runQueuedSync(UUID connectionId, SyncMode mode) {
+    Connection connection = connectionRepository.findById(connectionId).orElse(null);
+    if (connection == null
+        || (connection.getSyncStatus() != SyncStatus.QUEUED && connection.getSyncStatus() != SyncStatus.RUNNING)) {
+      return;
+    }
+    if (connection.getStatus() == ConnectionStatus.DISABLED) {
+      connection.setSyncStatus(SyncStatus.IDLE);
+      connection.setSyncStage(null);
       connectionRepository.save(connection);
       return;
     }
-    connectionRepository.save(connection);
-    performSync(connection);
+    connection.setSyncStatus(SyncStatus.RUNNING);
+    connection.setLastSyncStartedAt(Instant.now());
+    connection.setSyncStage("Voorbereiden");
+    connection.setSyncProgress(5);
+    performSync(connectionRepository.save(connection), mode);
   }
 
-  private ConnectionResponse requestSync(Connection connection) {
+  private ConnectionResponse requestSync(Connection connection, SyncMode mode, SyncPriority priority) {
+    if (connection.getSyncStatus() == SyncStatus.QUEUED) {
+      // Already waiting: re-queueing only raises the priority or upgrades the mode.
+      syncJobQueue.enqueue(connection.getId(), connection.getProviderId(), mode, priority);
+      return toResponse(connection);
+    }
     if (!prepareSync(connection)) {
       return toResponse(connectionRepository.save(connection));
     }
     Connection saved = connectionRepository.save(connection);
-    syncConnectionAsync(saved.getId());
+    syncJobQueue.enqueue(saved.getId(), saved.getProviderId(), mode, priority);
     return toResponse(saved);
   }
 
-  @Async
-  public void syncConnectionAsync(UUID connectionId) {
-    Connection connection = connectionRepository.findById(connectionId)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Connection not found"));
-    performSync(connection);
-  }
-
   private boolean prepareSync(Connection connection) {
     if (connection.getStatus() == ConnectionStatus.DISABLED) {
       return false;
@@ -177,20 +196,19 @@ public class ConnectionService {
       connection.setLastSyncError("Rate limit actief. Probeer opnieuw na " + retryAt.toString());
       return false;
     }
-    connection.setSyncStatus(SyncStatus.RUNNING);
-    connection.setLastSyncStartedAt(Instant.now());
+    connection.setSyncStatus(SyncStatus.QUEUED);
     connection.setLastSyncError(null);
-    connection.setSyncStage("Voorbereiden");
-    connection.setSyncProgress(5);
+    connection.setSyncStage("In wachtrij");
+    connection.setSyncProgress(0);
     return true;
   }
 
-  private void performSync(Connection connection) {
+  private void performSync(Connection connection, SyncMode mode) {
     ConnectionStatus previous = connection.getStatus();
     ConnectionProvider provider = providerRegistry.require(connection.getProviderId());
     Map<String, String> config = loadConfig(connection);
     try {
-      provider.sync(connection, config);
+      provider.sync(connection, config, mode);
       connection.setStatus(ConnectionStatus.ACTIVE);
       connection.setErrorMessage(null);
       connection.setLastSyncedAt(Instant.now());
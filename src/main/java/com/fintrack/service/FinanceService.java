@@ -1,14 +1,15 @@
 package com.fintrack.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintrack.dto.AccountResponse;
 import com.fintrack.dto.AccountShareRequest;
 import com.fintrack.dto.CreateAccountRequest;
 import com.fintrack.dto.CreateTransactionRequest;
 import com.fintrack.dto.CurrencySummary;
-import com.fintrack.dto.RecategorizeResponse;
 import com.fintrack.dto.RecurringPaymentResponse;
 import com.fintrack.dto.SpendingCategorySummary;
 import com.fintrack.dto.SummaryResponse;
+import com.fintrack.dto.TransactionPageResponse;
 import com.fintrack.dto.TransactionResponse;
 import com.fintrack.dto.UpdateAccountRequest;
 import com.fintrack.dto.UpdateTransactionCategoryRequest;
@@ -19,33 +20,40 @@ import com.fintrack.model.FinancialAccount;
 import com.fintrack.model.TransactionDirection;
 import com.fintrack.provider.coingecko.CoinGeckoClient;
 import com.fintrack.repository.HouseholdMemberRepository;
+import com.fintrack.repository.AccountTransactionBatchWriter;
 import com.fintrack.repository.AccountTransactionRepository;
 import com.fintrack.repository.CategoryOverrideRepository;
 import com.fintrack.repository.FinancialAccountRepository;
+import com.fintrack.repository.MonthlyRollupRepository;
+import com.fintrack.repository.MonthlyRollupWriter;
 import com.fintrack.repository.UserRepository;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.Instant;
-import java.time.ZoneId;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class FinanceService {
-  private static final int MAX_AI_REQUESTS_PER_RELABEL_RUN = 30;
+  private static final int MAX_TRANSACTION_PAGE_SIZE = 500;
+  private static final int EXPORT_FLUSH_EVERY = 500;
 
   private final FinancialAccountRepository accountRepository;
   private final AccountTransactionRepository transactionRepository;
@@ -53,7 +61,13 @@ public class FinanceService {
   private final HouseholdMemberRepository householdMemberRepository;
   private final CategoryService categoryService;
   private final CategoryOverrideRepository overrideRepository;
+  private final CategoryOverrideIndex overrideIndex;
   private final CoinGeckoClient coinGeckoClient;
+  private final MonthlyRollupRepository rollupRepository;
+  private final MonthlyRollupWriter rollupWriter;
+  private final AccountTransactionBatchWriter transactionWriter;
+  private final ManualAccountMirrorService manualAccountMirrorService;
+  private final ObjectMapper objectMapper;
 
   public FinanceService(FinancialAccountRepository accountRepository,
                         AccountTransactionRepository transactionRepository,
@@ -61,14 +75,26 @@ public class FinanceService {
                         HouseholdMemberRepository householdMemberRepository,
                         CategoryService categoryService,
                         CategoryOverrideRepository overrideRepository,
-                        CoinGeckoClient coinGeckoClient) {
+                        CategoryOverrideIndex overrideIndex,
+                        CoinGeckoClient coinGeckoClient,
+                        MonthlyRollupRepository rollupRepository,
+                        MonthlyRollupWriter rollupWriter,
+                        AccountTransactionBatchWriter transactionWriter,
+                        ManualAccountMirrorService manualAccountMirrorService,
+                        ObjectMapper objectMapper) {
     this.accountRepository = accountRepository;
     this.transactionRepository = transactionRepository;
     this.userRepository = userRepository;
     this.householdMemberRepository = householdMemberRepository;
     this.categoryService = categoryService;
     this.overrideRepository = overrideRepository;
+    this.overrideIndex = overrideIndex;
     this.coinGeckoClient = coinGeckoClient;
+    this.rollupRepository = rollupRepository;
+    this.rollupWriter = rollupWriter;
+    this.transactionWriter = transactionWriter;
+    this.manualAccountMirrorService = manualAccountMirrorService;
+    this.objectMapper = objectMapper;
   }
 
   public AccountResponse createAccount(UUID userId, CreateAccountRequest request) {
@@ -92,11 +118,11 @@ public class FinanceService {
       account.setFiatCurrency(request.getCurrency());
     }
     FinancialAccount saved = accountRepository.save(account);
+    manualAccountMirrorService.invalidate();
     return toAccountResponse(saved);
   }
 
   public List<AccountResponse> listAccounts(UUID userId) {
-    syncManualAccounts(userId);
     List<UUID> householdIds = householdIdsForUser(userId);
     List<FinancialAccount> accounts = householdIds.isEmpty()
         ? accountRepository.findActiveByUserId(userId)
@@ -108,12 +134,53 @@ public class FinanceService {
   }
 
   public List<TransactionResponse> listTransactions(UUID userId, LocalDate from, LocalDate to) {
-    syncManualAccounts(userId);
-    List<UUID> householdIds = householdIdsForUser(userId);
-    List<AccountTransaction> txs = householdIds.isEmpty()
-        ? transactionRepository.findUserTransactionsInRange(userId, from, to)
-        : transactionRepository.findUserAndHouseholdTransactionsInRange(userId, householdIds, from, to);
-    return txs.stream().map(this::toTransactionResponse).toList();
+    List<UUID> accountIds = activeAccountIds(userId);
+    if (accountIds.isEmpty()) {
+      return List.of();
+    }
+    return transactionRepository.findResponsesInRange(accountIds, from, to);
+  }
+
+  public TransactionPageResponse pageTransactions(UUID userId, LocalDate from, LocalDate to, String cursor, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_TRANSACTION_PAGE_SIZE));
+    List<UUID> accountIds = activeAccountIds(userId);
+    if (accountIds.isEmpty()) {
+      return new TransactionPageResponse(List.of(), null);
+    }
+    PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+    List<TransactionResponse> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = transactionRepository.findPageStart(accountIds, from, to, pageRequest);
+    } else {
+      TransactionCursor position = decodeCursor(cursor);
+      rows = transactionRepository.findPageAfter(accountIds, from, to, position.bookingDate(), position.id(), pageRequest);
+    }
+    if (rows.size() <= pageSize) {
+      return new TransactionPageResponse(rows, null);
+    }
+    List<TransactionResponse> page = rows.subList(0, pageSize);
+    TransactionResponse last = page.get(page.size() - 1);
+    return new TransactionPageResponse(page, encodeCursor(last.getBookingDate(), last.getId()));
+  }
+
+  // Writes one JSON object per line while the rows are read from a server-side cursor.
+  @Transactional(readOnly = true)
+  public void exportTransactions(UUID userId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+    List<UUID> accountIds = activeAccountIds(userId);
+    if (accountIds.isEmpty()) {
+      return;
+    }
+    try (Stream<TransactionResponse> rows = transactionRepository.streamRange(accountIds, from, to)) {
+      int written = 0;
+      for (TransactionResponse row : (Iterable<TransactionResponse>) rows::iterator) {
+        out.write(objectMapper.writeValueAsBytes(row));
+        out.write('\n');
+        if (++written % EXPORT_FLUSH_EVERY == 0) {
+          out.flush();
+        }
+      }
+    }
+    out.flush();
   }
 
   public TransactionResponse createTransaction(UUID userId, CreateTransactionRequest request) {
@@ -154,12 +221,13 @@ public class FinanceService {
       }
       tx.setCategoryReason(categoryResult.reason());
     }
-    AccountTransaction saved = transactionRepository.save(tx);
-    return toTransactionResponse(saved);
+    // Goes through the import path so rollups and manual-account mirroring see it too.
+    transactionWriter.insertAll(List.of(tx));
+    return toTransactionResponse(tx);
   }
 
   public TransactionResponse updateTransactionCategory(UUID userId, UUID transactionId, UpdateTransactionCategoryRequest request) {
-    AccountTransaction tx = transactionRepository.findById(transactionId)
+    AccountTransaction tx = transactionRepository.findWithAccountById(transactionId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
     if (!canAccessAccount(userId, tx.getAccount())) {
       throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Transaction not owned by user");
@@ -168,6 +236,7 @@ public class FinanceService {
     if (category == null || category.isBlank()) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category is required");
     }
+    String previousCategory = tx.getCategory();
     tx.setCategory(category);
     if (request.isApplyToFuture()) {
       CategoryOverride.MatchType matchType = resolveMatchType(tx);
@@ -193,6 +262,7 @@ public class FinanceService {
         }
         override.touch();
         overrideRepository.save(override);
+        overrideIndex.invalidate(userId);
         tx.setCategorySource("override");
         tx.setCategoryReason("Gebruikersregel (" + matchType.name() + ")");
         tx.setCategoryConfidence(java.math.BigDecimal.valueOf(1.0));
@@ -207,11 +277,11 @@ public class FinanceService {
       tx.setCategoryConfidence(java.math.BigDecimal.valueOf(1.0));
     }
     AccountTransaction saved = transactionRepository.save(tx);
+    rollupWriter.recordCategoryChanges(List.of(new MonthlyRollupWriter.CategoryChange(saved, previousCategory)));
     return toTransactionResponse(saved);
   }
 
   public SummaryResponse getSummary(UUID userId) {
-    syncManualAccounts(userId);
     List<UUID> householdIds = householdIdsForUser(userId);
     List<FinancialAccount> accounts = householdIds.isEmpty()
         ? accountRepository.findActiveByUserId(userId)
@@ -222,54 +292,45 @@ public class FinanceService {
                 Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))));
 
     YearMonth month = YearMonth.now();
-    LocalDate from = month.atDay(1);
-    LocalDate to = month.atEndOfMonth();
-    List<AccountTransaction> txs = householdIds.isEmpty()
-        ? transactionRepository.findUserTransactionsInRangeByType(userId, AccountType.BANK, from, to)
-        : transactionRepository.findUserAndHouseholdTransactionsInRangeByType(userId, householdIds, AccountType.BANK, from, to);
-
-    Map<String, List<AccountTransaction>> txByCurrency = txs.stream()
-        .collect(Collectors.groupingBy(AccountTransaction::getCurrency));
+    Map<String, BigDecimal> incomeByCurrency = new HashMap<>();
+    Map<String, BigDecimal> expenseByCurrency = new HashMap<>();
+    List<UUID> bankAccountIds = rollupAccountIds(accounts);
+    if (!bankAccountIds.isEmpty()) {
+      for (Object[] row : rollupRepository.sumCashflowByCurrency(bankAccountIds, month.atDay(1))) {
+        String currency = (String) row[0];
+        TransactionDirection direction = (TransactionDirection) row[1];
+        BigDecimal total = (BigDecimal) row[2];
+        if (direction == TransactionDirection.IN) {
+          incomeByCurrency.merge(currency, total, BigDecimal::add);
+        } else if (direction == TransactionDirection.OUT) {
+          expenseByCurrency.merge(currency, total, BigDecimal::add);
+        }
+      }
+    }
 
     List<CurrencySummary> summaries = new ArrayList<>();
     for (Map.Entry<String, BigDecimal> entry : balanceByCurrency.entrySet()) {
       String currency = entry.getKey();
-      List<AccountTransaction> currencyTxs = txByCurrency.getOrDefault(currency, List.of());
-
-      BigDecimal income = currencyTxs.stream()
-          .filter(t -> t.getDirection() == com.fintrack.model.TransactionDirection.IN)
-          .filter(t -> !isExcludedFromCashflow(t))
-          .map(AccountTransaction::getAmount)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      BigDecimal expense = currencyTxs.stream()
-          .filter(t -> t.getDirection() == com.fintrack.model.TransactionDirection.OUT)
-          .filter(t -> !isExcludedFromCashflow(t))
-          .map(AccountTransaction::getAmount)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      summaries.add(new CurrencySummary(currency, entry.getValue(), income, expense));
+      summaries.add(new CurrencySummary(
+          currency,
+          entry.getValue(),
+          incomeByCurrency.getOrDefault(currency, BigDecimal.ZERO),
+          expenseByCurrency.getOrDefault(currency, BigDecimal.ZERO)));
     }
 
     return new SummaryResponse(summaries);
   }
 
-  private boolean isExcludedFromCashflow(AccountTransaction tx) {
-    if (tx == null || tx.getCategory() == null) {
-      return false;
-    }
-    String category = tx.getCategory();
-    return "Transfer".equalsIgnoreCase(category) || "Crypto".equalsIgnoreCase(category);
-  }
-
   public List<SpendingCategorySummary> getSpendingByCategory(UUID userId, YearMonth month) {
-    syncManualAccounts(userId);
     List<UUID> householdIds = householdIdsForUser(userId);
-    LocalDate from = month.atDay(1);
-    LocalDate to = month.atEndOfMonth();
-    List<Object[]> rows = householdIds.isEmpty()
-        ? transactionRepository.sumByCategoryForUser(userId, AccountType.BANK, from, to)
-        : transactionRepository.sumByCategoryForUserAndHouseholds(userId, householdIds, AccountType.BANK, from, to);
+    List<FinancialAccount> accounts = householdIds.isEmpty()
+        ? accountRepository.findActiveByUserId(userId)
+        : accountRepository.findActiveByUserIdOrHouseholdIdIn(userId, householdIds);
+    List<UUID> bankAccountIds = rollupAccountIds(accounts);
+    if (bankAccountIds.isEmpty()) {
+      return List.of();
+    }
+    List<Object[]> rows = rollupRepository.sumSpendingByCategory(bankAccountIds, month.atDay(1));
     if (rows.isEmpty()) {
       return List.of();
     }
@@ -356,67 +417,13 @@ public class FinanceService {
     return results;
   }
 
-  public RecategorizeResponse recategorizeAll(UUID userId) {
-    List<UUID> householdIds = householdIdsForUser(userId);
-    List<AccountTransaction> txs = householdIds.isEmpty()
-        ? transactionRepository.findUserTransactions(userId)
-        : transactionRepository.findUserAndHouseholdTransactions(userId, householdIds);
-
-    int updated = 0;
-    int aiCount = 0;
-    for (AccountTransaction tx : txs) {
-      boolean allowAi = aiCount < MAX_AI_REQUESTS_PER_RELABEL_RUN;
-      CategoryService.CategoryResult categoryResult = categoryService.categorizeDetailed(
-          userId,
-          tx.getDescription(),
-          tx.getMerchantName(),
-          tx.getDirection(),
-          tx.getTransactionType(),
-          tx.getAccount().getType(),
-          tx.getCurrency(),
-          tx.getAmount() == null ? null : tx.getAmount().toPlainString(),
-          tx.getCounterpartyIban(),
-          allowAi);
-      if (categoryResult.category() != null) {
-        if ("ai".equalsIgnoreCase(categoryResult.source())) {
-          aiCount++;
-        }
-        // Keep existing explicit category when AI budget is exhausted and rule fallback has no match.
-        if (!allowAi
-            && "Overig".equalsIgnoreCase(categoryResult.category())
-            && tx.getCategory() != null
-            && !tx.getCategory().isBlank()) {
-          continue;
-        }
-        boolean changed = !java.util.Objects.equals(tx.getCategory(), categoryResult.category())
-            || !java.util.Objects.equals(tx.getCategorySource(), categoryResult.source())
-            || !java.util.Objects.equals(tx.getCategoryReason(), categoryResult.reason())
-            || !java.util.Objects.equals(tx.getCategoryConfidence(),
-                categoryResult.confidence() == null ? null : java.math.BigDecimal.valueOf(categoryResult.confidence()));
-        tx.setCategory(categoryResult.category());
-        tx.setCategorySource(categoryResult.source());
-        if (categoryResult.confidence() != null) {
-          tx.setCategoryConfidence(java.math.BigDecimal.valueOf(categoryResult.confidence()));
-        }
-        tx.setCategoryReason(categoryResult.reason());
-        if (changed) {
-          updated++;
-        }
-      }
-    }
-    if (!txs.isEmpty()) {
-      transactionRepository.saveAll(txs);
-    }
-    return new RecategorizeResponse(updated, txs.size(), aiCount);
-  }
-
   public List<TransactionResponse> listAiTransactions(UUID userId, int limit) {
     int safeLimit = Math.max(1, Math.min(limit, 200));
-    List<UUID> householdIds = householdIdsForUser(userId);
-    List<AccountTransaction> txs = householdIds.isEmpty()
-        ? transactionRepository.findUserAiTransactions(userId, PageRequest.of(0, safeLimit))
-        : transactionRepository.findUserAndHouseholdAiTransactions(userId, householdIds, PageRequest.of(0, safeLimit));
-    return txs.stream().map(this::toTransactionResponse).toList();
+    List<UUID> accountIds = activeAccountIds(userId);
+    if (accountIds.isEmpty()) {
+      return List.of();
+    }
+    return transactionRepository.findAiResponses(accountIds, PageRequest.of(0, safeLimit));
   }
 
   public void requestSync(UUID userId, UUID accountId) {
@@ -439,6 +446,7 @@ public class FinanceService {
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a household member"));
     account.setHousehold(membership.getHousehold());
     accountRepository.save(account);
+    manualAccountMirrorService.invalidate();
     return toAccountResponse(account);
   }
 
@@ -469,7 +477,9 @@ public class FinanceService {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only manual accounts can be deleted");
     }
     transactionRepository.deleteByAccountId(accountId);
+    rollupWriter.deleteByAccountId(accountId);
     accountRepository.delete(account);
+    manualAccountMirrorService.invalidate();
   }
 
   private AccountResponse toAccountResponse(FinancialAccount account) {
@@ -532,6 +542,43 @@ public class FinanceService {
         tx.getCounterpartyIban());
   }
 
+  // Rollups are kept current by the writers and were backfilled by V12, so reads never rebuild them.
+  private List<UUID> rollupAccountIds(List<FinancialAccount> accounts) {
+    List<UUID> accountIds = new ArrayList<>();
+    for (FinancialAccount account : accounts) {
+      if (account.getType() == AccountType.BANK) {
+        accountIds.add(account.getId());
+      }
+    }
+    return accountIds;
+  }
+
+  private List<UUID> activeAccountIds(UUID userId) {
+    List<UUID> householdIds = householdIdsForUser(userId);
+    return householdIds.isEmpty()
+        ? accountRepository.findActiveIdsByUserId(userId)
+        : accountRepository.findActiveIdsByUserIdOrHouseholdIdIn(userId, householdIds);
+  }
+
+  private static String encodeCursor(LocalDate bookingDate, UUID id) {
+    String raw = bookingDate + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static TransactionCursor decodeCursor(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+      int separator = raw.indexOf('|');
+      return new TransactionCursor(
+          LocalDate.parse(raw.substring(0, separator)),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (Exception ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+
+  private record TransactionCursor(LocalDate bookingDate, UUID id) {}
+
   private List<UUID> householdIdsForUser(UUID userId) {
     return householdMemberRepository.findByUserId(userId).stream()
         .map(m -> m.getHousehold().getId())
@@ -548,119 +595,6 @@ public class FinanceService {
     return householdMemberRepository.findByUserIdAndHouseholdId(userId, account.getHousehold().getId()).isPresent();
   }
 
-  private void syncManualAccounts(UUID userId) {
-    ZoneId zoneId = ZoneId.systemDefault();
-    List<UUID> householdIds = householdIdsForUser(userId);
-    List<FinancialAccount> accounts = householdIds.isEmpty()
-        ? accountRepository.findActiveByUserId(userId)
-        : accountRepository.findActiveByUserIdOrHouseholdIdIn(userId, householdIds);
-    List<FinancialAccount> manualAccounts = accounts.stream()
-        .filter(this::isManualAccount)
-        .toList();
-    if (manualAccounts.isEmpty()) {
-      return;
-    }
-
-    Map<String, FinancialAccount> manualByIban = new HashMap<>();
-    for (FinancialAccount account : manualAccounts) {
-      String iban = normalizeIban(account.getIban());
-      if (iban != null) {
-        manualByIban.put(iban, account);
-      }
-      String accountNumber = normalizeIban(account.getAccountNumber());
-      if (accountNumber != null) {
-        manualByIban.putIfAbsent(accountNumber, account);
-      }
-    }
-    if (manualByIban.isEmpty()) {
-      return;
-    }
-
-    List<AccountTransaction> sourceTxs = householdIds.isEmpty()
-        ? transactionRepository.findUserTransactions(userId)
-        : transactionRepository.findUserAndHouseholdTransactions(userId, householdIds);
-
-    for (AccountTransaction tx : sourceTxs) {
-      if (tx.getAccount() == null || isManualAccount(tx.getAccount())) {
-        continue;
-      }
-      if (tx.getDirection() == null) {
-        continue;
-      }
-      String iban = normalizeIban(firstNonBlank(
-          tx.getCounterpartyIban(),
-          extractIbanFromText(tx.getDescription()),
-          extractIbanFromText(tx.getMerchantName())));
-      if (iban == null) {
-        continue;
-      }
-      FinancialAccount manualAccount = manualByIban.get(iban);
-      if (manualAccount == null) {
-        continue;
-      }
-      LocalDate txDate = resolveDate(tx);
-      Instant lastSynced = manualAccount.getLastSyncedAt();
-      if (lastSynced == null) {
-        // First sync for manual accounts should not backfill history.
-        if (txDate == null || txDate.isBefore(LocalDate.now(zoneId))) {
-          continue;
-        }
-      } else if (txDate != null) {
-        LocalDate cutoffDate = lastSynced.atZone(zoneId).toLocalDate();
-        if (txDate.isBefore(cutoffDate)) {
-          continue;
-        }
-      }
-      String externalId = "manual:" + manualAccount.getId() + ":" + tx.getId();
-      if (transactionRepository.findFirstByAccountIdAndExternalIdOrderByCreatedAtAsc(manualAccount.getId(), externalId).isPresent()) {
-        continue;
-      }
-      AccountTransaction mirror = new AccountTransaction();
-      mirror.setAccount(manualAccount);
-      mirror.setAmount(tx.getAmount());
-      mirror.setCurrency(tx.getCurrency());
-      mirror.setDirection(tx.getDirection() == com.fintrack.model.TransactionDirection.OUT
-          ? com.fintrack.model.TransactionDirection.IN
-          : com.fintrack.model.TransactionDirection.OUT);
-      mirror.setBookingDate(tx.getBookingDate());
-      mirror.setValueDate(tx.getValueDate());
-      mirror.setExternalId(externalId);
-      mirror.setProviderTransactionId(tx.getProviderTransactionId());
-      mirror.setStatus(tx.getStatus());
-      mirror.setTransactionType("TRANSFER");
-      mirror.setMerchantName(tx.getAccount().getName());
-      mirror.setDescription("Transfer " + (tx.getDirection() == com.fintrack.model.TransactionDirection.OUT ? "van" : "naar")
-          + " " + tx.getAccount().getName());
-      mirror.setCategory("Transfer");
-      mirror.setCategorySource("system");
-      mirror.setCategoryConfidence(java.math.BigDecimal.valueOf(1.0));
-      mirror.setCategoryReason("Afgeleid van overschrijving naar handmatige rekening");
-      mirror.setCounterpartyIban(tx.getAccount().getIban());
-      transactionRepository.save(mirror);
-    }
-
-    for (FinancialAccount manualAccount : manualAccounts) {
-      List<AccountTransaction> manualTxs = transactionRepository.findByAccountId(manualAccount.getId());
-      BigDecimal opening = manualAccount.getOpeningBalance() == null ? BigDecimal.ZERO : manualAccount.getOpeningBalance();
-      BigDecimal incoming = manualTxs.stream()
-          .filter(t -> t.getDirection() == com.fintrack.model.TransactionDirection.IN)
-          .map(AccountTransaction::getAmount)
-          .filter(Objects::nonNull)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-      BigDecimal outgoing = manualTxs.stream()
-          .filter(t -> t.getDirection() == com.fintrack.model.TransactionDirection.OUT)
-          .map(AccountTransaction::getAmount)
-          .filter(Objects::nonNull)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-      BigDecimal balance = opening.add(incoming).subtract(outgoing);
-      manualAccount.setCurrentBalance(balance);
-      manualAccount.setCurrentFiatValue(balance);
-      manualAccount.setFiatCurrency(manualAccount.getCurrency());
-      manualAccount.setLastSyncedAt(Instant.now());
-      accountRepository.save(manualAccount);
-    }
-  }
-
   private boolean isManualAccount(FinancialAccount account) {
     if (account == null) {
       return false;
@@ -671,8 +605,6 @@ public class FinanceService {
     return "manual".equalsIgnoreCase(account.getProvider());
   }
 
-  private static final Pattern IBAN_PATTERN = Pattern.compile("[A-Z]{2}\\d{2}[A-Z0-9]{11,30}");
-
   private static LocalDate resolveDate(AccountTransaction tx) {
     if (tx == null) {
       return null;
@@ -703,25 +635,6 @@ public class FinanceService {
     return base.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
   }
 
-  private static String extractIbanFromText(String text) {
-    if (text == null) {
-      return null;
-    }
-    Matcher matcher = IBAN_PATTERN.matcher(text.replaceAll("\\s+", ""));
-    if (matcher.find()) {
-      return matcher.group(0);
-    }
-    return null;
-  }
-
-  private static String normalizeIban(String iban) {
-    if (iban == null) {
-      return null;
-    }
-    String cleaned = iban.replaceAll("\\s+", "").trim().toUpperCase();
-    return cleaned.isBlank() ? null : cleaned;
-  }
-
   private CategoryOverride.MatchType resolveMatchType(AccountTransaction tx) {
     if (tx == null) {
       return null;
@@ -752,32 +665,9 @@ public class FinanceService {
       return null;
     }
     return switch (matchType) {
-      case IBAN -> normalizeOverrideValue(tx.getCounterpartyIban());
-      case MERCHANT -> normalizeOverrideValue(tx.getMerchantName());
-      case DESCRIPTION -> normalizeOverrideValue(tx.getDescription());
+      case IBAN -> tx.getCounterpartyIbanKey();
+      case MERCHANT -> tx.getMerchantKey();
+      case DESCRIPTION -> tx.getDescriptionKey();
     };
   }
-
-  private String normalizeOverrideValue(String value) {
-    if (value == null) {
-      return null;
-    }
-    String cleaned = value.toLowerCase(java.util.Locale.ROOT)
-        .replaceAll("\\s+", " ")
-        .replaceAll("[^a-z0-9]+", "")
-        .trim();
-    return cleaned.isBlank() ? null : cleaned;
-  }
-
-  private static String firstNonBlank(String... values) {
-    if (values == null) {
-      return null;
-    }
-    for (String value : values) {
-      if (value != null && !value.isBlank()) {
-        return value;
-      }
-    }
-    return null;
-  }
 }
@@ -0,0 +1,144 @@
+package com.fintrack.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+// Aho-Corasick automaton over lowercase keywords, compiled into a dense transition table.
+// match() returns the lowest keyword index found anywhere in the text, which reproduces
+// "first keyword in declaration order that is contained" in a single pass.
+final class KeywordMatcher {
+  static final int NO_MATCH = -1;
+
+  private final char[] alphabet;
+  private final int[] symbolOf;
+  private final int[][] next;
+  private final int[] best;
+
+  private KeywordMatcher(char[] alphabet, int[] symbolOf, int[][] next, int[] best) {
+    this.alphabet = alphabet;
+    this.symbolOf = symbolOf;
+    this.next = next;
+    this.best = best;
+  }
+
+  static KeywordMatcher compile(List<String> keywords) {
+    StringBuilder chars = new StringBuilder();
+    for (String keyword : keywords) {
+      for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+        if (chars.indexOf(String.valueOf(c)) < 0) {
+          chars.append(c);
+        }
+      }
+    }
+    char[] alphabet = chars.toString().toCharArray();
+    Arrays.sort(alphabet);
+    int maxChar = alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1];
+    int[] symbolOf = new int[maxChar + 1];
+    Arrays.fill(symbolOf, -1);
+    for (int i = 0; i < alphabet.length; i++) {
+      symbolOf[alphabet[i]] = i;
+    }
+
+    List<int[]> trie = new ArrayList<>();
+    List<Integer> output = new ArrayList<>();
+    trie.add(newRow(alphabet.length));
+    output.add(NO_MATCH);
+    for (int rank = 0; rank < keywords.size(); rank++) {
+      String keyword = keywords.get(rank).toLowerCase(Locale.ROOT);
+      if (keyword.isEmpty()) {
+        continue;
+      }
+      int state = 0;
+      for (int i = 0; i < keyword.length(); i++) {
+        int symbol = symbolOf[keyword.charAt(i)];
+        if (trie.get(state)[symbol] < 0) {
+          trie.get(state)[symbol] = trie.size();
+          trie.add(newRow(alphabet.length));
+          output.add(NO_MATCH);
+        }
+        state = trie.get(state)[symbol];
+      }
+      if (output.get(state) == NO_MATCH) {
+        output.set(state, rank);
+      }
+    }
+
+    int states = trie.size();
+    int[][] next = trie.toArray(new int[0][]);
+    int[] best = new int[states];
+    int[] fail = new int[states];
+    for (int s = 0; s < states; s++) {
+      best[s] = output.get(s);
+    }
+    // Breadth-first: fill missing transitions from the failure state and fold the
+    // failure chain's best rank into each state so the scan never walks suffix links.
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int symbol = 0; symbol < alphabet.length; symbol++) {
+      int child = next[0][symbol];
+      if (child < 0) {
+        next[0][symbol] = 0;
+      } else {
+        fail[child] = 0;
+        queue.add(child);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      best[state] = lower(best[state], best[fail[state]]);
+      for (int symbol = 0; symbol < alphabet.length; symbol++) {
+        int child = next[state][symbol];
+        if (child < 0) {
+          next[state][symbol] = next[fail[state]][symbol];
+        } else {
+          fail[child] = next[fail[state]][symbol];
+          queue.add(child);
+        }
+      }
+    }
+    return new KeywordMatcher(alphabet, symbolOf, next, best);
+  }
+
+  int match(String text) {
+    if (text == null || alphabet.length == 0) {
+      return NO_MATCH;
+    }
+    // Lowercased as a whole, like the keywords: per char, 'İ' would become "i" instead of "i̇". Text that
+    // is already lowercase comes back as the same instance, so the common case does not allocate.
+    String lower = text.toLowerCase(Locale.ROOT);
+    int state = 0;
+    int found = NO_MATCH;
+    for (int i = 0; i < lower.length(); i++) {
+      char c = lower.charAt(i);
+      int symbol = c < symbolOf.length ? symbolOf[c] : -1;
+      state = symbol < 0 ? 0 : next[state][symbol];
+      int rank = best[state];
+      if (rank != NO_MATCH && (found == NO_MATCH || rank < found)) {
+        found = rank;
+        if (found == 0) {
+          break;
+        }
+      }
+    }
+    return found;
+  }
+
+  private static int[] newRow(int size) {
+    int[] row = new int[size];
+    Arrays.fill(row, -1);
+    return row;
+  }
+
+  private static int lower(int a, int b) {
+    if (a == NO_MATCH) {
+      return b;
+    }
+    if (b == NO_MATCH) {
+      return a;
+    }
+    return Math.min(a, b);
+  }
+}
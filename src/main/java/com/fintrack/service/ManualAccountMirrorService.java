@@ -0,0 +1,260 @@
+package com.fintrack.service;
+
+import com.fintrack.model.AccountTransaction;
+import com.fintrack.model.FinancialAccount;
+import com.fintrack.model.TransactionDirection;
+import com.fintrack.provider.ExistingTransactions;
+import com.fintrack.repository.AccountTransactionBatchWriter;
+import com.fintrack.repository.AccountTransactionRepository;
+import com.fintrack.repository.FinancialAccountRepository;
+import com.fintrack.repository.HouseholdMemberRepository;
+import com.fintrack.repository.TransactionsInsertedEvent;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Mirrors transfers to manual accounts (matched on IBAN) as newly inserted transactions arrive.
+@Service
+public class ManualAccountMirrorService {
+  private static final Logger log = LoggerFactory.getLogger(ManualAccountMirrorService.class);
+  private static final Duration INDEX_CACHE_TTL = Duration.ofMinutes(5);
+  private static final Pattern IBAN_PATTERN = Pattern.compile("[A-Z]{2}\\d{2}[A-Z0-9]{11,30}");
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final FinancialAccountRepository accountRepository;
+  private final AccountTransactionRepository transactionRepository;
+  private final AccountTransactionBatchWriter transactionWriter;
+  private final HouseholdMemberRepository householdMemberRepository;
+  private final ConcurrentHashMap<UUID, CachedIndex> indexCache = new ConcurrentHashMap<>();
+
+  public ManualAccountMirrorService(FinancialAccountRepository accountRepository,
+                                    AccountTransactionRepository transactionRepository,
+                                    AccountTransactionBatchWriter transactionWriter,
+                                    HouseholdMemberRepository householdMemberRepository) {
+    this.accountRepository = accountRepository;
+    this.transactionRepository = transactionRepository;
+    this.transactionWriter = transactionWriter;
+    this.householdMemberRepository = householdMemberRepository;
+  }
+
+  // Mirroring is idempotent, so a failed page is simply mirrored again.
+  @Async("manualMirrorExecutor")
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTransactionsInserted(TransactionsInsertedEvent event) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        mirror(event.transactions());
+        return;
+      } catch (Exception ex) {
+        if (attempt >= MAX_ATTEMPTS) {
+          log.warn("Manual account mirroring failed after {} attempts: {}", attempt, ex.getMessage());
+          return;
+        }
+        log.debug("Manual account mirroring failed, retrying: {}", ex.getMessage());
+      }
+    }
+  }
+
+  public void invalidate() {
+    indexCache.clear();
+  }
+
+  private void mirror(List<AccountTransaction> inserted) {
+    ZoneId zoneId = ZoneId.systemDefault();
+    Map<UUID, FinancialAccount> touchedManualAccounts = new LinkedHashMap<>();
+    List<AccountTransaction> mirrors = new ArrayList<>();
+    for (AccountTransaction tx : inserted) {
+      FinancialAccount source = tx.getAccount();
+      if (source == null || source.getId() == null) {
+        continue;
+      }
+      if (isManualAccount(source)) {
+        // Mirrors and manual entries only change the manual account's balance.
+        touchedManualAccounts.computeIfAbsent(source.getId(), id -> accountRepository.findById(id).orElse(null));
+        continue;
+      }
+      if (tx.getDirection() == null || source.getUser() == null) {
+        continue;
+      }
+      Map<String, UUID> index = manualIndex(source.getUser().getId());
+      if (index.isEmpty()) {
+        continue;
+      }
+      String iban = normalizeIban(firstNonBlank(
+          tx.getCounterpartyIban(),
+          extractIbanFromText(tx.getDescription()),
+          extractIbanFromText(tx.getMerchantName())));
+      UUID manualAccountId = iban == null ? null : index.get(iban);
+      if (manualAccountId == null) {
+        continue;
+      }
+      FinancialAccount manualAccount = touchedManualAccounts.computeIfAbsent(
+          manualAccountId, id -> accountRepository.findById(id).orElse(null));
+      if (manualAccount == null) {
+        continue;
+      }
+      LocalDate since = mirrorSince(manualAccount, zoneId);
+      LocalDate txDate = tx.getBookingDate() != null ? tx.getBookingDate() : tx.getValueDate();
+      if (txDate == null || txDate.isBefore(since)) {
+        continue;
+      }
+      mirrors.add(buildMirror(manualAccount, tx));
+    }
+
+    transactionWriter.insertAll(withoutExisting(mirrors));
+
+    for (FinancialAccount manualAccount : touchedManualAccounts.values()) {
+      if (manualAccount == null) {
+        continue;
+      }
+      BigDecimal opening = manualAccount.getOpeningBalance() == null ? BigDecimal.ZERO : manualAccount.getOpeningBalance();
+      BigDecimal balance = opening.add(transactionRepository.sumSignedAmountByAccountId(manualAccount.getId()));
+      manualAccount.setCurrentBalance(balance);
+      manualAccount.setCurrentFiatValue(balance);
+      manualAccount.setFiatCurrency(manualAccount.getCurrency());
+      manualAccount.setLastSyncedAt(Instant.now());
+      accountRepository.save(manualAccount);
+    }
+  }
+
+  // Drops mirrors whose manual:<account>:<transaction> id is already stored, e.g. from an earlier attempt.
+  private List<AccountTransaction> withoutExisting(List<AccountTransaction> mirrors) {
+    Map<UUID, List<AccountTransaction>> byAccount = new LinkedHashMap<>();
+    for (AccountTransaction mirror : mirrors) {
+      byAccount.computeIfAbsent(mirror.getAccount().getId(), id -> new ArrayList<>()).add(mirror);
+    }
+    List<AccountTransaction> fresh = new ArrayList<>(mirrors.size());
+    for (Map.Entry<UUID, List<AccountTransaction>> entry : byAccount.entrySet()) {
+      ExistingTransactions existing = ExistingTransactions.loadIds(transactionRepository, entry.getKey(),
+          entry.getValue().stream().map(AccountTransaction::getExternalId).toList());
+      for (AccountTransaction mirror : entry.getValue()) {
+        if (!existing.contains(mirror.getExternalId())) {
+          fresh.add(mirror);
+        }
+      }
+    }
+    return fresh;
+  }
+
+  private LocalDate mirrorSince(FinancialAccount manualAccount, ZoneId zoneId) {
+    if (manualAccount.getMirrorSince() == null) {
+      // First sync for manual accounts should not backfill history.
+      Instant lastSynced = manualAccount.getLastSyncedAt();
+      manualAccount.setMirrorSince(lastSynced == null
+          ? LocalDate.now(zoneId)
+          : lastSynced.atZone(zoneId).toLocalDate());
+    }
+    return manualAccount.getMirrorSince();
+  }
+
+  private AccountTransaction buildMirror(FinancialAccount manualAccount, AccountTransaction tx) {
+    AccountTransaction mirror = new AccountTransaction();
+    mirror.setAccount(manualAccount);
+    mirror.setAmount(tx.getAmount());
+    mirror.setCurrency(tx.getCurrency());
+    mirror.setDirection(tx.getDirection() == TransactionDirection.OUT
+        ? TransactionDirection.IN
+        : TransactionDirection.OUT);
+    mirror.setBookingDate(tx.getBookingDate());
+    mirror.setValueDate(tx.getValueDate());
+    mirror.setExternalId("manual:" + manualAccount.getId() + ":" + tx.getId());
+    mirror.setProviderTransactionId(tx.getProviderTransactionId());
+    mirror.setStatus(tx.getStatus());
+    mirror.setTransactionType("TRANSFER");
+    mirror.setMerchantName(tx.getAccount().getName());
+    mirror.setDescription("Transfer " + (tx.getDirection() == TransactionDirection.OUT ? "van" : "naar")
+        + " " + tx.getAccount().getName());
+    mirror.setCategory("Transfer");
+    mirror.setCategorySource("system");
+    mirror.setCategoryConfidence(BigDecimal.valueOf(1.0));
+    mirror.setCategoryReason("Afgeleid van overschrijving naar handmatige rekening");
+    mirror.setCounterpartyIban(tx.getAccount().getIban());
+    return mirror;
+  }
+
+  private Map<String, UUID> manualIndex(UUID userId) {
+    Instant now = Instant.now();
+    CachedIndex cached = indexCache.get(userId);
+    if (cached != null && cached.expiresAt().isAfter(now)) {
+      return cached.manualAccountIdByIban();
+    }
+    List<UUID> householdIds = householdMemberRepository.findByUserId(userId).stream()
+        .map(m -> m.getHousehold().getId())
+        .toList();
+    List<FinancialAccount> accounts = householdIds.isEmpty()
+        ? accountRepository.findActiveByUserId(userId)
+        : accountRepository.findActiveByUserIdOrHouseholdIdIn(userId, householdIds);
+    Map<String, UUID> index = new HashMap<>();
+    for (FinancialAccount account : accounts) {
+      if (!isManualAccount(account)) {
+        continue;
+      }
+      String iban = normalizeIban(account.getIban());
+      if (iban != null) {
+        index.put(iban, account.getId());
+      }
+      String accountNumber = normalizeIban(account.getAccountNumber());
+      if (accountNumber != null) {
+        index.putIfAbsent(accountNumber, account.getId());
+      }
+    }
+    indexCache.put(userId, new CachedIndex(now.plus(INDEX_CACHE_TTL), index));
+    return index;
+  }
+
+  private static boolean isManualAccount(FinancialAccount account) {
+    if (account == null || account.getConnection() != null) {
+      return false;
+    }
+    return "manual".equalsIgnoreCase(account.getProvider());
+  }
+
+  private static String extractIbanFromText(String text) {
+    if (text == null) {
+      return null;
+    }
+    Matcher matcher = IBAN_PATTERN.matcher(text.replaceAll("\\s+", ""));
+    if (matcher.find()) {
+      return matcher.group(0);
+    }
+    return null;
+  }
+
+  private static String normalizeIban(String iban) {
+    if (iban == null) {
+      return null;
+    }
+    String cleaned = iban.replaceAll("\\s+", "").trim().toUpperCase();
+    return cleaned.isBlank() ? null : cleaned;
+  }
+
+  private static String firstNonBlank(String... values) {
+    if (values == null) {
+      return null;
+    }
+    for (String value : values) {
+      if (value != null && !value.isBlank()) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  private record CachedIndex(Instant expiresAt, Map<String, UUID> manualAccountIdByIban) {}
+}
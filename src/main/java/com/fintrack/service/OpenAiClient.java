@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintrack.config.GeminiProperties;
 import com.fintrack.dto.AiKeyTestResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -13,6 +15,7 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
@@ -22,39 +25,44 @@ public class OpenAiClient {
   private static final Logger log = LoggerFactory.getLogger(OpenAiClient.class);
   private static final Pattern CATEGORY_PATTERN = Pattern.compile("\\\"category\\\"\\s*:\\s*\\\"([^\\\"]+)\\\"");
   private static final Pattern RETRY_DELAY_PATTERN = Pattern.compile("\\\"retryDelay\\\"\\s*:\\s*\\\"(\\d+)(?:\\.\\d+)?s\\\"");
-  private static final Duration MIN_REQUEST_SPACING = Duration.ofSeconds(2);
   private static final Duration QUOTA_COOLDOWN = Duration.ofHours(24);
   private static final Duration DEFAULT_RATE_LIMIT_COOLDOWN = Duration.ofMinutes(15);
   private static final Duration DEFAULT_QUOTA_COOLDOWN = Duration.ofMinutes(10);
+  private static final int BATCH_OUTPUT_TOKENS_PER_ITEM = 24;
+  private static final int MAX_BATCH_OUTPUT_TOKENS = 4096;
 
   private final GeminiProperties properties;
   private final ObjectMapper objectMapper;
   private final RestClient restClient;
   private final AppSettingsService appSettingsService;
-  private final Object requestLock = new Object();
-  private volatile long nextAllowedRequestAtMs = 0L;
+  private final AiRateLimiter rateLimiter;
 
-  public OpenAiClient(GeminiProperties properties, ObjectMapper objectMapper, AppSettingsService appSettingsService) {
+  public OpenAiClient(GeminiProperties properties,
+                      ObjectMapper objectMapper,
+                      AppSettingsService appSettingsService,
+                      AiRateLimiter rateLimiter) {
     this.properties = properties;
     this.objectMapper = objectMapper;
     this.appSettingsService = appSettingsService;
+    this.rateLimiter = rateLimiter;
     String baseUrl = properties.baseUrl() == null || properties.baseUrl().isBlank()
         ? "https://generativelanguage.googleapis.com"
         : properties.baseUrl();
-    this.restClient = RestClient.builder().baseUrl(baseUrl).build();
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(properties.connectTimeout());
+    requestFactory.setReadTimeout(properties.readTimeout());
+    this.restClient = RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build();
   }
 
   public String classify(String systemPrompt, String userPrompt, List<String> allowedCategories) {
-    if (!appSettingsService.isAiAvailable()) {
-      return null;
-    }
-    if (properties.apiKey() == null || properties.apiKey().isBlank()) {
+    if (!isConfigured()) {
       return null;
     }
 
+    String prompt = buildPrompt(systemPrompt, userPrompt);
     Map<String, Object> body = Map.of(
         "contents", List.of(
-            Map.of("parts", List.of(Map.of("text", buildPrompt(systemPrompt, userPrompt))))
+            Map.of("parts", List.of(Map.of("text", prompt)))
         ),
         "generationConfig", Map.of(
             "temperature", 0.2,
@@ -62,11 +70,77 @@ public class OpenAiClient {
             "candidateCount", 1
         )
     );
+    return extractCategory(generate(body, estimateTokens(prompt, 80)), allowedCategories);
+  }
 
-    String model = resolveModel();
+  // One request for several transactions; the result has one entry per prompt, null where the
+  // model returned nothing usable so callers can fall back per item.
+  public List<String> classifyBatch(String systemPrompt, List<String> itemPrompts, List<String> allowedCategories) {
+    List<String> results = new ArrayList<>(Collections.nCopies(itemPrompts.size(), (String) null));
+    if (itemPrompts.isEmpty() || !isConfigured()) {
+      return results;
+    }
+    StringBuilder items = new StringBuilder();
+    for (int i = 0; i < itemPrompts.size(); i++) {
+      items.append("Transaction ").append(i + 1).append(":\n")
+          .append(itemPrompts.get(i) == null ? "" : itemPrompts.get(i).trim())
+          .append("\n\n");
+    }
+    int maxOutputTokens = Math.min(MAX_BATCH_OUTPUT_TOKENS, 64 + BATCH_OUTPUT_TOKENS_PER_ITEM * itemPrompts.size());
+    String prompt = buildPrompt(systemPrompt, items.toString());
+    Map<String, Object> body = Map.of(
+        "contents", List.of(
+            Map.of("parts", List.of(Map.of("text", prompt)))
+        ),
+        "generationConfig", Map.of(
+            "temperature", 0.2,
+            "maxOutputTokens", maxOutputTokens,
+            "candidateCount", 1,
+            "responseMimeType", "application/json"
+        )
+    );
+    String content = generate(body, estimateTokens(prompt, maxOutputTokens));
+    if (content == null || content.isBlank()) {
+      return results;
+    }
+    try {
+      JsonNode node = objectMapper.readTree(stripCodeFence(content));
+      JsonNode entries = node.isArray() ? node : node.path("results");
+      for (JsonNode entry : entries) {
+        int index = entry.path("id").asInt(0) - 1;
+        if (index < 0 || index >= results.size()) {
+          continue;
+        }
+        results.set(index, normalizeCategory(entry.path("category").asText(null), allowedCategories));
+      }
+    } catch (Exception ex) {
+      log.warn("Gemini batch categorization returned unparseable output: {}", ex.getMessage());
+    }
+    return results;
+  }
 
+  public String currentModel() {
+    return resolveModel();
+  }
+
+  // False while the current model's RPM or daily budget is spent; callers can defer instead of failing items.
+  public boolean hasBudget() {
+    return rateLimiter.hasBudget(resolveModel());
+  }
+
+  private boolean isConfigured() {
+    return appSettingsService.isAiAvailable()
+        && properties.apiKey() != null
+        && !properties.apiKey().isBlank();
+  }
+
+  private String generate(Map<String, Object> body, int estimatedTokens) {
+    String model = resolveModel();
+    if (!rateLimiter.tryAcquire(model, estimatedTokens)) {
+      log.debug("Gemini request skipped: no rate budget left for {}", model);
+      return null;
+    }
     try {
-      throttleRequests();
       JsonNode response = restClient.post()
           .uri(uriBuilder -> uriBuilder
               .path("/v1beta/models/{model}:generateContent")
@@ -77,9 +151,7 @@ public class OpenAiClient {
           .body(body)
           .retrieve()
           .body(JsonNode.class);
-
-      String content = extractGeminiText(response);
-      return extractCategory(content, allowedCategories);
+      return extractGeminiText(response);
     } catch (RestClientResponseException ex) {
       handleAiFailure(ex);
       return null;
@@ -89,6 +161,21 @@ public class OpenAiClient {
     }
   }
 
+  // Rough prompt size (about four characters per token) plus the output allowance.
+  private int estimateTokens(String prompt, int maxOutputTokens) {
+    return (prompt == null ? 0 : prompt.length() / 4) + maxOutputTokens;
+  }
+
+  private String stripCodeFence(String content) {
+    String trimmed = content.trim();
+    if (!trimmed.startsWith("```")) {
+      return trimmed;
+    }
+    int start = trimmed.indexOf('\n');
+    int end = trimmed.lastIndexOf("```");
+    return start < 0 || end <= start ? trimmed : trimmed.substring(start + 1, end).trim();
+  }
+
   public AiKeyTestResponse testApiKey() {
     if (properties.apiKey() == null || properties.apiKey().isBlank()) {
       return new AiKeyTestResponse(false, "missing_key", "Gemini API key ontbreekt.");
@@ -222,21 +309,6 @@ public class OpenAiClient {
     return null;
   }
 
-  private void throttleRequests() {
-    synchronized (requestLock) {
-      long now = System.currentTimeMillis();
-      long waitMs = nextAllowedRequestAtMs - now;
-      if (waitMs > 0) {
-        try {
-          Thread.sleep(waitMs);
-        } catch (InterruptedException interrupted) {
-          Thread.currentThread().interrupt();
-        }
-      }
-      nextAllowedRequestAtMs = System.currentTimeMillis() + MIN_REQUEST_SPACING.toMillis();
-    }
-  }
-
   private Duration determine429Cooldown(String lowerMessage, String rawBody) {
     if (containsDailyQuotaSignal(lowerMessage)) {
       return QUOTA_COOLDOWN;
@@ -0,0 +1,291 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.RecategorizeJobResponse;
+import com.fintrack.dto.RecategorizeResponse;
+import com.fintrack.model.AccountTransaction;
+import com.fintrack.model.AccountType;
+import com.fintrack.model.FinancialAccount;
+import com.fintrack.repository.AccountTransactionBatchWriter;
+import com.fintrack.repository.AccountTransactionRepository;
+import com.fintrack.repository.FinancialAccountRepository;
+import com.fintrack.repository.HouseholdMemberRepository;
+import com.fintrack.repository.MonthlyRollupWriter;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+// Re-runs categorization over everything a user can see, chunk by chunk: keyset pages of CHUNK_SIZE,
+// rule categorization in parallel slices, AI in batches, and JDBC updates for changed rows only.
+@Service
+public class RecategorizeService {
+  private static final Logger log = LoggerFactory.getLogger(RecategorizeService.class);
+  private static final int CHUNK_SIZE = 1000;
+  private static final int SLICE_SIZE = 250;
+  private static final int MAX_AI_REQUESTS_PER_RELABEL_RUN = 30;
+  private static final Duration FINISHED_JOB_TTL = Duration.ofHours(1);
+
+  private final FinancialAccountRepository accountRepository;
+  private final HouseholdMemberRepository householdMemberRepository;
+  private final AccountTransactionRepository transactionRepository;
+  private final AccountTransactionBatchWriter transactionWriter;
+  private final MonthlyRollupWriter rollupWriter;
+  private final CategoryService categoryService;
+  private final Executor jobExecutor;
+  private final Executor categorizationExecutor;
+  private final ConcurrentHashMap<UUID, Job> jobs = new ConcurrentHashMap<>();
+  // The running job per user; putIfAbsent makes "one running job per user" atomic.
+  private final ConcurrentHashMap<UUID, Job> runningJobs = new ConcurrentHashMap<>();
+
+  public RecategorizeService(FinancialAccountRepository accountRepository,
+                             HouseholdMemberRepository householdMemberRepository,
+                             AccountTransactionRepository transactionRepository,
+                             AccountTransactionBatchWriter transactionWriter,
+                             MonthlyRollupWriter rollupWriter,
+                             CategoryService categoryService,
+                             @Qualifier("recategorizeJobExecutor") Executor jobExecutor,
+                             @Qualifier("categorizationExecutor") Executor categorizationExecutor) {
+    this.accountRepository = accountRepository;
+    this.householdMemberRepository = householdMemberRepository;
+    this.transactionRepository = transactionRepository;
+    this.transactionWriter = transactionWriter;
+    this.rollupWriter = rollupWriter;
+    this.categoryService = categoryService;
+    this.jobExecutor = jobExecutor;
+    this.categorizationExecutor = categorizationExecutor;
+  }
+
+  public RecategorizeResponse recategorizeAll(UUID userId) {
+    Job job = new Job(userId);
+    run(job);
+    return new RecategorizeResponse(job.updated.get(), job.total, job.aiCount.get());
+  }
+
+  public RecategorizeJobResponse startJob(UUID userId) {
+    purgeFinishedJobs();
+    Job job = new Job(userId);
+    Job existing = runningJobs.putIfAbsent(userId, job);
+    if (existing != null) {
+      return existing.toResponse();
+    }
+    jobs.put(job.id, job);
+    try {
+      jobExecutor.execute(() -> {
+        // Finished in the finally so an Error cannot leave the job RUNNING and block the user.
+        String error = "Job stopped unexpectedly";
+        try {
+          run(job);
+          error = null;
+        } catch (Exception ex) {
+          log.warn("Recategorization job {} failed: {}", job.id, ex.getMessage());
+          error = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+        } finally {
+          job.finish(error);
+          runningJobs.remove(userId, job);
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      jobs.remove(job.id);
+      runningJobs.remove(userId, job);
+      throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many recategorization jobs running");
+    }
+    return job.toResponse();
+  }
+
+  public RecategorizeJobResponse getJob(UUID userId, UUID jobId) {
+    Job job = jobs.get(jobId);
+    if (job == null || !job.userId.equals(userId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found");
+    }
+    return job.toResponse();
+  }
+
+  private void run(Job job) {
+    Map<UUID, AccountType> accountTypes = activeAccountTypes(job.userId);
+    if (accountTypes.isEmpty()) {
+      return;
+    }
+    List<UUID> accountIds = List.copyOf(accountTypes.keySet());
+    job.total = (int) transactionRepository.countByAccountIdIn(accountIds);
+    int aiBudget = MAX_AI_REQUESTS_PER_RELABEL_RUN * CategoryService.AI_BATCH_SIZE;
+    UUID afterId = null;
+    while (true) {
+      PageRequest page = PageRequest.of(0, CHUNK_SIZE);
+      List<AccountTransaction> chunk = afterId == null
+          ? transactionRepository.findChunkStart(accountIds, page)
+          : transactionRepository.findChunkAfter(accountIds, afterId, page);
+      if (chunk.isEmpty()) {
+        break;
+      }
+      aiBudget -= processChunk(job, chunk, accountTypes, aiBudget);
+      job.processed.addAndGet(chunk.size());
+      afterId = chunk.get(chunk.size() - 1).getId();
+      if (chunk.size() < CHUNK_SIZE) {
+        break;
+      }
+    }
+  }
+
+  // Returns the number of rows sent to the AI, which is charged against the run's budget.
+  private int processChunk(Job job,
+                           List<AccountTransaction> chunk,
+                           Map<UUID, AccountType> accountTypes,
+                           int aiBudget) {
+    List<CategoryService.CategoryResult> results = categorizeInParallel(job.userId, chunk, accountTypes);
+
+    List<Integer> aiIndexes = new ArrayList<>();
+    for (int i = 0; i < results.size() && aiIndexes.size() < aiBudget; i++) {
+      if (categoryService.needsAi(results.get(i))) {
+        aiIndexes.add(i);
+      }
+    }
+    boolean[] aiAttempted = new boolean[chunk.size()];
+    if (!aiIndexes.isEmpty()) {
+      List<CategoryService.AiRequest> requests = aiIndexes.stream()
+          .map(index -> CategoryService.AiRequest.from(chunk.get(index)))
+          .toList();
+      List<CategoryService.CategoryResult> aiResults = categoryService.classifyWithAi(job.userId, requests);
+      for (int i = 0; i < aiIndexes.size(); i++) {
+        int index = aiIndexes.get(i);
+        aiAttempted[index] = true;
+        if (i < aiResults.size() && aiResults.get(i) != null) {
+          results.set(index, aiResults.get(i));
+        }
+      }
+    }
+
+    List<AccountTransaction> changed = new ArrayList<>();
+    List<MonthlyRollupWriter.CategoryChange> categoryChanges = new ArrayList<>();
+    for (int i = 0; i < chunk.size(); i++) {
+      AccountTransaction tx = chunk.get(i);
+      CategoryService.CategoryResult categoryResult = results.get(i);
+      if (categoryResult.category() == null) {
+        continue;
+      }
+      if ("ai".equalsIgnoreCase(categoryResult.source())) {
+        job.aiCount.incrementAndGet();
+      }
+      // Keep existing explicit category when AI budget is exhausted and rule fallback has no match.
+      if (!aiAttempted[i]
+          && "Overig".equalsIgnoreCase(categoryResult.category())
+          && tx.getCategory() != null
+          && !tx.getCategory().isBlank()) {
+        continue;
+      }
+      BigDecimal confidence = categoryResult.confidence() == null
+          ? tx.getCategoryConfidence()
+          : BigDecimal.valueOf(categoryResult.confidence());
+      boolean isChanged = !Objects.equals(tx.getCategory(), categoryResult.category())
+          || !Objects.equals(tx.getCategorySource(), categoryResult.source())
+          || !Objects.equals(tx.getCategoryReason(), categoryResult.reason())
+          || !Objects.equals(tx.getCategoryConfidence(), confidence);
+      if (!isChanged) {
+        continue;
+      }
+      categoryChanges.add(new MonthlyRollupWriter.CategoryChange(tx, tx.getCategory()));
+      tx.setCategory(categoryResult.category());
+      tx.setCategorySource(categoryResult.source());
+      tx.setCategoryConfidence(confidence);
+      tx.setCategoryReason(categoryResult.reason());
+      changed.add(tx);
+    }
+    transactionWriter.updateCategories(changed);
+    rollupWriter.recordCategoryChanges(categoryChanges);
+    job.updated.addAndGet(changed.size());
+    return aiIndexes.size();
+  }
+
+  private List<CategoryService.CategoryResult> categorizeInParallel(UUID userId,
+                                                                    List<AccountTransaction> chunk,
+                                                                    Map<UUID, AccountType> accountTypes) {
+    List<CompletableFuture<List<CategoryService.CategoryResult>>> slices = new ArrayList<>();
+    for (int start = 0; start < chunk.size(); start += SLICE_SIZE) {
+      List<AccountTransaction> slice = chunk.subList(start, Math.min(chunk.size(), start + SLICE_SIZE));
+      slices.add(CompletableFuture.supplyAsync(
+          () -> slice.stream().map(tx -> categorize(userId, tx, accountTypes)).toList(),
+          categorizationExecutor));
+    }
+    List<CategoryService.CategoryResult> results = new ArrayList<>(chunk.size());
+    for (CompletableFuture<List<CategoryService.CategoryResult>> slice : slices) {
+      results.addAll(slice.join());
+    }
+    return results;
+  }
+
+  private CategoryService.CategoryResult categorize(UUID userId,
+                                                    AccountTransaction tx,
+                                                    Map<UUID, AccountType> accountTypes) {
+    return categoryService.categorizeDetailed(userId, tx, accountTypes.get(tx.getAccount().getId()), false);
+  }
+
+  private Map<UUID, AccountType> activeAccountTypes(UUID userId) {
+    List<UUID> householdIds = householdMemberRepository.findByUserId(userId).stream()
+        .map(member -> member.getHousehold().getId())
+        .toList();
+    List<FinancialAccount> accounts = householdIds.isEmpty()
+        ? accountRepository.findActiveByUserId(userId)
+        : accountRepository.findActiveByUserIdOrHouseholdIdIn(userId, householdIds);
+    Map<UUID, AccountType> types = new HashMap<>();
+    for (FinancialAccount account : accounts) {
+      types.put(account.getId(), account.getType());
+    }
+    return types;
+  }
+
+  private void purgeFinishedJobs() {
+    Instant cutoff = Instant.now().minus(FINISHED_JOB_TTL);
+    jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+  }
+
+  private static final class Job {
+    private final UUID id = UUID.randomUUID();
+    private final UUID userId;
+    private final Instant startedAt = Instant.now();
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger aiCount = new AtomicInteger();
+    private volatile int total;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    private Job(UUID userId) {
+      this.userId = userId;
+    }
+
+    private void finish(String error) {
+      this.error = error;
+      this.finishedAt = Instant.now();
+    }
+
+    private RecategorizeJobResponse toResponse() {
+      String status = finishedAt == null ? "RUNNING" : (error == null ? "COMPLETED" : "FAILED");
+      return new RecategorizeJobResponse(
+          id,
+          status,
+          total,
+          processed.get(),
+          updated.get(),
+          aiCount.get(),
+          startedAt,
+          finishedAt,
+          error);
+    }
+  }
+}
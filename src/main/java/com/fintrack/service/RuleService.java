@@ -3,16 +3,16 @@ package com.fintrack.service;
 import com.fintrack.dto.RecategorizeResponse;
 import com.fintrack.dto.RuleRequest;
 import com.fintrack.dto.RuleResponse;
-import com.fintrack.model.AccountTransaction;
 import com.fintrack.model.CategoryOverride;
 import com.fintrack.model.HouseholdMember;
+import com.fintrack.model.MatchKeys;
 import com.fintrack.model.User;
 import com.fintrack.repository.AccountTransactionRepository;
 import com.fintrack.repository.CategoryOverrideRepository;
+import com.fintrack.repository.CategoryRuleWriter;
+import com.fintrack.repository.FinancialAccountRepository;
 import com.fintrack.repository.HouseholdMemberRepository;
 import com.fintrack.repository.UserRepository;
-import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -25,16 +25,25 @@ public class RuleService {
   private final CategoryOverrideRepository overrideRepository;
   private final AccountTransactionRepository transactionRepository;
   private final HouseholdMemberRepository householdMemberRepository;
+  private final FinancialAccountRepository accountRepository;
   private final UserRepository userRepository;
+  private final CategoryRuleWriter ruleWriter;
+  private final CategoryOverrideIndex overrideIndex;
 
   public RuleService(CategoryOverrideRepository overrideRepository,
                      AccountTransactionRepository transactionRepository,
                      HouseholdMemberRepository householdMemberRepository,
-                     UserRepository userRepository) {
+                     FinancialAccountRepository accountRepository,
+                     UserRepository userRepository,
+                     CategoryRuleWriter ruleWriter,
+                     CategoryOverrideIndex overrideIndex) {
     this.overrideRepository = overrideRepository;
     this.transactionRepository = transactionRepository;
     this.householdMemberRepository = householdMemberRepository;
+    this.accountRepository = accountRepository;
     this.userRepository = userRepository;
+    this.ruleWriter = ruleWriter;
+    this.overrideIndex = overrideIndex;
   }
 
   public List<RuleResponse> listRules(UUID userId) {
@@ -50,7 +59,7 @@ public class RuleService {
     String matchValue = requireText(request.getMatchValue(), "matchValue");
     String category = requireText(request.getCategory(), "category");
     CategoryOverride.MatchMode matchMode = parseMatchMode(request.getMatchMode());
-    String normalizedValue = normalize(matchValue);
+    String normalizedValue = MatchKeys.normalize(matchValue);
     if (normalizedValue == null) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "matchValue is invalid");
     }
@@ -61,6 +70,7 @@ public class RuleService {
     override.setMatchMode(matchMode);
     override.setCategory(category);
     CategoryOverride saved = overrideRepository.save(override);
+    overrideIndex.invalidate(userId);
     if (Boolean.TRUE.equals(request.isApplyToHistory())) {
       applyRuleToHistory(userId, saved.getId());
     }
@@ -73,7 +83,7 @@ public class RuleService {
       override.setMatchType(parseMatchType(request.getMatchType()));
     }
     if (request.getMatchValue() != null && !request.getMatchValue().isBlank()) {
-      override.setMatchValue(normalize(request.getMatchValue()));
+      override.setMatchValue(MatchKeys.normalize(request.getMatchValue()));
     }
     if (request.getMatchMode() != null && !request.getMatchMode().isBlank()) {
       override.setMatchMode(parseMatchMode(request.getMatchMode()));
@@ -83,12 +93,14 @@ public class RuleService {
     }
     override.touch();
     CategoryOverride saved = overrideRepository.save(override);
+    overrideIndex.invalidate(userId);
     return toResponse(saved);
   }
 
   public void deleteRule(UUID userId, UUID ruleId) {
     CategoryOverride override = requireRule(userId, ruleId);
     overrideRepository.delete(override);
+    overrideIndex.invalidate(userId);
   }
 
   public RecategorizeResponse applyRuleToHistory(UUID userId, UUID ruleId) {
@@ -96,30 +108,15 @@ public class RuleService {
     List<UUID> householdIds = householdMemberRepository.findByUserId(userId).stream()
         .map(m -> m.getHousehold().getId())
         .toList();
-    List<AccountTransaction> transactions = householdIds.isEmpty()
-        ? transactionRepository.findUserTransactions(userId)
-        : transactionRepository.findUserAndHouseholdTransactions(userId, householdIds);
-
-    int updated = 0;
-    List<AccountTransaction> toSave = new ArrayList<>();
-    for (AccountTransaction tx : transactions) {
-      if (!matches(override, tx)) {
-        continue;
-      }
-      boolean changed = !override.getCategory().equalsIgnoreCase(tx.getCategory() == null ? "" : tx.getCategory());
-      tx.setCategory(override.getCategory());
-      tx.setCategorySource("override");
-      tx.setCategoryReason("Gebruikersregel");
-      tx.setCategoryConfidence(BigDecimal.valueOf(0.98));
-      if (changed) {
-        updated++;
-      }
-      toSave.add(tx);
-    }
-    if (!toSave.isEmpty()) {
-      transactionRepository.saveAll(toSave);
+    List<UUID> accountIds = householdIds.isEmpty()
+        ? accountRepository.findActiveIdsByUserId(userId)
+        : accountRepository.findActiveIdsByUserIdOrHouseholdIdIn(userId, householdIds);
+    if (accountIds.isEmpty()) {
+      return new RecategorizeResponse(0, 0, 0);
     }
-    return new RecategorizeResponse(updated, transactions.size(), 0);
+    int updated = ruleWriter.apply(accountIds, override);
+    int total = (int) transactionRepository.countByAccountIdIn(accountIds);
+    return new RecategorizeResponse(updated, total, 0);
   }
 
   private CategoryOverride requireRule(UUID userId, UUID ruleId) {
@@ -150,42 +147,6 @@ public class RuleService {
     }
   }
 
-  private boolean matches(CategoryOverride override, AccountTransaction tx) {
-    CategoryOverride.MatchMode mode = override.getMatchMode() == null
-        ? CategoryOverride.MatchMode.CONTAINS
-        : override.getMatchMode();
-    return switch (override.getMatchType()) {
-      case IBAN -> equalsNormalized(tx.getCounterpartyIban(), override.getMatchValue());
-      case MERCHANT -> mode == CategoryOverride.MatchMode.EXACT
-          ? equalsNormalized(tx.getMerchantName(), override.getMatchValue())
-          : containsNormalized(tx.getMerchantName(), override.getMatchValue());
-      case DESCRIPTION -> mode == CategoryOverride.MatchMode.EXACT
-          ? equalsNormalized(tx.getDescription(), override.getMatchValue())
-          : containsNormalized(tx.getDescription(), override.getMatchValue());
-    };
-  }
-
-  private boolean equalsNormalized(String value, String matchValue) {
-    String normalized = normalize(value);
-    return normalized != null && normalized.equals(matchValue);
-  }
-
-  private boolean containsNormalized(String value, String matchValue) {
-    String normalized = normalize(value);
-    return normalized != null && normalized.contains(matchValue);
-  }
-
-  private String normalize(String value) {
-    if (value == null) {
-      return null;
-    }
-    String cleaned = value.toLowerCase(Locale.ROOT)
-        .replaceAll("\\s+", " ")
-        .replaceAll("[^a-z0-9]+", "")
-        .trim();
-    return cleaned.isBlank() ? null : cleaned;
-  }
-
   private String requireText(String value, String field) {
     if (value == null || value.trim().isBlank()) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field + " is required");
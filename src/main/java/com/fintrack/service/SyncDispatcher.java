@@ -0,0 +1,118 @@
+package com.fintrack.service;
+
+import com.fintrack.config.SyncProperties;
+import com.fintrack.repository.SyncJobQueue;
+import com.fintrack.repository.SyncJobQueuedEvent;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Claims queued syncs highest priority first, within this node's worker pool and each provider's
+// cluster-wide concurrency cap, which the claim itself enforces. Jobs that do not fit stay in sync_jobs until a slot frees up on any node.
+// Running jobs are leased and renewed; a node that dies stops renewing and its jobs are claimed again.
+@Component
+public class SyncDispatcher {
+  private static final Logger log = LoggerFactory.getLogger(SyncDispatcher.class);
+
+  private final SyncJobQueue queue;
+  private final ConnectionService connectionService;
+  private final SyncProperties properties;
+  private final Executor syncExecutor;
+  private final String owner = nodeName() + "/" + UUID.randomUUID();
+  private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean dispatchPending = new AtomicBoolean();
+
+  public SyncDispatcher(SyncJobQueue queue,
+                        ConnectionService connectionService,
+                        SyncProperties properties,
+                        @Qualifier("syncExecutor") Executor syncExecutor) {
+    this.queue = queue;
+    this.connectionService = connectionService;
+    this.properties = properties;
+    this.syncExecutor = syncExecutor;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    dispatch();
+  }
+
+  // Runs after the enqueue commits, so the row is visible, and off the requesting thread. Requests that
+  // arrive while a pass is pending share it; the scheduled pass covers a rejected hand-off.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onSyncJobQueued(SyncJobQueuedEvent event) {
+    if (!dispatchPending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      syncExecutor.execute(() -> {
+        dispatchPending.set(false);
+        dispatch();
+      });
+    } catch (TaskRejectedException ex) {
+      dispatchPending.set(false);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${fintrack.sync.dispatch-ms:5000}")
+  public synchronized void dispatch() {
+    if (running.size() >= properties.workerCount()) {
+      return;
+    }
+    Instant now = Instant.now();
+    Map<String, Integer> providerCaps = properties.concurrencyLimits();
+    while (running.size() < properties.workerCount()) {
+      Optional<SyncJobQueue.Job> claimed = queue.claimNext(
+          owner, now, now.plus(properties.leaseDuration()), providerCaps, properties.defaultConcurrency());
+      if (claimed.isEmpty()) {
+        return;
+      }
+      SyncJobQueue.Job job = claimed.get();
+      running.add(job.connectionId());
+      syncExecutor.execute(() -> run(job));
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${fintrack.sync.lease-renew-ms:60000}")
+  public void renewLeases() {
+    queue.renewLeases(owner, Set.copyOf(running), Instant.now().plus(properties.leaseDuration()));
+  }
+
+  private void run(SyncJobQueue.Job job) {
+    try {
+      connectionService.runQueuedSync(job.connectionId(), job.mode());
+    } catch (Exception ex) {
+      log.warn("Sync of connection {} failed: {}", job.connectionId(), ex.getMessage());
+    } finally {
+      try {
+        queue.complete(job.connectionId(), owner);
+      } finally {
+        running.remove(job.connectionId());
+      }
+    }
+    dispatch();
+  }
+
+  private static String nodeName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (Exception ex) {
+      return "node";
+    }
+  }
+}
@@ -34,13 +34,14 @@ public class SyncScheduler {
     connectionRepository.findByAutoSyncEnabledTrueAndStatus(ConnectionStatus.ACTIVE)
         .stream()
         .filter(connection -> shouldSync(connection, now, intervalMs, cryptoIntervalMs))
-        .forEach(connectionService::syncConnection);
+        .forEach(connectionService::requestBackgroundSync);
   }
 
   private boolean shouldSync(com.fintrack.model.Connection connection,
                              Instant now,
                              long intervalMs,
                              long cryptoIntervalMs) {
+    // QUEUED connections pass through: re-queueing is a no-op for a waiting job and restores a lost one.
     if (connection.getSyncStatus() == SyncStatus.RUNNING) {
       return false;
     }
@@ -1,14 +1,21 @@
 package com.fintrack.service;
 
 import com.fintrack.model.TransactionDirection;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.Locale;
+import java.util.List;
 import java.util.Map;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TransactionCategorizer {
+  private static final RuleMatch TRANSFER = new RuleMatch("Transfer", "Type TRANSFER");
+  private static final RuleMatch INCOME = new RuleMatch("Inkomen", "Inkomende transactie");
+  private static final RuleMatch NO_MATCH = new RuleMatch("Overig", "Geen match");
+
   private final Map<String, String[]> rules = new LinkedHashMap<>();
+  private final KeywordMatcher matcher;
+  private final RuleMatch[] matchesByKeyword;
 
   public TransactionCategorizer() {
     rules.put("Boodschappen", new String[]{"carrefour", "colruyt", "delhaize", "aldi", "lidl", "spar", "ah", "albert heijn", "okay", "bioplanet", "supermarket"});
@@ -21,6 +28,18 @@ public class TransactionCategorizer {
     rules.put("Gezondheid", new String[]{"apotheek", "pharmacy", "dokter", "ziekenhuis", "hospital", "kliniek"});
     rules.put("Onderwijs", new String[]{"school", "university", "opleiding", "course", "college"});
     rules.put("Cash", new String[]{"atm", "geldautomaat", "cash withdrawal"});
+
+    // Keyword rank = declaration order, so the lowest rank found is the first rule that would match.
+    List<String> keywords = new ArrayList<>();
+    List<RuleMatch> matches = new ArrayList<>();
+    for (Map.Entry<String, String[]> entry : rules.entrySet()) {
+      for (String keyword : entry.getValue()) {
+        keywords.add(keyword);
+        matches.add(new RuleMatch(entry.getKey(), "Match op '" + keyword + "'"));
+      }
+    }
+    this.matcher = KeywordMatcher.compile(keywords);
+    this.matchesByKeyword = matches.toArray(new RuleMatch[0]);
   }
 
   public String categorize(String description, TransactionDirection direction) {
@@ -33,20 +52,13 @@ public class TransactionCategorizer {
 
   public RuleMatch categorizeDetailed(String description, TransactionDirection direction, String transactionType) {
     if (transactionType != null && transactionType.equalsIgnoreCase("TRANSFER")) {
-      return new RuleMatch("Transfer", "Type TRANSFER");
+      return TRANSFER;
     }
     if (direction == TransactionDirection.IN) {
-      return new RuleMatch("Inkomen", "Inkomende transactie");
-    }
-    String normalized = description == null ? "" : description.toLowerCase(Locale.ROOT);
-    for (Map.Entry<String, String[]> entry : rules.entrySet()) {
-      for (String keyword : entry.getValue()) {
-        if (normalized.contains(keyword)) {
-          return new RuleMatch(entry.getKey(), "Match op '" + keyword + "'");
-        }
-      }
+      return INCOME;
     }
-    return new RuleMatch("Overig", "Geen match");
+    int keyword = matcher.match(description);
+    return keyword == KeywordMatcher.NO_MATCH ? NO_MATCH : matchesByKeyword[keyword];
   }
 
   public record RuleMatch(String category, String reason) {}
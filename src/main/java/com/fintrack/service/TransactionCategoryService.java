@@ -35,10 +35,14 @@ public class TransactionCategoryService {
 
   private final TransactionCategoryRepository categoryRepository;
   private final UserRepository userRepository;
+  private final AiClassificationCache aiCache;
 
-  public TransactionCategoryService(TransactionCategoryRepository categoryRepository, UserRepository userRepository) {
+  public TransactionCategoryService(TransactionCategoryRepository categoryRepository,
+                                    UserRepository userRepository,
+                                    AiClassificationCache aiCache) {
     this.categoryRepository = categoryRepository;
     this.userRepository = userRepository;
+    this.aiCache = aiCache;
   }
 
   public List<CategoryResponse> list(UUID userId) {
@@ -65,6 +69,7 @@ public class TransactionCategoryService {
     category.setUser(user);
     category.setName(name);
     TransactionCategory saved = categoryRepository.save(category);
+    aiCache.invalidate(userId);
     return toResponse(saved);
   }
 
@@ -81,12 +86,14 @@ public class TransactionCategoryService {
         });
     category.setName(name);
     TransactionCategory saved = categoryRepository.save(category);
+    aiCache.invalidate(userId);
     return toResponse(saved);
   }
 
   public void delete(UUID userId, UUID categoryId) {
     TransactionCategory category = requireCategory(userId, categoryId);
     categoryRepository.delete(category);
+    aiCache.invalidate(userId);
   }
 
   private void seedDefaults(UUID userId) {
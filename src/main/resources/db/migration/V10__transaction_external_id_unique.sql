@@ -0,0 +1,36 @@
+-- Overlapping syncs of one connection could import a row twice. Keep the earliest copy, as the import
+-- lookup does, then let the database reject any further duplicate.
+CREATE TEMP TABLE duplicate_transactions ON COMMIT DROP AS
+SELECT id, account_id FROM (
+  SELECT id, account_id,
+         row_number() OVER (PARTITION BY account_id, external_id ORDER BY created_at NULLS LAST, id) AS copy
+  FROM account_transactions
+  WHERE external_id IS NOT NULL
+) copies
+WHERE copy > 1;
+
+-- Transfers mirrored to manual accounts from a removed copy go with it.
+INSERT INTO duplicate_transactions (id, account_id)
+SELECT m.id, m.account_id
+FROM account_transactions m
+JOIN duplicate_transactions d ON m.external_id = 'manual:' || m.account_id || ':' || d.id;
+
+DELETE FROM account_transactions WHERE id IN (SELECT id FROM duplicate_transactions);
+
+-- Rollups of the affected accounts are rebuilt from the remaining rows.
+UPDATE financial_accounts SET rollups_built_at = NULL
+WHERE id IN (SELECT account_id FROM duplicate_transactions);
+
+UPDATE financial_accounts a
+SET current_balance = coalesce(a.opening_balance, 0) + coalesce((
+      SELECT sum(CASE WHEN t.direction = 'IN' THEN t.amount ELSE -t.amount END)
+      FROM account_transactions t WHERE t.account_id = a.id), 0),
+    current_fiat_value = coalesce(a.opening_balance, 0) + coalesce((
+      SELECT sum(CASE WHEN t.direction = 'IN' THEN t.amount ELSE -t.amount END)
+      FROM account_transactions t WHERE t.account_id = a.id), 0)
+WHERE a.connection_id IS NULL AND lower(a.provider) = 'manual'
+  AND a.id IN (SELECT account_id FROM duplicate_transactions);
+
+DROP INDEX IF EXISTS idx_account_transactions_account_external_id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_account_transactions_account_external_id
+  ON account_transactions (account_id, external_id);
@@ -0,0 +1,3 @@
+-- Fingerprints now include the counterparty IBAN and are never taken from rows without merchant or
+-- description letters, so earlier entries can no longer be hit; some were shared by unrelated rows.
+DELETE FROM ai_classifications;
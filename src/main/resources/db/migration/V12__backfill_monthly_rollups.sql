@@ -0,0 +1,18 @@
+-- Builds monthly_rollups once for every account whose history was never rolled up (or was reset by V10),
+-- so dashboard reads no longer rebuild them. From here on the import, categorization and correction paths
+-- keep them current.
+DELETE FROM monthly_rollups
+WHERE account_id IN (SELECT id FROM financial_accounts WHERE rollups_built_at IS NULL);
+
+INSERT INTO monthly_rollups (id, account_id, period_start, currency, category, direction, total, tx_count, updated_at)
+SELECT gen_random_uuid(), t.account_id, cast(date_trunc('month', t.booking_date) AS DATE), t.currency,
+       coalesce(t.category, 'Overig'), t.direction, sum(t.amount), count(*), now()
+FROM account_transactions t
+JOIN financial_accounts a ON a.id = t.account_id
+WHERE a.rollups_built_at IS NULL
+  AND t.booking_date IS NOT NULL AND t.amount IS NOT NULL
+  AND t.currency IS NOT NULL AND t.direction IS NOT NULL
+GROUP BY t.account_id, cast(date_trunc('month', t.booking_date) AS DATE), t.currency,
+         coalesce(t.category, 'Overig'), t.direction;
+
+ALTER TABLE financial_accounts DROP COLUMN IF EXISTS rollups_built_at;
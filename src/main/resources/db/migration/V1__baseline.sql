@@ -0,0 +1,187 @@
+-- Baseline of the schema previously maintained by hibernate ddl-auto=update.
+-- Every statement is idempotent so databases created by ddl-auto converge on the same shape.
+
+CREATE TABLE IF NOT EXISTS users (
+  id UUID PRIMARY KEY,
+  email VARCHAR(255) NOT NULL UNIQUE,
+  password_hash VARCHAR(255) NOT NULL,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS households (
+  id UUID PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  invite_code VARCHAR(255) NOT NULL UNIQUE,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS household_members (
+  id UUID PRIMARY KEY,
+  household_id UUID NOT NULL REFERENCES households (id),
+  user_id UUID NOT NULL REFERENCES users (id),
+  role VARCHAR(255) NOT NULL,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS connections (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL REFERENCES users (id),
+  type VARCHAR(255) NOT NULL,
+  provider_id VARCHAR(255) NOT NULL,
+  display_name VARCHAR(255) NOT NULL,
+  status VARCHAR(255) NOT NULL,
+  encrypted_config TEXT,
+  external_id VARCHAR(255),
+  auto_sync_enabled BOOLEAN NOT NULL,
+  last_synced_at TIMESTAMP(6) WITH TIME ZONE,
+  sync_status VARCHAR(255),
+  sync_stage VARCHAR(255),
+  sync_progress INTEGER,
+  last_sync_started_at TIMESTAMP(6) WITH TIME ZONE,
+  last_sync_completed_at TIMESTAMP(6) WITH TIME ZONE,
+  last_sync_error TEXT,
+  created_at TIMESTAMP(6) WITH TIME ZONE,
+  updated_at TIMESTAMP(6) WITH TIME ZONE,
+  error_message TEXT,
+  provider_state TEXT
+);
+
+CREATE TABLE IF NOT EXISTS financial_accounts (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL REFERENCES users (id),
+  household_id UUID REFERENCES households (id),
+  connection_id UUID REFERENCES connections (id),
+  type VARCHAR(255) NOT NULL,
+  provider VARCHAR(255) NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  label VARCHAR(255),
+  currency VARCHAR(255) NOT NULL,
+  external_id VARCHAR(255),
+  iban VARCHAR(255),
+  account_number VARCHAR(255),
+  current_balance NUMERIC(19, 4),
+  opening_balance NUMERIC(19, 4),
+  current_fiat_value NUMERIC(19, 4),
+  fiat_currency VARCHAR(255),
+  last_synced_at TIMESTAMP(6) WITH TIME ZONE,
+  last_booked_date DATE,
+  rollups_built_at TIMESTAMP(6) WITH TIME ZONE,
+  mirror_since DATE
+);
+
+CREATE TABLE IF NOT EXISTS account_transactions (
+  id UUID PRIMARY KEY,
+  account_id UUID NOT NULL REFERENCES financial_accounts (id),
+  amount NUMERIC(19, 4) NOT NULL,
+  currency VARCHAR(255) NOT NULL,
+  direction VARCHAR(255) NOT NULL,
+  description TEXT,
+  booking_date DATE,
+  value_date DATE,
+  category VARCHAR(255),
+  category_source VARCHAR(255),
+  category_confidence NUMERIC(5, 2),
+  category_reason TEXT,
+  external_id VARCHAR(512),
+  provider_transaction_id VARCHAR(512),
+  status VARCHAR(255),
+  transaction_type VARCHAR(128),
+  merchant_name VARCHAR(512),
+  counterparty_iban VARCHAR(64),
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+  id UUID PRIMARY KEY,
+  account_id UUID NOT NULL,
+  period_start DATE NOT NULL,
+  currency VARCHAR(255) NOT NULL,
+  category VARCHAR(255) NOT NULL,
+  direction VARCHAR(255) NOT NULL,
+  total NUMERIC(19, 4) NOT NULL,
+  tx_count BIGINT NOT NULL,
+  updated_at TIMESTAMP(6) WITH TIME ZONE,
+  CONSTRAINT uk_monthly_rollups_key UNIQUE (account_id, period_start, currency, category, direction)
+);
+
+CREATE TABLE IF NOT EXISTS category_overrides (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL REFERENCES users (id),
+  match_type VARCHAR(255) NOT NULL,
+  match_value VARCHAR(255) NOT NULL,
+  match_mode VARCHAR(20) NOT NULL DEFAULT 'CONTAINS',
+  category VARCHAR(255) NOT NULL,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS transaction_categories (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL REFERENCES users (id),
+  name VARCHAR(80) NOT NULL,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  UNIQUE (user_id, name)
+);
+
+CREATE TABLE IF NOT EXISTS savings_goals (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL REFERENCES users (id),
+  name VARCHAR(255) NOT NULL,
+  currency VARCHAR(255) NOT NULL,
+  target_amount NUMERIC(19, 4) NOT NULL,
+  current_amount NUMERIC(19, 4),
+  monthly_contribution NUMERIC(19, 4),
+  auto_enabled BOOLEAN NOT NULL,
+  last_applied_month VARCHAR(255),
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL,
+  token_hash VARCHAR(128) NOT NULL UNIQUE,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  revoked_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS passkey_credentials (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL REFERENCES users (id),
+  credential_id VARCHAR(512) NOT NULL UNIQUE,
+  public_key_cose BYTEA NOT NULL,
+  signature_count BIGINT NOT NULL,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  last_used_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS passkey_challenges (
+  id UUID PRIMARY KEY,
+  user_id UUID REFERENCES users (id),
+  challenge_type VARCHAR(32) NOT NULL,
+  options_json TEXT NOT NULL,
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS app_settings (
+  id UUID PRIMARY KEY,
+  sync_enabled BOOLEAN,
+  sync_interval_ms BIGINT,
+  crypto_sync_interval_ms BIGINT,
+  ai_enabled BOOLEAN,
+  ai_model VARCHAR(255),
+  ai_disabled_until TIMESTAMP(6) WITH TIME ZONE,
+  ai_last_error VARCHAR(255),
+  ai_last_error_at TIMESTAMP(6) WITH TIME ZONE,
+  created_at TIMESTAMP(6) WITH TIME ZONE,
+  updated_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- Columns added after older databases were first created by ddl-auto.
+ALTER TABLE category_overrides ADD COLUMN IF NOT EXISTS match_mode VARCHAR(20) NOT NULL DEFAULT 'CONTAINS';
+ALTER TABLE connections ADD COLUMN IF NOT EXISTS provider_state TEXT;
+ALTER TABLE financial_accounts ADD COLUMN IF NOT EXISTS last_booked_date DATE;
+ALTER TABLE financial_accounts ADD COLUMN IF NOT EXISTS rollups_built_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE financial_accounts ADD COLUMN IF NOT EXISTS mirror_since DATE;
@@ -0,0 +1,29 @@
+-- Listing, keyset paging and export: account_id in (...) and booking_date range, ordered by booking_date, id.
+CREATE INDEX IF NOT EXISTS idx_account_transactions_account_booking_id
+  ON account_transactions (account_id, booking_date, id);
+
+-- Import dedupe: findByAccountIdAndExternalIdIn / findExistingExternalIds.
+CREATE INDEX IF NOT EXISTS idx_account_transactions_account_external_id
+  ON account_transactions (account_id, external_id);
+
+-- AI review list: only a small share of rows is AI-categorised, so keep the index partial.
+CREATE INDEX IF NOT EXISTS idx_account_transactions_ai
+  ON account_transactions (account_id, booking_date DESC, created_at DESC)
+  WHERE lower(coalesce(category_source, '')) = 'ai';
+
+-- Account resolution behind every transaction query (user, household, connection joins).
+CREATE INDEX IF NOT EXISTS idx_financial_accounts_user ON financial_accounts (user_id);
+CREATE INDEX IF NOT EXISTS idx_financial_accounts_household ON financial_accounts (household_id);
+CREATE INDEX IF NOT EXISTS idx_financial_accounts_connection_external
+  ON financial_accounts (connection_id, external_id);
+
+-- connection.status <> DISABLED is checked per account via the connection primary key;
+-- the scheduler scans auto-sync connections by status.
+CREATE INDEX IF NOT EXISTS idx_connections_user ON connections (user_id);
+CREATE INDEX IF NOT EXISTS idx_connections_auto_sync_status
+  ON connections (status) WHERE auto_sync_enabled;
+
+CREATE INDEX IF NOT EXISTS idx_household_members_user ON household_members (user_id);
+CREATE INDEX IF NOT EXISTS idx_household_members_household ON household_members (household_id);
+CREATE INDEX IF NOT EXISTS idx_category_overrides_user_type ON category_overrides (user_id, match_type);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
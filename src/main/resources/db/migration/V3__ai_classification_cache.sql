@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS ai_classifications (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL,
+  fingerprint VARCHAR(64) NOT NULL,
+  category VARCHAR(255) NOT NULL,
+  confidence NUMERIC(5, 2),
+  model VARCHAR(255),
+  created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  CONSTRAINT uk_ai_classifications_key UNIQUE (user_id, fingerprint)
+);
@@ -0,0 +1,11 @@
+-- Imported rows the rules could not place; drained by AiCategorizationWorker within the AI rate budget.
+CREATE TABLE IF NOT EXISTS ai_categorization_queue (
+  transaction_id UUID PRIMARY KEY REFERENCES account_transactions (id) ON DELETE CASCADE,
+  user_id UUID NOT NULL,
+  attempts INTEGER NOT NULL DEFAULT 0,
+  enqueued_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_categorization_queue_due
+  ON ai_categorization_queue (next_attempt_at, enqueued_at);
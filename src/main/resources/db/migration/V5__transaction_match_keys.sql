@@ -0,0 +1,21 @@
+-- Normalized match keys for category rules, kept by PostgreSQL itself. The expression mirrors the
+-- application normalizer: lower-case, strip everything but a-z and 0-9, empty becomes null.
+ALTER TABLE account_transactions
+  ADD COLUMN IF NOT EXISTS merchant_key TEXT
+    GENERATED ALWAYS AS (nullif(regexp_replace(lower(merchant_name), '[^a-z0-9]+', '', 'g'), '')) STORED;
+ALTER TABLE account_transactions
+  ADD COLUMN IF NOT EXISTS description_key TEXT
+    GENERATED ALWAYS AS (nullif(regexp_replace(lower(description), '[^a-z0-9]+', '', 'g'), '')) STORED;
+ALTER TABLE account_transactions
+  ADD COLUMN IF NOT EXISTS counterparty_iban_key TEXT
+    GENERATED ALWAYS AS (nullif(regexp_replace(lower(counterparty_iban), '[^a-z0-9]+', '', 'g'), '')) STORED;
+
+-- CONTAINS rules become key LIKE '%value%'; trigram indexes serve those, btree the EXACT and IBAN rules.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_account_transactions_merchant_key_trgm
+  ON account_transactions USING gin (merchant_key gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_account_transactions_description_key_trgm
+  ON account_transactions USING gin (description_key gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_account_transactions_counterparty_iban_key
+  ON account_transactions (counterparty_iban_key);
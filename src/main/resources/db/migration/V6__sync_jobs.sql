@@ -0,0 +1,12 @@
+-- Pending and running connection syncs, one row per connection; drained by SyncDispatcher.
+CREATE TABLE IF NOT EXISTS sync_jobs (
+  connection_id UUID PRIMARY KEY REFERENCES connections (id) ON DELETE CASCADE,
+  provider_id VARCHAR(255) NOT NULL,
+  sync_mode VARCHAR(32) NOT NULL,
+  priority INTEGER NOT NULL,
+  enqueued_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  started_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_jobs_queued
+  ON sync_jobs (priority DESC, enqueued_at) WHERE started_at IS NULL;
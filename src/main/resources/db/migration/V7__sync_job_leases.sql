@@ -0,0 +1,6 @@
+-- A started job is leased to one node; a lease that is not renewed expires and the job can be claimed again.
+ALTER TABLE sync_jobs ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255);
+ALTER TABLE sync_jobs ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_sync_jobs_lease
+  ON sync_jobs (lease_expires_at) WHERE started_at IS NOT NULL;
@@ -0,0 +1,2 @@
+-- ddl-auto created sync_status with a CHECK listing the enum values of the time, which predates QUEUED.
+ALTER TABLE connections DROP CONSTRAINT IF EXISTS connections_sync_status_check;
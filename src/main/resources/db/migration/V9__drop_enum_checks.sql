@@ -0,0 +1,11 @@
+-- ddl-auto added a CHECK listing the enum values to every @Enumerated(STRING) column. Databases created
+-- by Flyway have none, and a stale list rejects every enum constant added later, so drop them everywhere.
+-- connections.sync_status is handled by V8.
+ALTER TABLE household_members DROP CONSTRAINT IF EXISTS household_members_role_check;
+ALTER TABLE connections DROP CONSTRAINT IF EXISTS connections_type_check;
+ALTER TABLE connections DROP CONSTRAINT IF EXISTS connections_status_check;
+ALTER TABLE financial_accounts DROP CONSTRAINT IF EXISTS financial_accounts_type_check;
+ALTER TABLE account_transactions DROP CONSTRAINT IF EXISTS account_transactions_direction_check;
+ALTER TABLE category_overrides DROP CONSTRAINT IF EXISTS category_overrides_match_type_check;
+ALTER TABLE category_overrides DROP CONSTRAINT IF EXISTS category_overrides_match_mode_check;
+ALTER TABLE monthly_rollups DROP CONSTRAINT IF EXISTS monthly_rollups_direction_check;
@@ -1,2 +0,0 @@
-ALTER TABLE IF EXISTS category_overrides
-  ADD COLUMN IF NOT EXISTS match_mode VARCHAR(20) NOT NULL DEFAULT 'CONTAINS';
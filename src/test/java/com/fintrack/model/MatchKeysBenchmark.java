@@ -0,0 +1,47 @@
+package com.fintrack.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Normalizes a typical mix of merchant names, bank descriptions, IBANs and stored keys.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchKeysBenchmark {
+  private final String[] values = {
+      "ALBERT HEIJN 1234 AMSTERDAM NLD",
+      "Betaalautomaat 12:34 pasnr. 012 Jumbo Supermarkten",
+      "SEPA Overboeking IBAN: NL91ABNA0417164300 BIC: ABNANL2A Naam: J. Jansen Omschrijving: Huur",
+      "BE71 0961 2345 6769",
+      "Spotify AB",
+      "albertheijn1234",
+      "nl91abna0417164300",
+      "Café 't Hoekje – €12,50",
+  };
+
+  @Benchmark
+  public void matchKeys(Blackhole blackhole) {
+    for (String value : values) {
+      blackhole.consume(MatchKeys.normalize(value));
+    }
+  }
+
+  @Benchmark
+  public void regex(Blackhole blackhole) {
+    for (String value : values) {
+      blackhole.consume(RegexMatchKeys.normalize(value));
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.fintrack.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MatchKeysTest {
+
+  @Test
+  void matchesRegexNormalizerForEveryBmpCharacter() {
+    for (int c = 0; c <= Character.MAX_VALUE; c++) {
+      String value = "a" + (char) c + "Z";
+      assertEquals(RegexMatchKeys.normalize(value), MatchKeys.normalize(value), () -> "U+" + Integer.toHexString(value.charAt(1)));
+    }
+  }
+
+  @Test
+  void matchesRegexNormalizerForRandomStrings() {
+    Random random = new Random(42);
+    String alphabet = "abcXYZ019 \t\n-_./*İıKÅßéÉ€ΣσςДд  K😀";
+    for (int i = 0; i < 200_000; i++) {
+      StringBuilder builder = new StringBuilder();
+      int length = random.nextInt(24);
+      for (int j = 0; j < length; j++) {
+        builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      String value = builder.toString();
+      assertEquals(RegexMatchKeys.normalize(value), MatchKeys.normalize(value), value);
+    }
+  }
+
+  @Test
+  void returnsKeysUnchangedAndBlankAsNull() {
+    String key = "albertheijn1234";
+    assertSame(key, MatchKeys.normalize(key));
+    assertNull(MatchKeys.normalize(null));
+    assertNull(MatchKeys.normalize(""));
+    assertNull(MatchKeys.normalize(" -- / "));
+    assertEquals("be71096123456769", MatchKeys.normalize("BE71 0961 2345 6769"));
+  }
+}
@@ -0,0 +1,20 @@
+package com.fintrack.model;
+
+import java.util.Locale;
+
+// The regex normalizer MatchKeys replaced, kept as the reference its output must match.
+final class RegexMatchKeys {
+  private RegexMatchKeys() {
+  }
+
+  static String normalize(String value) {
+    if (value == null) {
+      return null;
+    }
+    String cleaned = value.toLowerCase(Locale.ROOT)
+        .replaceAll("\\s+", " ")
+        .replaceAll("[^a-z0-9]+", "")
+        .trim();
+    return cleaned.isBlank() ? null : cleaned;
+  }
+}
@@ -0,0 +1,61 @@
+package com.fintrack.provider.enablebanking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Decodes the recorded transaction pages in src/test/resources/fixtures/enablebanking, streaming versus
+// the tree extraction it replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnableBankingTransactionDecoderBenchmark {
+  private static final String[] FIXTURES = {
+      "transactions-page.json",
+      "transactions-booked-pending.json",
+      "transactions-items.json",
+      "transactions-array.json"};
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final EnableBankingTransactionDecoder decoder = new EnableBankingTransactionDecoder(objectMapper);
+  private byte[][] pages;
+
+  @Setup
+  public void load() throws IOException {
+    pages = new byte[FIXTURES.length][];
+    for (int i = 0; i < FIXTURES.length; i++) {
+      try (InputStream in = getClass().getResourceAsStream("/fixtures/enablebanking/" + FIXTURES[i])) {
+        pages[i] = in.readAllBytes();
+      }
+    }
+  }
+
+  @Benchmark
+  public void streaming(Blackhole blackhole) {
+    for (byte[] page : pages) {
+      blackhole.consume(decoder.decode(page));
+    }
+  }
+
+  @Benchmark
+  public void tree(Blackhole blackhole) throws IOException {
+    for (byte[] page : pages) {
+      blackhole.consume(EnableBankingTreeExtraction.extract(objectMapper.readTree(page)));
+    }
+  }
+}
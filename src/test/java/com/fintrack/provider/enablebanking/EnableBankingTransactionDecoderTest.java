@@ -0,0 +1,71 @@
+package com.fintrack.provider.enablebanking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EnableBankingTransactionDecoderTest {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final EnableBankingTransactionDecoder decoder = new EnableBankingTransactionDecoder(objectMapper);
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "transactions-page.json",
+      "transactions-booked-pending.json",
+      "transactions-items.json",
+      "transactions-array.json"})
+  void matchesTreeExtraction(String fixture) throws IOException {
+    byte[] body = fixture(fixture);
+    EnableBankingTransactionPage expected = EnableBankingTreeExtraction.extract(objectMapper.readTree(body));
+
+    assertEquals(expected, decoder.decode(body));
+  }
+
+  // Rows without an id are keyed by a hash of their JSON; a different key would import them again.
+  @Test
+  void keepsContentHashIdsOfEarlierImports() throws IOException {
+    List<EnableBankingTransaction> rows = decoder.decode(fixture("transactions-page.json")).transactions();
+
+    assertEquals("tx-2024-03-02-0001", rows.get(0).externalId());
+    assertEquals("camel-7781", rows.get(1).externalId());
+    assertEquals("991823", rows.get(2).externalId());
+    assertEquals("8dec1100-1d14-3aef-8f3f-743e1b4b64fd", rows.get(3).externalId());
+    assertEquals("e06f32cb-2263-3da0-adcc-6f424a6963c1", rows.get(4).externalId());
+    assertEquals("4c3c97b4-52a6-37dd-956a-95e070826b8d", rows.get(5).externalId());
+  }
+
+  @Test
+  void resolvesAlternativeFields() throws IOException {
+    EnableBankingTransactionPage page = decoder.decode(fixture("transactions-page.json"));
+    EnableBankingTransaction card = page.transactions().get(0);
+
+    assertEquals("eyJwYWdlIjogMn0=", page.continuationKey());
+    assertEquals(new BigDecimal("12.34"), card.amount());
+    assertEquals("Albert Heijn 1234", card.creditorName());
+    assertEquals("BEA, Apple Pay | Albert Heijn 1234,PAS123 | NR:CT7H83, 01.03.24/18:41", card.remittance());
+    assertEquals("PMNT", card.transactionType());
+    assertNull(page.transactions().get(4).amount());
+  }
+
+  @Test
+  void emptyBodyHasNoTransactions() {
+    EnableBankingTransactionPage page = decoder.decode(new byte[0]);
+
+    assertNull(page.transactions());
+    assertNull(page.continuationKey());
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = EnableBankingTransactionDecoderTest.class.getResourceAsStream("/fixtures/enablebanking/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
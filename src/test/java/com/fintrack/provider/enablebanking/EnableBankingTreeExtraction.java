@@ -0,0 +1,227 @@
+package com.fintrack.provider.enablebanking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// The JsonNode tree extraction EnableBankingProvider used before the streaming decoder, kept as the
+// reference the decoder must match.
+final class EnableBankingTreeExtraction {
+  private EnableBankingTreeExtraction() {
+  }
+
+  static EnableBankingTransactionPage extract(JsonNode txResponse) {
+    String continuationKey = firstNonBlank(
+        textValue(txResponse, "continuation_key"),
+        textValue(txResponse, "continuationKey"));
+    Iterable<JsonNode> txItems = extractTransactionItems(txResponse);
+    if (txItems == null) {
+      return new EnableBankingTransactionPage(null, continuationKey);
+    }
+    List<EnableBankingTransaction> rows = new ArrayList<>();
+    for (JsonNode txNode : txItems) {
+      // Non-object entries resolved to rows without an amount, which the importer skipped.
+      if (txNode.isObject()) {
+        rows.add(toTransaction(txNode));
+      }
+    }
+    return new EnableBankingTransactionPage(rows, continuationKey);
+  }
+
+  private static EnableBankingTransaction toTransaction(JsonNode txNode) {
+    return new EnableBankingTransaction(
+        resolveExternalId(txNode),
+        text(txNode, "transaction_id"),
+        firstAmount(txNode, "transaction_amount.amount", "amount.amount", "amount", "transactionAmount.amount"),
+        firstNonBlank(
+            text(txNode, "transaction_amount.currency"),
+            text(txNode, "amount.currency"),
+            text(txNode, "currency")),
+        text(txNode, "status"),
+        firstNonBlank(text(txNode, "credit_debit_indicator"), text(txNode, "creditDebitIndicator")),
+        firstNonBlank(text(txNode, "creditor_name"), text(txNode, "creditor.name")),
+        firstNonBlank(text(txNode, "debtor_name"), text(txNode, "debtor.name")),
+        firstNonBlank(
+            text(txNode, "creditor_account.iban"),
+            text(txNode, "creditorAccount.iban"),
+            text(txNode, "creditor_account.other.identification"),
+            text(txNode, "creditorAccount.other.identification")),
+        firstNonBlank(
+            text(txNode, "debtor_account.iban"),
+            text(txNode, "debtorAccount.iban"),
+            text(txNode, "debtor_account.other.identification"),
+            text(txNode, "debtorAccount.other.identification")),
+        firstNonBlank(
+            text(txNode, "remittance_information_unstructured"),
+            text(txNode, "remittance_information_unstructured_array"),
+            joinArray(txNode.path("remittance_information"))),
+        parseDate(firstNonBlank(
+            text(txNode, "booking_date"),
+            text(txNode, "transaction_date"),
+            text(txNode, "date"),
+            text(txNode, "value_date"))),
+        parseDate(firstNonBlank(text(txNode, "value_date"), text(txNode, "transaction_date"))),
+        firstNonBlank(
+            text(txNode, "transaction_type"),
+            text(txNode, "proprietary_bank_transaction_code"),
+            text(txNode, "bank_transaction_code.code"),
+            text(txNode, "bank_transaction_code.sub_code")));
+  }
+
+  private static Iterable<JsonNode> extractTransactionItems(JsonNode txResponse) {
+    Iterable<JsonNode> txItems = extractArray(txResponse, "transactions", "items");
+    if (txItems == null) {
+      JsonNode txObject = txResponse == null ? null : txResponse.path("transactions");
+      if (txObject != null && txObject.isObject()) {
+        List<JsonNode> merged = new ArrayList<>();
+        JsonNode booked = txObject.path("booked");
+        if (booked != null && booked.isArray()) {
+          booked.forEach(merged::add);
+        }
+        JsonNode pending = txObject.path("pending");
+        if (pending != null && pending.isArray()) {
+          pending.forEach(merged::add);
+        }
+        if (!merged.isEmpty()) {
+          txItems = merged;
+        }
+      }
+    }
+    return txItems;
+  }
+
+  private static JsonNode extractArray(JsonNode root, String... candidates) {
+    if (root == null) {
+      return null;
+    }
+    if (root.isArray()) {
+      return root;
+    }
+    for (String key : candidates) {
+      JsonNode node = root.path(key);
+      if (node != null && node.isArray()) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  private static String resolveExternalId(JsonNode txNode) {
+    String externalId = firstNonBlank(
+        text(txNode, "transaction_id"),
+        text(txNode, "transactionId"),
+        text(txNode, "entry_reference"),
+        text(txNode, "internal_transaction_id"));
+    if (externalId == null) {
+      externalId = UUID.nameUUIDFromBytes(txNode.toString().getBytes(StandardCharsets.UTF_8)).toString();
+    }
+    return externalId;
+  }
+
+  private static String text(JsonNode node, String path) {
+    JsonNode current = node;
+    for (String part : path.split("\\.")) {
+      if (current == null) {
+        return null;
+      }
+      current = current.path(part);
+      if (current.isMissingNode() || current.isNull()) {
+        return null;
+      }
+    }
+    return current.isTextual() ? current.asText() : current.toString();
+  }
+
+  private static String textValue(JsonNode node, String path) {
+    JsonNode current = node;
+    for (String part : path.split("\\.")) {
+      if (current == null) {
+        return null;
+      }
+      current = current.path(part);
+      if (current.isMissingNode() || current.isNull()) {
+        return null;
+      }
+    }
+    if (current.isTextual() || current.isNumber()) {
+      return current.asText();
+    }
+    return null;
+  }
+
+  private static BigDecimal firstAmount(JsonNode node, String... paths) {
+    if (node == null) {
+      return null;
+    }
+    for (String path : paths) {
+      JsonNode current = node;
+      for (String part : path.split("\\.")) {
+        if (current == null) {
+          current = null;
+          break;
+        }
+        current = current.path(part);
+        if (current.isMissingNode() || current.isNull()) {
+          current = null;
+          break;
+        }
+      }
+      if (current != null && !current.isNull()) {
+        if (current.isNumber()) {
+          return current.decimalValue();
+        }
+        if (current.isTextual()) {
+          try {
+            return new BigDecimal(current.asText());
+          } catch (NumberFormatException ex) {
+            return null;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String joinArray(JsonNode node) {
+    if (node == null || node.isMissingNode() || node.isNull() || !node.isArray()) {
+      return null;
+    }
+    StringBuilder builder = new StringBuilder();
+    for (JsonNode item : node) {
+      if (item.isTextual()) {
+        if (builder.length() > 0) {
+          builder.append(" | ");
+        }
+        builder.append(item.asText());
+      }
+    }
+    return builder.length() == 0 ? null : builder.toString();
+  }
+
+  private static LocalDate parseDate(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value);
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+
+  private static String firstNonBlank(String... values) {
+    if (values == null) {
+      return null;
+    }
+    for (String value : values) {
+      if (value != null && !value.isBlank()) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
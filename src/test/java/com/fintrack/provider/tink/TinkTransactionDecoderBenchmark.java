@@ -0,0 +1,57 @@
+package com.fintrack.provider.tink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Decodes the recorded transaction pages in src/test/resources/fixtures/tink, streaming versus the tree
+// extraction it replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TinkTransactionDecoderBenchmark {
+  private static final String[] FIXTURES = {"transactions-v2.json", "transactions-booked.json", "transactions-data.json"};
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final TinkTransactionDecoder decoder = new TinkTransactionDecoder(objectMapper);
+  private byte[][] pages;
+
+  @Setup
+  public void load() throws IOException {
+    pages = new byte[FIXTURES.length][];
+    for (int i = 0; i < FIXTURES.length; i++) {
+      try (InputStream in = getClass().getResourceAsStream("/fixtures/tink/" + FIXTURES[i])) {
+        pages[i] = in.readAllBytes();
+      }
+    }
+  }
+
+  @Benchmark
+  public void streaming(Blackhole blackhole) {
+    for (byte[] page : pages) {
+      blackhole.consume(decoder.decode(page));
+    }
+  }
+
+  @Benchmark
+  public void tree(Blackhole blackhole) throws IOException {
+    for (byte[] page : pages) {
+      blackhole.consume(TinkTreeExtraction.extract(objectMapper.readTree(page)));
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.fintrack.provider.tink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TinkTransactionDecoderTest {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final TinkTransactionDecoder decoder = new TinkTransactionDecoder(objectMapper);
+
+  @ParameterizedTest
+  @ValueSource(strings = {"transactions-v2.json", "transactions-booked.json", "transactions-data.json"})
+  void matchesTreeExtraction(String fixture) throws IOException {
+    byte[] body = fixture(fixture);
+    TinkTransactionPage expected = TinkTreeExtraction.extract(objectMapper.readTree(body));
+
+    assertEquals(expected, decoder.decode(body));
+  }
+
+  // Rows without an id are keyed by a hash of their JSON; a different key would import them again.
+  @Test
+  void keepsContentHashIdsOfEarlierImports() throws IOException {
+    List<TinkTransaction> rows = decoder.decode(fixture("transactions-v2.json")).transactions();
+    List<TinkTransaction> booked = decoder.decode(fixture("transactions-booked.json")).transactions();
+
+    assertEquals("d8f37f7d19c240abb4ef5d5dbebae4ef", rows.get(0).externalId());
+    assertEquals("prov-only-1", rows.get(1).externalId());
+    assertEquals("legacy-tx-1", rows.get(2).externalId());
+    assertEquals("a9178543-9697-3902-b073-48fe694ca655", rows.get(3).externalId());
+    assertEquals("8812", rows.get(4).externalId());
+    assertEquals("entry-55", rows.get(5).externalId());
+    assertEquals("f941c244-8de7-357b-848e-2f0d7ea81cb9", booked.get(1).externalId());
+  }
+
+  @Test
+  void parsesScaledAmounts() throws IOException {
+    TinkTransactionPage page = decoder.decode(fixture("transactions-v2.json"));
+
+    assertEquals("page-2-token", page.nextPageToken());
+    assertEquals(new BigDecimal("-13.00"), page.transactions().get(0).amount());
+    assertEquals(new BigDecimal("2500.0"), page.transactions().get(1).amount());
+    assertEquals(new BigDecimal("5.00"), page.transactions().get(5).amount());
+  }
+
+  @Test
+  void emptyBodyHasNoTransactions() {
+    TinkTransactionPage page = decoder.decode(new byte[0]);
+
+    assertNull(page.transactions());
+    assertNull(page.nextPageToken());
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = TinkTransactionDecoderTest.class.getResourceAsStream("/fixtures/tink/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
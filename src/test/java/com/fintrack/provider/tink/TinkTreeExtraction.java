@@ -0,0 +1,225 @@
+package com.fintrack.provider.tink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// The JsonNode tree extraction TinkProvider used before the streaming decoder, kept as the reference
+// the decoder must match.
+final class TinkTreeExtraction {
+  private TinkTreeExtraction() {
+  }
+
+  static TinkTransactionPage extract(JsonNode transactionsResponse) {
+    String nextPageToken = firstNonBlank(
+        text(transactionsResponse, "nextPageToken"),
+        text(transactionsResponse, "next_page_token"));
+    JsonNode txArray = extractTransactions(transactionsResponse);
+    if (txArray == null) {
+      return new TinkTransactionPage(null, nextPageToken);
+    }
+    List<TinkTransaction> rows = new ArrayList<>();
+    for (JsonNode txNode : txArray) {
+      // Non-object entries resolved to rows without an amount, which the importer skipped.
+      if (txNode.isObject()) {
+        rows.add(toTransaction(txNode));
+      }
+    }
+    return new TinkTransactionPage(rows, nextPageToken);
+  }
+
+  private static TinkTransaction toTransaction(JsonNode txNode) {
+    return new TinkTransaction(
+        firstNonBlank(text(txNode, "accountId"), text(txNode, "account.id")),
+        resolveExternalId(txNode),
+        text(txNode, "identifiers.providerTransactionId"),
+        firstAmount(
+            txNode,
+            "amount.value",
+            "amount",
+            "transactionAmount.amount",
+            "transactionAmount.amount.value",
+            "amount.value.value"),
+        firstNonBlank(
+            text(txNode, "currency"),
+            text(txNode, "amount.currency"),
+            text(txNode, "amount.currencyCode"),
+            text(txNode, "transactionAmount.currency")),
+        firstNonBlank(
+            text(txNode, "description"),
+            text(txNode, "text"),
+            text(txNode, "descriptions.display"),
+            text(txNode, "descriptions.original"),
+            text(txNode, "merchant.name"),
+            text(txNode, "counterpart.name")),
+        parseDate(firstNonBlank(
+            text(txNode, "date"),
+            text(txNode, "bookingDate"),
+            text(txNode, "dates.booked"))),
+        parseDate(text(txNode, "valueDate")),
+        firstNonBlank(text(txNode, "status"), text(txNode, "bookingStatus")),
+        firstNonBlank(text(txNode, "types.type"), text(txNode, "type")),
+        text(txNode, "merchant.name"));
+  }
+
+  private static String resolveExternalId(JsonNode txNode) {
+    String externalId = firstNonBlank(
+        text(txNode, "id"),
+        text(txNode, "identifiers.providerTransactionId"),
+        text(txNode, "transactionId"),
+        text(txNode, "internalTransactionId"),
+        text(txNode, "entryReference"));
+    if (externalId == null) {
+      externalId = UUID.nameUUIDFromBytes(txNode.toString().getBytes(StandardCharsets.UTF_8)).toString();
+    }
+    return externalId;
+  }
+
+  private static JsonNode extractTransactions(JsonNode root) {
+    if (root == null) {
+      return null;
+    }
+    if (root.isArray()) {
+      return root;
+    }
+    JsonNode transactions = root.path("transactions");
+    if (transactions != null) {
+      if (transactions.isArray()) {
+        return transactions;
+      }
+      JsonNode booked = transactions.path("booked");
+      if (booked.isArray()) {
+        return booked;
+      }
+    }
+    JsonNode data = root.path("data");
+    if (data.isArray()) {
+      return data;
+    }
+    return null;
+  }
+
+  private static String text(JsonNode node, String path) {
+    JsonNode current = node;
+    for (String part : path.split("\\.")) {
+      if (current == null) {
+        return null;
+      }
+      current = current.path(part);
+      if (current.isMissingNode() || current.isNull()) {
+        return null;
+      }
+    }
+    return current.isTextual() ? current.asText() : current.toString();
+  }
+
+  private static BigDecimal firstAmount(JsonNode node, String... paths) {
+    for (String path : paths) {
+      JsonNode current = node;
+      for (String part : path.split("\\.")) {
+        if (current == null) {
+          current = null;
+          break;
+        }
+        current = current.path(part);
+        if (current.isMissingNode() || current.isNull()) {
+          current = null;
+          break;
+        }
+      }
+      if (current == null) {
+        continue;
+      }
+      BigDecimal parsed = parseAmountNode(current);
+      if (parsed != null) {
+        return parsed;
+      }
+    }
+    return null;
+  }
+
+  private static BigDecimal parseAmountNode(JsonNode node) {
+    if (node == null) {
+      return null;
+    }
+    if (node.isNumber()) {
+      return node.decimalValue();
+    }
+    if (node.isTextual()) {
+      try {
+        return new BigDecimal(node.asText());
+      } catch (NumberFormatException ignored) {
+        return null;
+      }
+    }
+    if (node.isObject()) {
+      JsonNode unscaled = node.get("unscaledValue");
+      JsonNode scale = node.get("scale");
+      BigDecimal unscaledValue = parseAmountNode(unscaled);
+      Integer scaleValue = parseScale(scale);
+      if (unscaledValue != null) {
+        if (scaleValue != null) {
+          return unscaledValue.movePointLeft(Math.abs(scaleValue));
+        }
+        return unscaledValue;
+      }
+      JsonNode value = node.get("value");
+      if (value != null) {
+        BigDecimal parsed = parseAmountNode(value);
+        if (parsed != null && scaleValue != null) {
+          return parsed.movePointLeft(Math.abs(scaleValue));
+        }
+        return parsed;
+      }
+      JsonNode amount = node.get("amount");
+      if (amount != null) {
+        return parseAmountNode(amount);
+      }
+    }
+    return null;
+  }
+
+  private static Integer parseScale(JsonNode scale) {
+    if (scale == null || scale.isNull()) {
+      return null;
+    }
+    if (scale.canConvertToInt()) {
+      return scale.asInt();
+    }
+    if (scale.isTextual()) {
+      try {
+        return Integer.parseInt(scale.asText());
+      } catch (NumberFormatException ignored) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static LocalDate parseDate(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value);
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+
+  private static String firstNonBlank(String... values) {
+    if (values == null) {
+      return null;
+    }
+    for (String value : values) {
+      if (value != null && !value.isBlank()) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,50 @@
+package com.fintrack.service;
+
+import com.fintrack.model.TransactionDirection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Categorizes typical bank descriptions, most of which match late in the rules or not at all.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionCategorizerBenchmark {
+  private final TransactionCategorizer categorizer = new TransactionCategorizer();
+  private final ContainsLoopCategorizer reference = new ContainsLoopCategorizer();
+  private final String[] descriptions = {
+      "ALBERT HEIJN 1234 AMSTERDAM NLD",
+      "Betaalautomaat 12:34 pasnr. 012 Jumbo Supermarkten",
+      "SEPA Overboeking IBAN: NL91ABNA0417164300 BIC: ABNANL2A Naam: J. Jansen Omschrijving: Huur",
+      "Spotify AB",
+      "NMBS/SNCB Brussel-Zuid",
+      "Geldautomaat Gent Korenmarkt",
+      "Overschrijving naar spaarrekening",
+      "kliniek sint-jan brugge",
+  };
+
+  @Benchmark
+  public void automaton(Blackhole blackhole) {
+    for (String description : descriptions) {
+      blackhole.consume(categorizer.categorizeDetailed(description, TransactionDirection.OUT, null));
+    }
+  }
+
+  @Benchmark
+  public void containsLoop(Blackhole blackhole) {
+    for (String description : descriptions) {
+      blackhole.consume(reference.categorizeDetailed(description, TransactionDirection.OUT, null));
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.fintrack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fintrack.model.TransactionDirection;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TransactionCategorizerTest {
+  private final TransactionCategorizer categorizer = new TransactionCategorizer();
+  private final ContainsLoopCategorizer reference = new ContainsLoopCategorizer();
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "",
+      "ALBERT HEIJN 1234 AMSTERDAM",
+      "Uber Eats order 55",
+      "UBER *TRIP",
+      "Spotify AB",
+      "Betaling Apple.com/Bill Cork",
+      "PİZZA HUT",
+      "BİO PLANET",
+      "PARKİNG Q8",
+      "Kliniek Gent",
+      "STRAßE Parking",
+      "Café 't Hoekje",
+      "Overschrijving naar J. Jansen",
+  })
+  void matchesContainsLoop(String description) {
+    for (TransactionDirection direction : new TransactionDirection[]{TransactionDirection.OUT, null}) {
+      assertEquals(reference.categorizeDetailed(description, direction, null),
+          categorizer.categorizeDetailed(description, direction, null), description);
+    }
+  }
+
+  @Test
+  void matchesContainsLoopForRandomStrings() {
+    Random random = new Random(42);
+    String[] fragments = {
+        "a", "h", "i", "l", "r", "t", "u", "b", "e", " ", ".", "/", "AH", "Uber", "BAR", "cafe", "İ", "ı",
+        "K", "ß", "Σ", "é", "spar", "total", "rent", "atm", "q8", "school", "😀",
+    };
+    for (int i = 0; i < 100_000; i++) {
+      StringBuilder builder = new StringBuilder();
+      int length = random.nextInt(8);
+      for (int j = 0; j < length; j++) {
+        builder.append(fragments[random.nextInt(fragments.length)]);
+      }
+      String description = builder.toString();
+      assertEquals(reference.categorizeDetailed(description, TransactionDirection.OUT, null),
+          categorizer.categorizeDetailed(description, TransactionDirection.OUT, null), description);
+    }
+  }
+
+  @Test
+  void keepsTypeAndDirectionChecksFirst() {
+    assertEquals(reference.categorizeDetailed("Spotify", TransactionDirection.IN, null),
+        categorizer.categorizeDetailed("Spotify", TransactionDirection.IN, null));
+    assertEquals(reference.categorizeDetailed("Spotify", TransactionDirection.OUT, "transfer"),
+        categorizer.categorizeDetailed("Spotify", TransactionDirection.OUT, "transfer"));
+    assertEquals(reference.categorizeDetailed(null, TransactionDirection.OUT, null),
+        categorizer.categorizeDetailed(null, TransactionDirection.OUT, null));
+  }
+}